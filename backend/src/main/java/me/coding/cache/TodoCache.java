@@ -0,0 +1,192 @@
+package me.coding.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache for todo lookups by id and for filtered todo lists.
+ * <p>
+ * Both caches are bounded in size and expire entries after a fixed time. Changes are applied from
+ * {@link TodoChangedEvent}s after commit: the changed id is evicted, and so is every cached filter
+ * result that either contained the todo or whose filter matches its new state. Other entries stay.
+ * <p>
+ * Entries are immutable snapshots, and every hit hands out fresh {@link Todo} instances, so a caller
+ * that changes a returned todo, even a transaction that is rolled back later, cannot alter what the
+ * next caller reads.
+ * <p>
+ * Hit, miss and eviction counters are published as the {@code cache.*} meters with the cache names
+ * {@value #BY_ID_CACHE} and {@value #BY_FILTER_CACHE}.
+ */
+@Component
+@Slf4j
+public class TodoCache implements MeterBinder {
+    
+    static final String BY_ID_CACHE = "todos.byId";
+    static final String BY_FILTER_CACHE = "todos.byFilter";
+    
+    private final Cache<Long, Snapshot> byId;
+    private final Cache<TodoFilter, FilterResult> byFilter;
+    
+    /** Bumped on every id invalidation so a todo loaded concurrently is not cached stale */
+    private final AtomicLong idGeneration = new AtomicLong();
+    
+    /** Bumped on every filter invalidation so a list loaded concurrently is not cached stale */
+    private final AtomicLong filterGeneration = new AtomicLong();
+    
+    public TodoCache(@Value("${todo.cache.ids.maximum-size:10000}") long maxIds,
+                     @Value("${todo.cache.ids.expire-after-write:10m}") Duration idTtl,
+                     @Value("${todo.cache.filters.maximum-size:1000}") long maxFilters,
+                     @Value("${todo.cache.filters.expire-after-write:1m}") Duration filterTtl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxIds)
+                .expireAfterWrite(idTtl)
+                .recordStats()
+                .build();
+        this.byFilter = Caffeine.newBuilder()
+                .maximumSize(maxFilters)
+                .expireAfterWrite(filterTtl)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Returns the cached todo or loads it with {@code loader}. Missing todos are not cached.
+     */
+    public Optional<Todo> findById(Long id, Function<Long, Optional<Todo>> loader) {
+        Snapshot cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached.toTodo());
+        }
+        
+        // Loaded outside Caffeine's compute: that runs under a map bin monitor, which would pin a
+        // virtual thread for the whole JDBC round trip
+        long generation = idGeneration.get();
+        Optional<Todo> loaded = loader.apply(id);
+        loaded.ifPresent(todo -> {
+            byId.put(id, Snapshot.of(todo));
+            if (idGeneration.get() != generation) {
+                byId.invalidate(id);
+            }
+        });
+        return loaded;
+    }
+    
+    public List<Todo> findTodos(TodoFilter filter, Function<TodoFilter, List<Todo>> loader) {
+        FilterResult cached = byFilter.getIfPresent(filter);
+        if (cached != null) {
+            return cached.todos();
+        }
+        
+        long generation = filterGeneration.get();
+        List<Todo> loaded = List.copyOf(loader.apply(filter));
+        byFilter.put(filter, new FilterResult(loaded));
+        if (filterGeneration.get() != generation) {
+            // A todo changed while loading; the result may predate it
+            byFilter.invalidate(filter);
+        }
+        return loaded;
+    }
+    
+    // After the filter index, which lists may be loaded from once their entries are dropped here
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onTodoChanged(TodoChangedEvent event) {
+        idGeneration.incrementAndGet();
+        byId.invalidate(event.id());
+        
+        filterGeneration.incrementAndGet();
+        Todo current = event.todo();
+        byFilter.asMap().entrySet().removeIf(entry -> entry.getValue().contains(event.id())
+                || (current != null && entry.getKey().matches(current)));
+        log.debug("Invalidated cached lookups for todo {} after {}", event.id(), event.type());
+    }
+    
+    public void invalidateAll() {
+        idGeneration.incrementAndGet();
+        byId.invalidateAll();
+        filterGeneration.incrementAndGet();
+        byFilter.invalidateAll();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, BY_ID_CACHE);
+        CaffeineCacheMetrics.monitor(registry, byFilter, BY_FILTER_CACHE);
+    }
+    
+    long idCacheSize() {
+        byId.cleanUp();
+        return byId.estimatedSize();
+    }
+    
+    long filterCacheSize() {
+        byFilter.cleanUp();
+        return byFilter.estimatedSize();
+    }
+    
+    private record FilterResult(List<Snapshot> snapshots, Set<Long> ids) {
+        
+        FilterResult(List<Todo> todos) {
+            this(todos.stream().map(Snapshot::of).toList(),
+                    todos.stream().map(Todo::getId).filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()));
+        }
+        
+        List<Todo> todos() {
+            return snapshots.stream().map(Snapshot::toTodo).toList();
+        }
+        
+        boolean contains(Long id) {
+            return ids.contains(id);
+        }
+    }
+    
+    /** The state of a todo when it was cached, detached from the entity it was read from */
+    private record Snapshot(Long id, String title, String description, Boolean completed, Boolean important,
+                            String category, LocalDate dueDate, LocalDateTime createdAt, LocalDateTime updatedAt,
+                            Long version) {
+        
+        static Snapshot of(Todo todo) {
+            return new Snapshot(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+                    todo.getImportant(), todo.getCategory(), todo.getDueDate(), todo.getCreatedAt(),
+                    todo.getUpdatedAt(), todo.getVersion());
+        }
+        
+        Todo toTodo() {
+            Todo todo = new Todo();
+            todo.setId(id);
+            todo.setTitle(title);
+            todo.setDescription(description);
+            todo.setCompleted(completed);
+            todo.setImportant(important);
+            todo.setCategory(category);
+            todo.setDueDate(dueDate);
+            todo.setCreatedAt(createdAt);
+            todo.setUpdatedAt(updatedAt);
+            todo.setVersion(version);
+            return todo;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package me.coding.compression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves hot, rarely changing GET responses gzip-compressed from memory, so they are neither
+ * rendered nor compressed again on every request. Other responses are compressed by the server
+ * ({@code server.compression}) as they are written.
+ * <p>
+ * Two kinds of paths are cached, each response keyed by URI, query, Accept and Host:
+ * <ul>
+ *   <li>{@code versioned-paths} answer If-None-Match themselves, like the category list. When an entry
+ *   is cached, the request reaches the handler with the entry's ETag in If-None-Match. A 304 from the
+ *   handler means the entry is current and it is sent; a 200 means the data changed, and the new body
+ *   replaces the entry.</li>
+ *   <li>{@code immutable-paths} do not change while the application runs, like the OpenAPI document.
+ *   Cached entries are sent without calling the handler, with an ETag derived from the content.</li>
+ * </ul>
+ * Only clients accepting gzip are served from the cache, and only bodies of at least
+ * {@code server.compression.min-response-size} are cached.
+ * <p>
+ * Hit, miss and eviction counters are published as the {@code cache.*} meters with the cache name
+ * {@value #CACHE_NAME}.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.compression.precompressed.enabled", havingValue = "true", matchIfMissing = true)
+public class PrecompressedResponseFilter extends OncePerRequestFilter implements MeterBinder {
+    
+    static final String CACHE_NAME = "responses.precompressed";
+    static final String GZIP = "gzip";
+    
+    private final Set<String> versionedPaths;
+    private final Set<String> immutablePaths;
+    private final long minSize;
+    private final int level;
+    private final Cache<String, Entry> entries;
+    
+    public PrecompressedResponseFilter(
+            @Value("${todo.compression.precompressed.versioned-paths:/api/v1/categories}") String[] versionedPaths,
+            @Value("${todo.compression.precompressed.immutable-paths:/v3/api-docs}") String[] immutablePaths,
+            @Value("${todo.compression.precompressed.maximum-size:64}") long maxEntries,
+            @Value("${todo.compression.precompressed.level:9}") int level,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minSize) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9");
+        }
+        this.versionedPaths = Set.copyOf(Arrays.asList(versionedPaths));
+        this.immutablePaths = Set.copyOf(Arrays.asList(immutablePaths));
+        this.minSize = minSize.toBytes();
+        this.level = level;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !"GET".equals(request.getMethod())
+                || !(versionedPaths.contains(path) || immutablePaths.contains(path))
+                || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean immutable = immutablePaths.contains(request.getRequestURI());
+        String key = key(request);
+        String clientTag = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        Entry cached = entries.getIfPresent(key);
+        
+        if (cached != null && immutable) {
+            if (cached.etag().equals(clientTag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(HttpHeaders.ETAG, cached.etag());
+                return;
+            }
+            send(response, cached);
+            return;
+        }
+        
+        // A tag sent by the client is left to the handler; it answers 304 or a fresh body
+        boolean revalidate = cached != null && clientTag == null;
+        ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(revalidate ? new IfNoneMatchRequest(request, cached.etag()) : request, capture);
+        
+        if (revalidate && capture.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+            send(response, cached);
+            return;
+        }
+        if (capture.getStatus() != HttpServletResponse.SC_OK
+                || capture.getContentSize() < minSize
+                || capture.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            capture.copyBodyToResponse();
+            return;
+        }
+        
+        byte[] body = capture.getContentAsByteArray();
+        String etag = capture.getHeader(HttpHeaders.ETAG);
+        if (etag == null) {
+            if (!immutable) {
+                // Nothing to revalidate a cached copy against
+                capture.copyBodyToResponse();
+                return;
+            }
+            etag = contentTag(body);
+        }
+        Entry entry = new Entry(etag, capture.getContentType(), gzip(body, level), body.length);
+        entries.put(key, entry);
+        send(response, entry);
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, CACHE_NAME);
+    }
+    
+    private static void send(HttpServletResponse response, Entry entry) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader(HttpHeaders.ETAG, entry.etag());
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(entry.contentType());
+        response.setContentLength(entry.gzipped().length);
+        response.getOutputStream().write(entry.gzipped());
+    }
+    
+    private static String key(HttpServletRequest request) {
+        return request.getRequestURI() + '?' + request.getQueryString()
+                + '|' + request.getHeader(HttpHeaders.ACCEPT)
+                + '|' + request.getHeader(HttpHeaders.HOST);
+    }
+    
+    /**
+     * Whether an Accept-Encoding header allows gzip, explicitly or through {@code *}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                return parts.length < 2 || !parts[1].strip().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    static String contentTag(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return "\"" + Long.toString(crc.getValue(), 36) + "-" + Integer.toString(body.length, 36) + "\"";
+    }
+    
+    static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(compressed, level)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+    
+    /**
+     * A cached response; {@code size} is the length before compression.
+     */
+    record Entry(String etag, String contentType, byte[] gzipped, int size) {
+    }
+    
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        
+        LeveledGzipOutputStream(OutputStream output, int level) throws IOException {
+            super(output);
+            def.setLevel(level);
+        }
+    }
+    
+    private static final class IfNoneMatchRequest extends HttpServletRequestWrapper {
+        
+        private final String etag;
+        
+        IfNoneMatchRequest(HttpServletRequest request, String etag) {
+            super(request);
+            this.etag = etag;
+        }
+        
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? etag : super.getHeader(name);
+        }
+        
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)
+                    ? Collections.enumeration(Set.of(etag))
+                    : super.getHeaders(name);
+        }
+        
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+            names.add(HttpHeaders.IF_NONE_MATCH);
+            return Collections.enumeration(names);
+        }
+    }
+}
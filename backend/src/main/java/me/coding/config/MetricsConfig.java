@@ -0,0 +1,19 @@
+package me.coding.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns {@link io.micrometer.core.annotation.Timed @Timed} on Spring beans into timers. Percentiles
+ * and histograms are configured per meter name under {@code management.metrics.distribution}.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -1,9 +1,15 @@
 package me.coding.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.springdoc.core.customizers.OpenApiCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,7 +22,9 @@ public class OpenApiConfig {
                 .info(new Info()
                         .title("Todo API")
                         .version("1.0.0")
-                        .description("A simple REST API for managing todo items")
+                        .description("A simple REST API for managing todo items. Besides JSON, the todo and category "
+                                + "endpoints accept and return CBOR, Smile and Protocol Buffers, chosen with the "
+                                + "Content-Type and Accept headers.")
                         .contact(new Contact()
                                 .name("Todo API Team")
                                 .email("contact@todoapi.com")
@@ -25,4 +33,44 @@ public class OpenApiConfig {
                                 .name("MIT License")
                                 .url("https://opensource.org/licenses/MIT")));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Lists the binary formats of {@link WireFormatConfig} next to every JSON body of the todo and category
+     * endpoints, with the same schema.
+     */
+    @Bean
+    public OpenApiCustomizer binaryWireFormats() {
+        return openApi -> {
+            if (openApi.getPaths() == null) {
+                return;
+            }
+            openApi.getPaths().forEach((path, item) -> {
+                if (path.startsWith("/api/v1/todos") || path.startsWith("/api/v1/categories")) {
+                    item.readOperations().forEach(OpenApiConfig::addBinaryMediaTypes);
+                }
+            });
+        };
+    }
+    
+    private static void addBinaryMediaTypes(Operation operation) {
+        RequestBody requestBody = operation.getRequestBody();
+        if (requestBody != null) {
+            addBinaryMediaTypes(requestBody.getContent());
+        }
+        if (operation.getResponses() != null) {
+            for (ApiResponse response : operation.getResponses().values()) {
+                addBinaryMediaTypes(response.getContent());
+            }
+        }
+    }
+    
+    private static void addBinaryMediaTypes(Content content) {
+        MediaType json = content != null ? content.get(org.springframework.http.MediaType.APPLICATION_JSON_VALUE) : null;
+        if (json == null) {
+            return;
+        }
+        for (String mediaType : WireFormatConfig.BINARY_MEDIA_TYPES) {
+            content.putIfAbsent(mediaType, new MediaType().schema(json.getSchema()));
+        }
+    }
+}
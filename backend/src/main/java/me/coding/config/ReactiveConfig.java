@@ -0,0 +1,34 @@
+package me.coding.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler the {@code /api/v2} endpoints use to run blocking service and JDBC calls off the
+ * request thread. It uses virtual threads when {@code spring.threads.virtual.enabled} is set and
+ * Reactor's bounded elastic pool otherwise.
+ */
+@Configuration
+public class ReactiveConfig {
+    
+    public static final String TODO_SCHEDULER = "todoScheduler";
+    
+    @Bean(name = TODO_SCHEDULER, destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler boundedElasticTodoScheduler() {
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "todo-blocking");
+    }
+    
+    @Bean(name = TODO_SCHEDULER, destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualThreadTodoScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "todo-virtual");
+    }
+}
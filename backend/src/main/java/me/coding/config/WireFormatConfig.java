@@ -0,0 +1,78 @@
+package me.coding.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.coding.json.JacksonProtobufHttpMessageConverter;
+import me.coding.json.ProtobufCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary alternatives to JSON, chosen by the Accept and Content-Type headers: CBOR
+ * ({@value MediaType#APPLICATION_CBOR_VALUE}), Smile ({@value #APPLICATION_SMILE_VALUE}) and Protocol
+ * Buffers ({@value JacksonProtobufHttpMessageConverter#APPLICATION_PROTOBUF_VALUE}).
+ * <p>
+ * CBOR and Smile use the application's Jackson settings and serializers with a binary factory.
+ * The converters are appended after the JSON converter instead of being declared as beans, which
+ * would put them first: clients that send no Accept header or {@code Accept: *}{@code /*} keep
+ * getting JSON.
+ * <p>
+ * Since the body of every API response depends on the Accept header, each carries {@code Vary: Accept},
+ * so that caches keep the formats apart.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WireFormatConfig implements WebMvcConfigurer {
+    
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    
+    /** Media types offered next to application/json, as listed in the OpenAPI document */
+    public static final List<String> BINARY_MEDIA_TYPES = List.of(MediaType.APPLICATION_CBOR_VALUE,
+            APPLICATION_SMILE_VALUE, JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE);
+    
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+    
+    @Bean
+    public ProtobufCodec protobufCodec() {
+        return new ProtobufCodec();
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+        converters.add(new JacksonProtobufHttpMessageConverter(protobufCodec()));
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryAcceptInterceptor()).addPathPatterns("/api/**");
+    }
+    
+    private static final class VaryAcceptInterceptor implements HandlerInterceptor {
+        
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // Added before the handler runs, so 304 and error responses carry it too
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return true;
+        }
+    }
+}
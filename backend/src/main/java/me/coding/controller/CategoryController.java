@@ -11,11 +11,10 @@ import lombok.RequiredArgsConstructor;
 import me.coding.dto.ErrorResponse;
 import me.coding.model.Category;
 import me.coding.service.CategoryService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,12 +25,12 @@ import java.util.List;
 @Tag(name = "Category Management", description = "Operations for managing categories")
 public class CategoryController {
     
-    private static final Logger log = LoggerFactory.getLogger(CategoryController.class);
     private final CategoryService categoryService;
     
     @GetMapping
     @Operation(summary = "Get all categories", description = "Retrieve all categories")
     @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "200", description = "Successfully retrieved categories",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(type = "array", implementation = Category.class),
@@ -40,12 +39,13 @@ public class CategoryController {
                         value = "[{\"id\": 1, \"name\": \"Work\", \"description\": \"Work-related tasks\", \"createdAt\": \"2024-01-15T10:30:00\"}, {\"id\": 2, \"name\": \"Personal\", \"description\": \"Personal tasks\", \"createdAt\": \"2024-01-15T10:35:00\"}]"
                 )))
     })
-    public ResponseEntity<List<Category>> getAllCategories() {
-        log.info("GET /api/v1/categories - Getting all categories");
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest webRequest) {
+        if (webRequest.checkNotModified(ETags.of("categories", categoryService.categoriesVersion(), ETags.representation(webRequest)))) {
+            return null;
+        }
         
         List<Category> categories = categoryService.findAllCategories();
         
-        log.info("GET /api/v1/categories - Returning {} categories", categories.size());
         return ResponseEntity.ok(categories);
     }
     
@@ -63,9 +63,7 @@ public class CategoryController {
                 schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<Category> createCategory(@Valid @RequestBody Category category) {
-        log.info("POST /api/v1/categories - Creating category: {}", category.getName());
         Category createdCategory = categoryService.createCategory(category);
-        log.info("POST /api/v1/categories - Created category with id: {}", createdCategory.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdCategory);
     }
 }
\ No newline at end of file
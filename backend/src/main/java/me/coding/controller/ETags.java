@@ -0,0 +1,105 @@
+package me.coding.controller;
+
+import me.coding.config.WireFormatConfig;
+import me.coding.model.Todo;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * ETags for read endpoints, derived from the table versions kept by the services, and for single
+ * todos, derived from their persisted version.
+ * <p>
+ * Table versions start again from zero when the application restarts, so table tags also carry an
+ * epoch unique to this run; a tag issued before a restart can never match. Todo versions are stored
+ * with the row and need no epoch.
+ * <p>
+ * Table tags are weak and name the {@link #representation(WebRequest) representation} they were
+ * issued for: the JSON, CBOR, Smile and protobuf bodies of one version differ, and so do their gzip
+ * encodings. Todo tags stay strong, as PUT and PATCH compare them in If-Match.
+ */
+final class ETags {
+    
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+    
+    /** The formats the message converters offer, in the order they are tried */
+    private static final List<MediaType> REPRESENTATIONS = Stream.concat(
+                    Stream.of(MediaType.APPLICATION_JSON_VALUE), WireFormatConfig.BINARY_MEDIA_TYPES.stream())
+            .map(MediaType::parseMediaType)
+            .toList();
+    
+    private ETags() {
+    }
+    
+    /**
+     * @param qualifiers anything besides the table contents the response depends on, such as the
+     *                   representation or the current date
+     */
+    static String of(String table, long version, Object... qualifiers) {
+        StringJoiner tag = new StringJoiner("-", "W/\"", "\"");
+        tag.add(table).add(EPOCH).add(Long.toString(version));
+        for (Object qualifier : qualifiers) {
+            tag.add(String.valueOf(qualifier));
+        }
+        return tag.toString();
+    }
+    
+    /**
+     * The subtype of the format the Accept header of {@code request} selects, such as {@code json} or
+     * {@code cbor}: the most specific acceptable type, then the first format compatible with it. JSON
+     * when the header is missing, invalid or matches nothing, in which case the response is an error.
+     */
+    static String representation(WebRequest request) {
+        String[] accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON.getSubtype();
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(Arrays.asList(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON.getSubtype();
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            for (MediaType representation : REPRESENTATIONS) {
+                if (type.isCompatibleWith(representation)) {
+                    return representation.getSubtype();
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON.getSubtype();
+    }
+    
+    static String of(Todo todo) {
+        return "\"" + todo.getVersion() + "\"";
+    }
+    
+    /**
+     * Reads the version a client expects from an If-Match header holding a tag issued by {@link #of(Todo)}.
+     *
+     * @return the expected version, or null when there is no header or it is {@code *}
+     * @throws IllegalArgumentException when the header holds anything else
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // reported below
+            }
+        }
+        throw new IllegalArgumentException("If-Match must hold a single ETag of this todo, got: " + ifMatch);
+    }
+}
@@ -1,7 +1,12 @@
 package me.coding.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,34 +14,66 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import me.coding.dto.BatchResponse;
 import me.coding.dto.DeleteResponse;
 import me.coding.dto.ErrorResponse;
+import me.coding.dto.TodoBatchPatchRequest;
+import me.coding.dto.TodoCount;
+import me.coding.dto.TodoPage;
+import me.coding.dto.TodoStats;
 import me.coding.dto.TodoUpdateRequest;
+import me.coding.dto.TodoView;
 import me.coding.exception.ResourceNotFoundException;
+import me.coding.feed.TodoChangeFeed;
+import me.coding.json.ProtobufCodec;
+import me.coding.model.Category;
 import me.coding.model.Todo;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
 import me.coding.service.TodoService;
+import me.coding.stats.TodoStatistics;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/todos")
 @Tag(name = "Todo Management", description = "Operations for managing todo items")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {TodoController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 @RequiredArgsConstructor
-@Slf4j
 public class TodoController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    
     private final TodoService todoService;
+    private final TodoChangeFeed changeFeed;
+    private final TodoStatistics statistics;
+    private final ObjectMapper objectMapper;
+    private final ProtobufCodec protobufCodec;
     
     @GetMapping
-    @Operation(summary = "Get all todos", description = "Retrieve all todo items with optional filtering and search")
+    @Operation(summary = "Get all todos", description = "Retrieve all todo items with optional filtering and search. "
+            + "Passing limit or cursor switches to keyset pagination ordered by creation time; "
+            + "filters and search can be combined with it. Passing fields returns only the selected fields "
+            + "of each todo; it cannot be combined with pagination.")
     @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "200", description = "Successfully retrieved todos",
+                headers = @Header(name = NEXT_CURSOR_HEADER,
+                        description = "Cursor for the next page; absent on the last page or when pagination is not used",
+                        schema = @Schema(type = "string")),
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(type = "array", implementation = Todo.class),
                 examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
@@ -44,7 +81,7 @@ public class TodoController {
                         value = "[{\"id\": 1, \"title\": \"Complete project\", \"description\": \"Finish the todo application\", \"completed\": false, \"important\": true, \"category\": \"Work\", \"dueDate\": \"2024-12-31\", \"createdAt\": \"2024-01-15T10:30:00\", \"updatedAt\": \"2024-01-15T10:30:00\"}]"
                 )))
     })
-    public ResponseEntity<List<Todo>> list(
+    public ResponseEntity<List<?>> list(
             @Parameter(description = "Filter by completion status") 
             @RequestParam(required = false) Boolean completed,
             @Parameter(description = "Filter by category name") 
@@ -54,24 +91,176 @@ public class TodoController {
             @Parameter(description = "Filter by due date (YYYY-MM-DD)") 
             @RequestParam(required = false) LocalDate dueDate,
             @Parameter(description = "Search term to find in title or description") 
-            @RequestParam(required = false) String q) {
-        log.info("Fetching todos with completed: {}, category: {}, important: {}, dueDate: {}, search: {}", completed, category, important, dueDate, q);
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Maximum number of todos per page (1-" + TodoService.MAX_PAGE_SIZE + ")") 
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor taken from the " + NEXT_CURSOR_HEADER + " header of the previous page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,title,completed; all fields when absent",
+                    example = "id,title,completed")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        List<TodoField> selectedFields = fields != null ? TodoField.parse(fields) : null;
+        if (selectedFields != null && (limit != null || cursor != null)) {
+            throw new IllegalArgumentException("Fields cannot be combined with limit or cursor");
+        }
+        
+        // Read before the query: the data returned is never older than the version in the tag
+        if (webRequest.checkNotModified(ETags.of("todos", todoService.todosVersion(), ETags.representation(webRequest)))) {
+            return null;
+        }
+        
+        if (limit != null || cursor != null) {
+            TodoPage page = todoService.findTodoPage(TodoFilter.of(completed, category, important, dueDate), q, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items());
+        }
+        
+        if (selectedFields != null) {
+            List<TodoView> views = q != null && !q.trim().isEmpty()
+                    ? todoService.searchTodoViews(q.trim(), selectedFields)
+                    : todoService.findTodoViews(TodoFilter.of(completed, category, important, dueDate), selectedFields);
+            return ResponseEntity.ok(views);
+        }
         
         List<Todo> todos;
         if (q != null && !q.trim().isEmpty()) {
             todos = todoService.searchTodos(q.trim());
-            log.debug("Found {} todos matching search query: {}", todos.size(), q);
         } else {
             todos = todoService.findTodos(completed, category, important, dueDate);
-            log.debug("Retrieved {} todos", todos.size());
         }
         
         return ResponseEntity.ok(todos);
     }
     
+    @GetMapping("/count")
+    @Operation(summary = "Count todos", description = "Count the todos matching the same filters as the list endpoint. "
+            + "Answered from the in-memory filter index without reading any todo.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "200", description = "Number of matching todos",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = TodoCount.class)))
+    })
+    public ResponseEntity<TodoCount> count(
+            @Parameter(description = "Filter by completion status") 
+            @RequestParam(required = false) Boolean completed,
+            @Parameter(description = "Filter by category name") 
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Filter by important status") 
+            @RequestParam(required = false) Boolean important,
+            @Parameter(description = "Filter by due date (YYYY-MM-DD)") 
+            @RequestParam(required = false) LocalDate dueDate,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(ETags.of("todos", todoService.todosVersion(), ETags.representation(webRequest)))) {
+            return null;
+        }
+        long count = todoService.countTodos(TodoFilter.of(completed, category, important, dueDate));
+        return ResponseEntity.ok(new TodoCount(count));
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get todo statistics", description = "Counts of all, open, completed, important and "
+            + "due-today todos and of todos per category. Served from counters kept up to date on every change, "
+            + "so the cost does not grow with the number of todos.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "200", description = "Current statistics",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = TodoStats.class)))
+    })
+    public ResponseEntity<TodoStats> stats(WebRequest webRequest) {
+        // Due today changes at midnight, so the date is part of the tag
+        LocalDate today = LocalDate.now();
+        if (webRequest.checkNotModified(ETags.of("todos", todoService.todosVersion(), ETags.representation(webRequest), today))) {
+            return null;
+        }
+        return ResponseEntity.ok(statistics.stats(today));
+    }
+    
+    @GetMapping(value = "/schema.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(summary = "Get the protobuf schema", description = "Message definitions of the application/x-protobuf "
+            + "bodies, generated from the API classes. Lists are sent as length-delimited messages.")
+    @ApiResponse(responseCode = "200", description = "Protocol Buffers definitions")
+    public String protobufSchema() {
+        return protobufCodec.protoSource(Todo.class, TodoUpdateRequest.class, DeleteResponse.class, Category.class);
+    }
+    
+    @GetMapping(value = "/export", produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "Export todos as NDJSON",
+            description = "Stream all todos matching the optional filters as newline-delimited JSON, one todo per line, "
+                    + "in id order. Rows are read through a database cursor, so the export size is not bounded by heap.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todos streamed successfully",
+                content = @Content(mediaType = NDJSON_MEDIA_TYPE,
+                schema = @Schema(implementation = Todo.class),
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                        name = "Todo Export",
+                        value = "{\"id\": 1, \"title\": \"Complete project\", \"completed\": false, \"important\": true, \"category\": \"Work\", \"dueDate\": \"2024-12-31\"}\n"
+                                + "{\"id\": 2, \"title\": \"Buy groceries\", \"completed\": true, \"important\": false, \"category\": \"Personal\", \"dueDate\": null}"
+                )))
+    })
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Filter by completion status") 
+            @RequestParam(required = false) Boolean completed,
+            @Parameter(description = "Filter by category name") 
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Filter by important status") 
+            @RequestParam(required = false) Boolean important,
+            @Parameter(description = "Filter by due date (YYYY-MM-DD)") 
+            @RequestParam(required = false) LocalDate dueDate) {
+        TodoFilter filter = TodoFilter.of(completed, category, important, dueDate);
+        
+        StreamingResponseBody body = outputStream -> writeNdjson(filter, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream todo changes",
+            description = "Server-sent events for every committed create, update, patch and delete. The event name is "
+                    + "the change type and the data holds the type, the id and the todo after the change (null for deletions). "
+                    + "Clients that fall too far behind are disconnected and should reload the list when they reconnect.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened",
+                content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                        name = "Patched Event",
+                        value = "id: 7\nevent: patched\ndata: {\"type\": \"PATCHED\", \"id\": 1, \"todo\": {\"id\": 1, \"title\": \"Complete project\", \"completed\": true}}"
+                )))
+    })
+    public SseEmitter stream() {
+        return changeFeed.subscribe();
+    }
+    
+    private void writeNdjson(TodoFilter filter, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Todo.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // Lines are separated explicitly, and the servlet container owns the output stream
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            todoService.exportTodos(filter, todo -> {
+                try {
+                    writer.writeValue(generator, todo);
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get todo by ID", description = "Retrieve a specific todo item by its ID")
     @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "200", description = "Todo found",
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = Todo.class),
@@ -89,11 +278,14 @@ public class TodoController {
     })
     public ResponseEntity<Todo> findById(
             @Parameter(description = "ID of the todo to retrieve") 
-            @PathVariable Long id) {
-        log.info("Fetching todo with id: {}", id);
+            @PathVariable Long id,
+            WebRequest webRequest) {
         Todo todo = todoService.findTodoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Todo", id));
-        log.debug("Found todo: {}", todo.getTitle());
+        // The tag doubles as the If-Match value for PUT and PATCH
+        if (webRequest.checkNotModified(ETags.of(todo))) {
+            return null;
+        }
         return ResponseEntity.ok(todo);
     }
     
@@ -122,9 +314,7 @@ public class TodoController {
                             value = "{\"title\": \"New Task\", \"description\": \"Task description\", \"category\": \"Personal\", \"important\": false, \"dueDate\": \"2024-12-31\"}"
                     ))
             @Valid @RequestBody Todo todo) {
-        log.info("Creating new todo: {}", todo.getTitle());
         Todo createdTodo = todoService.createTodo(todo);
-        log.info("Successfully created todo with id: {}", createdTodo.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTodo);
     }
     
@@ -138,6 +328,9 @@ public class TodoController {
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Todo changed since the version in If-Match or the body",
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = ErrorResponse.class)))
     })
@@ -149,12 +342,13 @@ public class TodoController {
                             name = "Update Todo Request",
                             value = "{\"title\": \"Updated Task\", \"description\": \"Updated description\", \"completed\": true, \"important\": false, \"category\": \"Work\", \"dueDate\": \"2024-12-31\"}"
                     ))
-            @Valid @RequestBody Todo updatedTodo) {
-        log.info("Updating todo with id: {}", id);
+            @Valid @RequestBody Todo updatedTodo,
+            @Parameter(description = "ETag of the version being replaced, as returned by GET")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        updatedTodo.setVersion(expectedVersion(ifMatch, updatedTodo.getVersion()));
         Todo todo = todoService.updateTodo(id, updatedTodo)
                 .orElseThrow(() -> new ResourceNotFoundException("Todo", id));
-        log.info("Successfully updated todo with id: {}", id);
-        return ResponseEntity.ok(todo);
+        return ResponseEntity.ok().eTag(ETags.of(todo)).body(todo);
     }
     
     @PatchMapping("/{id}")
@@ -171,6 +365,9 @@ public class TodoController {
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Todo changed since the version in If-Match or the body",
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = ErrorResponse.class)))
     })
@@ -191,14 +388,33 @@ public class TodoController {
                             @io.swagger.v3.oas.annotations.media.ExampleObject(
                                     name = "Set due date",
                                     value = "{\"dueDate\": \"2024-12-31\"}"
+                            ),
+                            @io.swagger.v3.oas.annotations.media.ExampleObject(
+                                    name = "Rename unless changed since version 3",
+                                    value = "{\"title\": \"Updated title\", \"version\": 3}"
                             )
                     })
-            @Valid @RequestBody TodoUpdateRequest updateRequest) {
-        log.info("Patching todo with id: {}", id);
+            @Valid @RequestBody TodoUpdateRequest updateRequest,
+            @Parameter(description = "ETag of the version the patch is based on, as returned by GET")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        updateRequest.setVersion(expectedVersion(ifMatch, updateRequest.getVersion()));
         Todo todo = todoService.patchTodo(id, updateRequest)
                 .orElseThrow(() -> new ResourceNotFoundException("Todo", id));
-        log.info("Successfully patched todo with id: {}", id);
-        return ResponseEntity.ok(todo);
+        return ResponseEntity.ok().eTag(ETags.of(todo)).body(todo);
+    }
+    
+    /**
+     * Combines If-Match and the version field of the body into the version a write expects.
+     */
+    private static Long expectedVersion(String ifMatch, Long bodyVersion) {
+        Long headerVersion = ETags.expectedVersion(ifMatch);
+        if (headerVersion == null) {
+            return bodyVersion;
+        }
+        if (bodyVersion != null && !bodyVersion.equals(headerVersion)) {
+            throw new IllegalArgumentException("If-Match and the version field name different versions");
+        }
+        return headerVersion;
     }
     
     
@@ -219,19 +435,88 @@ public class TodoController {
     public ResponseEntity<DeleteResponse> delete(
             @Parameter(description = "ID of the todo to delete") 
             @PathVariable Long id) {
-        log.info("Deleting todo with id: {}", id);
         if (!todoService.deleteTodo(id)) {
             throw new ResourceNotFoundException("Todo", id);
         }
-        log.info("Successfully deleted todo with id: {}", id);
         DeleteResponse response = new DeleteResponse("Todo successfully deleted", id);
         return ResponseEntity.ok(response);
     }
     
     
+    @PostMapping("/batch")
+    @Operation(summary = "Create todos in bulk",
+            description = "Create up to " + TodoService.MAX_BATCH_SIZE + " todos in one transaction. "
+                    + "Each item is validated on its own; invalid items are reported with status 400 and skipped.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BatchResponse.class),
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                        name = "Batch Create Result",
+                        value = "{\"succeeded\": 1, \"failed\": 1, \"results\": [{\"index\": 0, \"id\": 51, \"status\": 201, \"error\": null}, {\"index\": 1, \"id\": null, \"status\": 400, \"error\": \"Title is required\"}]}"
+                ))),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResponse> createBatch(
+            @Parameter(description = "Todos to create")
+            @RequestBody List<Todo> todos) {
+        BatchResponse response = todoService.createTodos(todos);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PatchMapping("/batch")
+    @Operation(summary = "Partially update todos in bulk",
+            description = "Apply up to " + TodoService.MAX_BATCH_SIZE + " partial updates in one transaction. "
+                    + "Unknown ids are reported with status 404, invalid items with status 400.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResponse> patchBatch(
+            @Parameter(description = "Partial updates, each carrying the id of the todo to update",
+                    examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                            name = "Complete two todos",
+                            value = "[{\"id\": 1, \"completed\": true}, {\"id\": 2, \"completed\": true}]"
+                    ))
+            @RequestBody List<TodoBatchPatchRequest> updateRequests) {
+        BatchResponse response = todoService.patchTodos(updateRequests);
+        return ResponseEntity.ok(response);
+    }
+    
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete todos in bulk",
+            description = "Delete up to " + TodoService.MAX_BATCH_SIZE + " todos with a single statement. "
+                    + "Unknown ids are reported with status 404.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResponse> deleteBatch(
+            @Parameter(description = "IDs of the todos to delete",
+                    examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                            name = "Delete two todos",
+                            value = "[1, 2]"
+                    ))
+            @RequestBody List<Long> ids) {
+        BatchResponse response = todoService.deleteTodos(ids);
+        return ResponseEntity.ok(response);
+    }
+    
+    
     @GetMapping("/today")
     @Operation(summary = "Get today's todos", description = "Retrieve todos due today")
     @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "200", description = "Today's todos retrieved",
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(type = "array", implementation = Todo.class),
@@ -242,15 +527,18 @@ public class TodoController {
     })
     public ResponseEntity<List<Todo>> getTodaysTodos(
             @Parameter(description = "Filter by completion status") 
-            @RequestParam(required = false) Boolean completed) {
-        log.info("Fetching today's todos with completed filter: {}", completed);
+            @RequestParam(required = false) Boolean completed,
+            WebRequest webRequest) {
+        // The result also changes at midnight, so the date is part of the tag
+        if (webRequest.checkNotModified(ETags.of("todos", todoService.todosVersion(), ETags.representation(webRequest), LocalDate.now()))) {
+            return null;
+        }
         List<Todo> todos;
         if (completed != null) {
             todos = todoService.findTodaysTodos(completed);
         } else {
             todos = todoService.findTodaysTodos();
         }
-        log.debug("Retrieved {} todos for today", todos.size());
         return ResponseEntity.ok(todos);
     }
     
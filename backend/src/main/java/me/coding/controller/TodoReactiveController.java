@@ -0,0 +1,212 @@
+package me.coding.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import me.coding.config.ReactiveConfig;
+import me.coding.dto.DeleteResponse;
+import me.coding.dto.ErrorResponse;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.exception.ResourceNotFoundException;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Reactive variant of {@link TodoController}. Endpoints return {@link Mono} and {@link Flux} and
+ * delegate to the same {@link TodoService}, so filtering, search and caching behave exactly as in v1.
+ * <p>
+ * Service calls block on JDBC, so they run on the {@value ReactiveConfig#TODO_SCHEDULER} rather
+ * than the request thread. List endpoints stream one todo per line when {@code application/x-ndjson}
+ * is requested and write the next item only after the previous one was flushed to the client. They
+ * read from a store cursor rather than a materialised list, and fetch the next todo only once the
+ * client asked for it, so a slow client slows the read down instead of buffering the result.
+ */
+@RestController
+@RequestMapping("/api/v2/todos")
+@Tag(name = "Todo Management (reactive)", description = "Reactive variant of the todo endpoints with NDJSON streaming")
+@CrossOrigin(origins = "*")
+public class TodoReactiveController {
+    
+    private final TodoService todoService;
+    private final Scheduler scheduler;
+    
+    public TodoReactiveController(TodoService todoService,
+                                  @Qualifier(ReactiveConfig.TODO_SCHEDULER) Scheduler scheduler) {
+        this.todoService = todoService;
+        this.scheduler = scheduler;
+    }
+    
+    // No produces condition: Spring MVC streams a Flux only when the Accept header asks for NDJSON
+    // and collects it into a JSON array otherwise, including for */*
+    @GetMapping
+    @Operation(summary = "Get all todos", description = "Retrieve all todo items with optional filtering and search. "
+            + "Returns a JSON array, or one todo per line when application/x-ndjson is accepted.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved todos",
+                content = {
+                        @Content(mediaType = "application/json", schema = @Schema(type = "array", implementation = Todo.class)),
+                        @Content(mediaType = TodoController.NDJSON_MEDIA_TYPE, schema = @Schema(implementation = Todo.class))
+                })
+    })
+    public Flux<Todo> findAll(
+            @Parameter(description = "Filter by completion status")
+            @RequestParam(required = false) Boolean completed,
+            @Parameter(description = "Filter by category name")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Filter by important status")
+            @RequestParam(required = false) Boolean important,
+            @Parameter(description = "Filter by due date (YYYY-MM-DD)")
+            @RequestParam(required = false) LocalDate dueDate,
+            @Parameter(description = "Search term to find in title or description")
+            @RequestParam(required = false) String q) {
+        if (q != null && !q.trim().isEmpty()) {
+            return stream(consumer -> todoService.exportSearchResults(q.trim(), consumer));
+        }
+        TodoFilter filter = TodoFilter.of(completed, category, important, dueDate);
+        return stream(consumer -> todoService.exportTodos(filter, consumer));
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Get todo by ID", description = "Retrieve a specific todo item by its ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todo found",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Todo.class))),
+        @ApiResponse(responseCode = "404", description = "Todo not found",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Mono<Todo> findById(
+            @Parameter(description = "ID of the todo to retrieve")
+            @PathVariable Long id) {
+        return one(() -> todoService.findTodoById(id))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo", id)));
+    }
+    
+    @PostMapping
+    @Operation(summary = "Create new todo", description = "Create a new todo item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Todo created successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Todo.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Mono<ResponseEntity<Todo>> create(
+            @Parameter(description = "Todo data to create")
+            @Valid @RequestBody Todo todo) {
+        return Mono.fromCallable(() -> todoService.createTodo(todo))
+                .subscribeOn(scheduler)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+    
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partial update todo", description = "Update specific fields of a todo item (only provided fields will be updated)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todo updated successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Todo.class))),
+        @ApiResponse(responseCode = "404", description = "Todo not found",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Mono<Todo> patchTodo(
+            @Parameter(description = "ID of the todo to update")
+            @PathVariable Long id,
+            @Parameter(description = "Fields to update (only non-null fields will be updated)",
+                    schema = @Schema(implementation = TodoUpdateRequest.class))
+            @Valid @RequestBody TodoUpdateRequest updateRequest) {
+        return one(() -> todoService.patchTodo(id, updateRequest))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo", id)));
+    }
+    
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete todo", description = "Delete a todo item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todo deleted successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeleteResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Todo not found",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Mono<DeleteResponse> delete(
+            @Parameter(description = "ID of the todo to delete")
+            @PathVariable Long id) {
+        return Mono.fromCallable(() -> todoService.deleteTodo(id))
+                .subscribeOn(scheduler)
+                .flatMap(deleted -> deleted
+                        ? Mono.just(new DeleteResponse("Todo successfully deleted", id))
+                        : Mono.error(new ResourceNotFoundException("Todo", id)));
+    }
+    
+    @GetMapping("/today")
+    @Operation(summary = "Get today's todos", description = "Retrieve todos due today")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Today's todos retrieved",
+                content = @Content(mediaType = "application/json", schema = @Schema(type = "array", implementation = Todo.class)))
+    })
+    public Flux<Todo> getTodaysTodos(
+            @Parameter(description = "Filter by completion status")
+            @RequestParam(required = false) Boolean completed) {
+        TodoFilter filter = TodoFilter.of(completed, null, null, LocalDate.now());
+        return stream(consumer -> todoService.exportTodos(filter, consumer));
+    }
+    
+    private <T> Mono<T> one(Callable<Optional<T>> call) {
+        return Mono.fromCallable(call)
+                .subscribeOn(scheduler)
+                .flatMap(Mono::justOrEmpty);
+    }
+    
+    /**
+     * Streams the todos {@code export} hands over. The export runs on the scheduler and reads the
+     * store only as fast as the client takes todos: while nothing is requested, it parks its thread,
+     * keeping its cursor open, until the next request or a cancellation.
+     */
+    private Flux<Todo> stream(Consumer<Consumer<Todo>> export) {
+        return Flux.<Todo>create(sink -> {
+                    Thread reader = Thread.currentThread();
+                    sink.onRequest(requested -> LockSupport.unpark(reader));
+                    sink.onCancel(() -> LockSupport.unpark(reader));
+                    try {
+                        export.accept(todo -> {
+                            while (sink.requestedFromDownstream() == 0 && !sink.isCancelled()) {
+                                if (Thread.interrupted()) {
+                                    throw new CancellationException("Interrupted while waiting for the client");
+                                }
+                                LockSupport.park(this);
+                            }
+                            if (sink.isCancelled()) {
+                                throw new CancellationException("Client cancelled the stream");
+                            }
+                            sink.next(todo);
+                        });
+                        sink.complete();
+                    } catch (RuntimeException e) {
+                        // After a cancellation the exception only served to close the cursor
+                        if (!sink.isCancelled()) {
+                            sink.error(e);
+                        }
+                    }
+                })
+                // Requests are passed on by the thread that wrote the previous todo, since the
+                // reader thread is parked and would never pick them up from the scheduler queue
+                .subscribeOn(scheduler, false);
+    }
+}
@@ -0,0 +1,54 @@
+package me.coding.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a single item of a batch request",
+        example = "{\"index\": 0, \"id\": 1, \"status\": 201, \"error\": null}")
+public class BatchItemResult {
+    
+    @Schema(description = "Position of the item in the request array", example = "0")
+    private int index;
+    
+    @Schema(description = "ID of the affected todo, if known", example = "1")
+    private Long id;
+    
+    @Schema(description = "HTTP status the item would have received as a single request", example = "201")
+    private int status;
+    
+    @Schema(description = "Reason the item was rejected, null on success", example = "Todo not found with id: 999")
+    private String error;
+    
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, id, HttpStatus.CREATED.value(), null);
+    }
+    
+    public static BatchItemResult ok(int index, Long id) {
+        return new BatchItemResult(index, id, HttpStatus.OK.value(), null);
+    }
+    
+    public static BatchItemResult notFound(int index, Long id) {
+        return new BatchItemResult(index, id, HttpStatus.NOT_FOUND.value(), "Todo not found with id: " + id);
+    }
+    
+    public static BatchItemResult conflict(int index, Long id, Long expectedVersion, Long currentVersion) {
+        return new BatchItemResult(index, id, HttpStatus.CONFLICT.value(),
+                "Todo has version " + currentVersion + ", expected " + expectedVersion);
+    }
+    
+    public static BatchItemResult invalid(int index, Long id, String error) {
+        return new BatchItemResult(index, id, HttpStatus.BAD_REQUEST.value(), error);
+    }
+    
+    @JsonIgnore
+    public boolean isSuccess() {
+        return status < 400;
+    }
+}
@@ -0,0 +1,30 @@
+package me.coding.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item results of a batch request, in request order",
+        example = "{\"succeeded\": 1, \"failed\": 1, \"results\": [{\"index\": 0, \"id\": 1, \"status\": 200, \"error\": null}, {\"index\": 1, \"id\": 999, \"status\": 404, \"error\": \"Todo not found with id: 999\"}]}")
+public class BatchResponse {
+    
+    @Schema(description = "Number of items that were applied", example = "1")
+    private int succeeded;
+    
+    @Schema(description = "Number of items that were rejected", example = "1")
+    private int failed;
+    
+    @Schema(description = "One result per request item")
+    private List<BatchItemResult> results;
+    
+    public static BatchResponse of(List<BatchItemResult> results) {
+        int succeeded = (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        return new BatchResponse(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,17 @@
+package me.coding.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@Schema(description = "Partial update of one todo within a batch. Only non-null fields will be updated.",
+        example = "{\"id\": 1, \"completed\": true}")
+public class TodoBatchPatchRequest extends TodoUpdateRequest {
+    
+    @Schema(description = "ID of the todo to update", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long id;
+}
@@ -0,0 +1,10 @@
+package me.coding.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Number of todos matching the filters of a {@code GET /api/v1/todos/count} request.
+ */
+@Schema(description = "Number of todos matching the filters", example = "{\"count\": 42}")
+public record TodoCount(@Schema(description = "Number of matching todos", example = "42") long count) {
+}
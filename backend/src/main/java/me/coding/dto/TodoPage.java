@@ -0,0 +1,15 @@
+package me.coding.dto;
+
+import me.coding.model.Todo;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated todo listing. {@code nextCursor} is null on the last page.
+ */
+public record TodoPage(List<Todo> items, String nextCursor) {
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,21 @@
+package me.coding.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+/**
+ * Todo counts shown on the dashboard, as served by {@code GET /api/v1/todos/stats}.
+ */
+@Schema(description = "Todo counts by status, importance, due date and category",
+        example = "{\"total\": 12, \"open\": 8, \"completed\": 4, \"important\": 3, \"dueToday\": 2, "
+                + "\"byCategory\": {\"Personal\": 5, \"Work\": 7}}")
+public record TodoStats(
+        @Schema(description = "All todos", example = "12") long total,
+        @Schema(description = "Todos not completed", example = "8") long open,
+        @Schema(description = "Completed todos", example = "4") long completed,
+        @Schema(description = "Important todos, completed or not", example = "3") long important,
+        @Schema(description = "Todos due today, completed or not", example = "2") long dueToday,
+        @Schema(description = "Todos per category, by category name; todos without a category are not listed")
+        Map<String, Long> byCategory) {
+}
@@ -1,6 +1,7 @@
 package me.coding.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,6 +16,8 @@ import java.time.LocalDate;
         example = "{\"completed\": true, \"important\": false, \"title\": \"Updated task\"}")
 public class TodoUpdateRequest {
     
+    // Absent means unchanged, but a present title must not be blank, as on create
+    @Pattern(regexp = ".*\\S.*", flags = Pattern.Flag.DOTALL, message = "Title must not be blank")
     @Size(max = 100, message = "Title must not exceed 100 characters")
     @Schema(description = "Updated title of the todo", example = "Updated task title", maxLength = 100)
     private String title;
@@ -36,6 +39,9 @@ public class TodoUpdateRequest {
     @Schema(description = "Updated due date (YYYY-MM-DD format)", example = "2024-01-15", format = "date")
     private LocalDate dueDate;
     
+    @Schema(description = "Version the change is based on. When present, the patch fails with 409 if the todo has a different version", example = "3")
+    private Long version;
+    
     // Helper methods to check if fields are present (not null)
     public boolean hasTitle() {
         return title != null;
@@ -60,4 +66,16 @@ public class TodoUpdateRequest {
     public boolean hasDueDate() {
         return dueDate != null;
     }
-}
\ No newline at end of file
+    
+    /**
+     * True when the request sets nothing but the completed and important flags. Such a patch does
+     * not depend on the rest of the todo, so it can be re-applied on top of a concurrent change.
+     */
+    public boolean touchesOnlyFlags() {
+        return hasChanges() && !hasTitle() && !hasDescription() && !hasCategory() && !hasDueDate();
+    }
+    
+    public boolean hasChanges() {
+        return hasTitle() || hasDescription() || hasCompleted() || hasImportant() || hasCategory() || hasDueDate();
+    }
+}
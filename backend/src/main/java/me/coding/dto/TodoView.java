@@ -0,0 +1,36 @@
+package me.coding.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import me.coding.model.Todo;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A todo reduced to the fields selected with {@code fields=}. Serialises to a JSON object holding
+ * exactly those fields, in the order they were selected, with timestamps formatted as in {@link Todo}.
+ */
+@Schema(description = "Todo with only the selected fields",
+        example = "{\"id\": 1, \"title\": \"Complete project\", \"completed\": false}")
+public record TodoView(Map<String, Object> fields) {
+    
+    // Same pattern as the @JsonFormat of Todo.createdAt and Todo.updatedAt
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    public TodoView {
+        Map<String, Object> formatted = new LinkedHashMap<>(fields);
+        formatted.replaceAll((name, value) ->
+                value instanceof LocalDateTime timestamp ? TIMESTAMP_FORMAT.format(timestamp) : value);
+        fields = Collections.unmodifiableMap(formatted);
+    }
+    
+    @JsonValue
+    @Override
+    public Map<String, Object> fields() {
+        return fields;
+    }
+}
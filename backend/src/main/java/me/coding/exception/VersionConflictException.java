@@ -0,0 +1,15 @@
+package me.coding.exception;
+
+/**
+ * Thrown when a write expected a version of a resource that is no longer current.
+ */
+public class VersionConflictException extends RuntimeException {
+    
+    public VersionConflictException(String message) {
+        super(message);
+    }
+    
+    public VersionConflictException(String resourceType, Long id, Long expectedVersion, Long currentVersion) {
+        super(String.format("%s with id %d has version %d, expected %d", resourceType, id, currentVersion, expectedVersion));
+    }
+}
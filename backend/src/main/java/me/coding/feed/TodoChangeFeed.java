@@ -0,0 +1,202 @@
+package me.coding.feed;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.coding.service.TodoChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed {@link TodoChangedEvent}s to server-sent event subscribers.
+ * <p>
+ * Publishing never blocks and takes no lock: each event is appended to every subscriber's queue,
+ * and a subscriber with pending events gets one delivery task that drains its queue to the client.
+ * Queues hold at most {@code todo.feed.buffer-size} events. A subscriber that falls further behind
+ * is disconnected; browsers reconnect automatically and should reload the list when they do.
+ * <p>
+ * Idle subscribers hold no thread, only their emitter and an empty queue. A comment line is sent
+ * every {@code todo.feed.heartbeat-interval} so dead connections are detected.
+ */
+@Component
+@Slf4j
+public class TodoChangeFeed implements MeterBinder {
+    
+    private static final Object HEARTBEAT = new Object();
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ExecutorService deliveryExecutor;
+    
+    @Autowired
+    public TodoChangeFeed(@Value("${todo.feed.buffer-size:256}") int bufferSize,
+                          @Value("${todo.feed.timeout:30m}") Duration timeout) {
+        this(bufferSize, timeout, Executors.newVirtualThreadPerTaskExecutor());
+    }
+    
+    TodoChangeFeed(int bufferSize, Duration timeout, ExecutorService deliveryExecutor) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Feed buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+    
+    /**
+     * Registers a new subscriber. Events committed after this call are delivered to the returned emitter.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeout.toMillis()));
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        log.debug("Change feed subscriber connected, {} active", subscribers.size());
+        return emitter;
+    }
+    
+    // Last, so subscribers that reload on an event see caches and versions that include it
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTodoChanged(TodoChangedEvent event) {
+        Notification notification = new Notification(sequence.incrementAndGet(), event);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(notification);
+        }
+    }
+    
+    @Scheduled(fixedRateString = "${todo.feed.heartbeat-interval:PT30S}",
+            initialDelayString = "${todo.feed.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todos.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(registry);
+        FunctionCounter.builder("todos.feed.dropped", dropped, AtomicLong::doubleValue)
+                .description("Subscribers disconnected because their buffer overflowed")
+                .register(registry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        deliveryExecutor.shutdownNow();
+    }
+    
+    private record Notification(long id, TodoChangedEvent event) {
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void offer(Object message) {
+            if (closed.get()) {
+                return;
+            }
+            if (size.incrementAndGet() > bufferSize) {
+                dropped.incrementAndGet();
+                log.warn("Disconnecting change feed subscriber that is {} events behind", bufferSize);
+                close();
+                return;
+            }
+            pending.offer(message);
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                Object message;
+                while (!closed.get() && (message = pending.poll()) != null) {
+                    size.decrementAndGet();
+                    send(message);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Change feed subscriber went away: {}", ex.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have landed after the last poll but before the flag was cleared
+            if (!closed.get() && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+        
+        private void send(Object message) throws IOException {
+            if (message == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            Notification notification = (Notification) message;
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(notification.id()))
+                    .name(notification.event().type().name().toLowerCase(Locale.ROOT))
+                    .data(notification.event(), MediaType.APPLICATION_JSON));
+        }
+        
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                pending.clear();
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import me.coding.model.Category;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Category} like {@link TodoJsonSerializer} writes todos, with the same output as the
+ * default serialization. {@code createdAt} has no {@code @JsonFormat}, so it keeps its fraction of a
+ * second.
+ */
+@JsonComponent
+public class CategoryJsonSerializer extends StdSerializer<Category> {
+    
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString DESCRIPTION = new SerializedString("description");
+    static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    
+    public CategoryJsonSerializer() {
+        super(Category.class);
+    }
+    
+    @Override
+    public void serialize(Category category, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(category);
+        generator.writeFieldName(ID);
+        TodoJsonSerializer.writeNumber(generator, category.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(category.getName());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(category.getDescription());
+        generator.writeFieldName(CREATED_AT);
+        JsonDates.writeIsoDateTime(generator, category.getCreatedAt());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,109 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Reads and writes {@value #APPLICATION_PROTOBUF_VALUE} bodies through {@link ProtobufCodec}.
+ * Lists are streams of length-delimited messages. Types without a generated schema are not
+ * supported, so requesting them as protobuf yields 406 and sending them yields 415.
+ * <p>
+ * Unlike Spring's {@code ProtobufHttpMessageConverter}, it needs no classes generated by
+ * {@code protoc}: the schemas come from the same classes the JSON endpoints use.
+ */
+public class JacksonProtobufHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+    
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+    
+    private final ProtobufCodec codec;
+    
+    public JacksonProtobufHttpMessageConverter(ProtobufCodec codec) {
+        super(codec.mapper(), APPLICATION_PROTOBUF);
+        this.codec = codec;
+    }
+    
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return canRead(mediaType) && codec.schemaFor(messageType(getJavaType(type, contextClass))).isPresent();
+    }
+    
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(clazz, clazz, mediaType);
+    }
+    
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        JavaType javaType = getJavaType(type != null ? type : clazz, null);
+        // A List<?> is checked once its first element is known, in writeInternal
+        return isUnresolvedCollection(javaType) || codec.schemaFor(messageType(javaType)).isPresent();
+    }
+    
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType javaType = getJavaType(type, contextClass);
+        if (!javaType.isCollectionLikeType()) {
+            return super.read(type, contextClass, inputMessage);
+        }
+        try {
+            return codec.readDelimited(inputMessage.getBody(), javaType.getContentType());
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("Protobuf parse error: " + ex.getOriginalMessage(), ex, inputMessage);
+        }
+    }
+    
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+        return reader.with(codec.schemaFor(javaType).orElseThrow());
+    }
+    
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        JavaType javaType = getJavaType(type != null ? type : object.getClass(), null);
+        OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+        try {
+            if (object instanceof Collection<?> values) {
+                if (!values.isEmpty()) {
+                    JavaType elementType = isUnresolvedCollection(javaType)
+                            ? getJavaType(values.iterator().next().getClass(), null)
+                            : messageType(javaType);
+                    if (codec.schemaFor(elementType).isEmpty()) {
+                        throw new HttpMessageNotWritableException("No protobuf schema for " + elementType.getRawClass().getSimpleName());
+                    }
+                    codec.writeDelimited(body, values, elementType);
+                }
+            } else {
+                codec.write(body, object, javaType);
+            }
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write protobuf: " + ex.getOriginalMessage(), ex);
+        }
+        body.flush();
+    }
+    
+    private static boolean isUnresolvedCollection(JavaType type) {
+        return type.isCollectionLikeType() && type.getContentType().isJavaLangObject();
+    }
+    
+    private static JavaType messageType(JavaType type) {
+        return type.isCollectionLikeType() ? type.getContentType() : type;
+    }
+}
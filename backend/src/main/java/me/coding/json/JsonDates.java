@@ -0,0 +1,112 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Date and timestamp writing for the hand-written serializers, producing exactly what Jackson's
+ * java.time serializers produce for the same formats, without a {@link DateTimeFormatter} per value.
+ * <p>
+ * Dates are few and repeat across todos, so each is encoded once and kept as a pre-quoted
+ * {@link SerializedString}. Timestamps are nearly unique; their digits are written into a per-thread
+ * buffer instead. Years outside 0000-9999 fall back to the formatter.
+ */
+final class JsonDates {
+    
+    /** Dates kept encoded; further dates are encoded on every write */
+    static final int MAX_CACHED_DATES = 4096;
+    
+    /** {@code yyyy-MM-dd}, the pattern of {@code Todo.dueDate} */
+    static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    
+    /** {@code yyyy-MM-dd'T'HH:mm:ss}, the pattern of {@code Todo.createdAt} and {@code updatedAt} */
+    static final DateTimeFormatter DATE_TIME_SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    private static final Map<LocalDate, SerializedString> ENCODED_DATES = new ConcurrentHashMap<>();
+    
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[29]);
+    
+    private JsonDates() {
+    }
+    
+    static void writeDate(JsonGenerator generator, LocalDate date) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        SerializedString encoded = ENCODED_DATES.get(date);
+        if (encoded == null) {
+            encoded = new SerializedString(DATE.format(date));
+            if (ENCODED_DATES.size() < MAX_CACHED_DATES) {
+                ENCODED_DATES.putIfAbsent(date, encoded);
+            }
+        }
+        generator.writeString(encoded);
+    }
+    
+    /**
+     * Writes {@code value} as {@code yyyy-MM-dd'T'HH:mm:ss}, dropping any fraction of a second.
+     */
+    static void writeDateTimeSeconds(JsonGenerator generator, LocalDateTime value) throws IOException {
+        writeDateTime(generator, value, false);
+    }
+    
+    /**
+     * Writes {@code value} like {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}: a fraction of a second
+     * is written only when present, without trailing zeros.
+     */
+    static void writeIsoDateTime(JsonGenerator generator, LocalDateTime value) throws IOException {
+        writeDateTime(generator, value, true);
+    }
+    
+    private static void writeDateTime(JsonGenerator generator, LocalDateTime value, boolean fraction) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString((fraction ? DateTimeFormatter.ISO_LOCAL_DATE_TIME : DATE_TIME_SECONDS).format(value));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = digits(buffer, 0, year, 4);
+        buffer[length++] = '-';
+        length = digits(buffer, length, value.getMonthValue(), 2);
+        buffer[length++] = '-';
+        length = digits(buffer, length, value.getDayOfMonth(), 2);
+        buffer[length++] = 'T';
+        length = digits(buffer, length, value.getHour(), 2);
+        buffer[length++] = ':';
+        length = digits(buffer, length, value.getMinute(), 2);
+        buffer[length++] = ':';
+        length = digits(buffer, length, value.getSecond(), 2);
+        int nanos = value.getNano();
+        if (fraction && nanos > 0) {
+            buffer[length++] = '.';
+            int end = digits(buffer, length, nanos, 9);
+            while (buffer[end - 1] == '0') {
+                end--;
+            }
+            length = end;
+        }
+        generator.writeString(buffer, 0, length);
+    }
+    
+    /** Writes {@code value} zero-padded to {@code width} digits at {@code offset}; returns the end */
+    private static int digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+}
@@ -0,0 +1,157 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protocol Buffers encoding of the API's request and response classes through
+ * jackson-dataformat-protobuf. A message schema is generated from each class on first use, numbering
+ * its fields in declaration order, and cached. Classes the generator cannot map, such as ones with
+ * map-valued fields, have no schema.
+ * <p>
+ * A protobuf message cannot be a list. Lists are therefore written as consecutive length-delimited
+ * messages, each a varint byte count followed by the message. This is the framing of protobuf's
+ * {@code writeDelimitedTo} and {@code parseDelimitedFrom}.
+ * <p>
+ * Values go through Jackson's bean serialization, not the {@code @JsonComponent} serializers, since
+ * the schema generator needs to introspect the properties.
+ */
+@Slf4j
+public class ProtobufCodec {
+    
+    private final ProtobufMapper mapper = new ProtobufMapper();
+    private final Map<JavaType, Optional<ProtobufSchema>> schemas = new ConcurrentHashMap<>();
+    
+    public ProtobufCodec() {
+        // Same settings as the application's ObjectMapper: java.time types as ISO strings, unknown fields ignored
+        Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .configure(mapper);
+    }
+    
+    public ProtobufMapper mapper() {
+        return mapper;
+    }
+    
+    /**
+     * The message schema of {@code type}, or nothing when it cannot be mapped to a message.
+     */
+    public Optional<ProtobufSchema> schemaFor(JavaType type) {
+        return schemas.computeIfAbsent(type, this::generateSchema);
+    }
+    
+    public Optional<ProtobufSchema> schemaFor(Class<?> type) {
+        return schemaFor(mapper.constructType(type));
+    }
+    
+    /**
+     * The {@code .proto} definitions of the messages for {@code types}.
+     */
+    public String protoSource(Class<?>... types) {
+        StringBuilder source = new StringBuilder();
+        for (Class<?> type : types) {
+            ProtobufSchema schema = schemaFor(type)
+                    .orElseThrow(() -> new IllegalArgumentException("No protobuf schema for " + type.getSimpleName()));
+            source.append(schema.getSource().toString().trim()).append("\n\n");
+        }
+        return source.toString();
+    }
+    
+    public void write(OutputStream output, Object value, JavaType type) throws IOException {
+        mapper.writer(requireSchema(type)).writeValue(output, value);
+    }
+    
+    public <T> T read(InputStream input, JavaType type) throws IOException {
+        return mapper.readerFor(type).with(requireSchema(type)).readValue(input);
+    }
+    
+    public void writeDelimited(OutputStream output, Collection<?> values, JavaType elementType) throws IOException {
+        ObjectWriter writer = mapper.writer(requireSchema(elementType));
+        ByteArrayOutputStream message = new ByteArrayOutputStream(256);
+        for (Object value : values) {
+            message.reset();
+            writer.writeValue(message, value);
+            writeVarint(output, message.size());
+            message.writeTo(output);
+        }
+    }
+    
+    public <T> List<T> readDelimited(InputStream input, JavaType elementType) throws IOException {
+        ObjectReader reader = mapper.readerFor(elementType).with(requireSchema(elementType));
+        List<T> values = new ArrayList<>();
+        int length;
+        while ((length = readVarint(input)) >= 0) {
+            byte[] message = input.readNBytes(length);
+            if (message.length < length) {
+                throw new EOFException("Protobuf message ends after " + message.length + " of " + length + " bytes");
+            }
+            values.add(reader.readValue(message));
+        }
+        return values;
+    }
+    
+    private ProtobufSchema requireSchema(JavaType type) {
+        return schemaFor(type)
+                .orElseThrow(() -> new IllegalArgumentException("No protobuf schema for " + type.toCanonical()));
+    }
+    
+    private Optional<ProtobufSchema> generateSchema(JavaType type) {
+        if (type.isContainerType() || type.isPrimitive() || type.isJavaLangObject()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.generateSchemaFor(type));
+        } catch (IOException | RuntimeException ex) {
+            log.debug("No protobuf schema for {}: {}", type.toCanonical(), ex.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private static void writeVarint(OutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+    
+    /** Reads a varint, or returns -1 at the end of the input */
+    private static int readVarint(InputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Protobuf input ends within a message length");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed protobuf message length");
+    }
+}
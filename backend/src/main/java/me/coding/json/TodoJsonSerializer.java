@@ -0,0 +1,79 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import me.coding.model.Todo;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Todo} field by field instead of through bean introspection and per-field
+ * {@code @JsonFormat} handling. The output is the same as the default serialization: fields in
+ * declaration order, nulls written, timestamps to the second and due dates as {@code yyyy-MM-dd}.
+ * <p>
+ * Field names are encoded once. Every endpoint, the NDJSON export and the change feed write todos
+ * through this serializer. Deserialization is unchanged.
+ */
+@JsonComponent
+public class TodoJsonSerializer extends StdSerializer<Todo> {
+    
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString TITLE = new SerializedString("title");
+    static final SerializedString DESCRIPTION = new SerializedString("description");
+    static final SerializedString COMPLETED = new SerializedString("completed");
+    static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    static final SerializedString CATEGORY = new SerializedString("category");
+    static final SerializedString IMPORTANT = new SerializedString("important");
+    static final SerializedString DUE_DATE = new SerializedString("dueDate");
+    static final SerializedString VERSION = new SerializedString("version");
+    
+    public TodoJsonSerializer() {
+        super(Todo.class);
+    }
+    
+    @Override
+    public void serialize(Todo todo, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(todo);
+        generator.writeFieldName(ID);
+        writeNumber(generator, todo.getId());
+        generator.writeFieldName(TITLE);
+        generator.writeString(todo.getTitle());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(todo.getDescription());
+        generator.writeFieldName(COMPLETED);
+        writeBoolean(generator, todo.getCompleted());
+        generator.writeFieldName(CREATED_AT);
+        JsonDates.writeDateTimeSeconds(generator, todo.getCreatedAt());
+        generator.writeFieldName(UPDATED_AT);
+        JsonDates.writeDateTimeSeconds(generator, todo.getUpdatedAt());
+        generator.writeFieldName(CATEGORY);
+        generator.writeString(todo.getCategory());
+        generator.writeFieldName(IMPORTANT);
+        writeBoolean(generator, todo.getImportant());
+        generator.writeFieldName(DUE_DATE);
+        JsonDates.writeDate(generator, todo.getDueDate());
+        generator.writeFieldName(VERSION);
+        writeNumber(generator, todo.getVersion());
+        generator.writeEndObject();
+    }
+    
+    static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+    
+    private static void writeBoolean(JsonGenerator generator, Boolean value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(value);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package me.coding.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces per-call logging in the controllers and services with at most one line per request, in
+ * logfmt, on the {@code me.coding.requests} logger:
+ * <pre>
+ * request method=GET uri=/api/v1/todos status=200 durationMs=3 reason=sampled
+ * </pre>
+ * Only a {@code todo.logging.request-sample-rate} share of requests is logged, except server errors,
+ * requests slower than {@code todo.logging.slow-request-threshold} and requests with SQL logging,
+ * which always are. Counts and latencies of all requests are in the {@code http.server.requests} meter.
+ * <p>
+ * When {@code todo.logging.sql-per-request} is on, a request sent with the {@value #SQL_LOG_HEADER} header
+ * set to {@code true} has the SQL it runs on the request thread logged through {@link SqlLogTurboFilter}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j(topic = "me.coding.requests")
+public class RequestLogFilter extends OncePerRequestFilter {
+    
+    public static final String SQL_LOG_HEADER = "X-Log-Sql";
+    
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final boolean sqlPerRequest;
+    
+    @Autowired
+    public RequestLogFilter(@Value("${todo.logging.request-sample-rate:0.01}") double sampleRate,
+                            @Value("${todo.logging.slow-request-threshold:1s}") Duration slowThreshold,
+                            @Value("${todo.logging.sql-per-request:false}") boolean sqlPerRequest) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Request sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sqlPerRequest = sqlPerRequest;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean logSql = sqlPerRequest && Boolean.parseBoolean(request.getHeader(SQL_LOG_HEADER));
+        if (logSql) {
+            MDC.put(SqlLogTurboFilter.MDC_KEY, "true");
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (logSql) {
+                MDC.remove(SqlLogTurboFilter.MDC_KEY);
+            }
+            String reason = reason(response.getStatus(), elapsed, logSql);
+            if (reason != null && log.isInfoEnabled()) {
+                log.info("request method={} uri={} status={} durationMs={} reason={}", request.getMethod(),
+                        request.getRequestURI(), response.getStatus(), elapsed / 1_000_000, reason);
+            }
+        }
+    }
+    
+    /**
+     * Why a request is logged, or {@code null} when it is not.
+     */
+    String reason(int status, long elapsedNanos, boolean logSql) {
+        if (status >= 500) {
+            return "error";
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            return "slow";
+        }
+        if (logSql) {
+            return "sql";
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return "sampled";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package me.coding.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets Hibernate's statement and bind-value loggers through for the current thread while
+ * {@value #MDC_KEY} is set in the MDC, regardless of their configured level. Everywhere else they
+ * stay at their level, which leaves SQL logging off.
+ * <p>
+ * Registered in {@code logback-spring.xml}; {@link RequestLogFilter} sets the key for requests that
+ * ask for their SQL to be logged.
+ */
+public class SqlLogTurboFilter extends TurboFilter {
+    
+    public static final String MDC_KEY = "todo.logSql";
+    
+    static final String STATEMENT_LOGGER = "org.hibernate.SQL";
+    static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Called for every log statement of the application, so the cheap check comes first
+        String name = logger.getName();
+        if (!STATEMENT_LOGGER.equals(name) && !BIND_LOGGER.equals(name)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(MDC_KEY) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -11,18 +11,26 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_due_date_completed", columnList = "due_date, completed"),
+        @Index(name = "idx_todos_important_category_completed", columnList = "important, category, completed"),
+        @Index(name = "idx_todos_category_completed", columnList = "category, completed"),
+        @Index(name = "idx_todos_completed_created_at", columnList = "completed, created_at"),
+        @Index(name = "idx_todos_created_at_id", columnList = "created_at, id")
+})
 @Schema(description = "Todo item", 
-        example = "{\"id\": 1, \"title\": \"Complete project\", \"description\": \"Finish the todo application\", \"completed\": false, \"important\": true, \"category\": \"Work\", \"dueDate\": \"2024-12-31\", \"createdAt\": \"2024-01-15T10:30:00\", \"updatedAt\": \"2024-01-15T10:30:00\"}")
+        example = "{\"id\": 1, \"title\": \"Complete project\", \"description\": \"Finish the todo application\", \"completed\": false, \"important\": true, \"category\": \"Work\", \"dueDate\": \"2024-12-31\", \"createdAt\": \"2024-01-15T10:30:00\", \"updatedAt\": \"2024-01-15T10:30:00\", \"version\": 0}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Todo {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the todo", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
     
@@ -65,15 +73,29 @@ public class Todo {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate dueDate;
     
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Incremented by every change. Send it back with PUT or PATCH to apply the change only if nobody else changed the todo in the meantime", example = "0")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+    
+    /**
+     * The current time at the microsecond precision of TIMESTAMP(6). A finer value held in memory
+     * would not match the row it was written to, and keyset cursors and ETags built from it would
+     * not match those built from the stored todo. Every write path stamps todos with it.
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
     
     public Todo(String title, String description) {
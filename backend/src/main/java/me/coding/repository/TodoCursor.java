@@ -0,0 +1,49 @@
+package me.coding.repository;
+
+import me.coding.model.Todo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Keyset position in the {@code (createdAt, id)} ordering of todos.
+ * Clients only ever see the opaque {@link #encode() encoded} form.
+ */
+public record TodoCursor(LocalDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public TodoCursor {
+        if (createdAt == null || id == null) {
+            throw new IllegalArgumentException("Cursor requires both createdAt and id");
+        }
+        // Timestamps are stored with microsecond precision, so compare at that precision too
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public static TodoCursor of(Todo todo) {
+        return new TodoCursor(todo.getCreatedAt(), todo.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new TodoCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package me.coding.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Todo attributes a client can select with the {@code fields} parameter of {@code GET /api/v1/todos}.
+ * {@link #attribute()} is both the entity attribute and the JSON property name.
+ */
+public enum TodoField {
+
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    COMPLETED("completed"),
+    IMPORTANT("important"),
+    CATEGORY("category"),
+    DUE_DATE("dueDate"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    private static final String NAMES = Arrays.stream(values())
+            .map(TodoField::attribute)
+            .collect(Collectors.joining(", "));
+
+    private final String attribute;
+
+    TodoField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma-separated selection such as {@code "id,title,completed"}. Names are matched
+     * case-insensitively; the order is kept and duplicates are dropped.
+     *
+     * @throws IllegalArgumentException when the selection is empty or names an unknown field
+     */
+    public static List<TodoField> parse(String fields) {
+        Set<TodoField> selected = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(byName(trimmed));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("Fields must name at least one of: " + NAMES);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private static TodoField byName(String name) {
+        for (TodoField field : values()) {
+            if (field.attribute.toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + name + "', expected one of: " + NAMES);
+    }
+}
@@ -0,0 +1,59 @@
+package me.coding.repository;
+
+import me.coding.model.Todo;
+
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+/**
+ * Normalised set of list filters accepted by {@code GET /api/v1/todos}.
+ * A {@code null} component means "do not filter on this attribute".
+ */
+public record TodoFilter(Boolean completed, String category, Boolean important, LocalDate dueDate) {
+
+    public static final TodoFilter NONE = new TodoFilter(null, null, null, null);
+
+    public TodoFilter {
+        // Blank categories were always treated as "no category filter"
+        category = category != null && !category.trim().isEmpty() ? category.trim() : null;
+    }
+
+    public static TodoFilter of(Boolean completed, String category, Boolean important, LocalDate dueDate) {
+        return new TodoFilter(completed, category, important, dueDate);
+    }
+
+    public boolean isEmpty() {
+        return completed == null && category == null && important == null && dueDate == null;
+    }
+    
+    /**
+     * Which attributes this filter restricts, e.g. {@code completed+category}, or {@code none}.
+     * Leaves out the values, so it is usable as a metric tag.
+     */
+    public String shape() {
+        StringJoiner shape = new StringJoiner("+").setEmptyValue("none");
+        if (completed != null) {
+            shape.add("completed");
+        }
+        if (category != null) {
+            shape.add("category");
+        }
+        if (important != null) {
+            shape.add("important");
+        }
+        if (dueDate != null) {
+            shape.add("dueDate");
+        }
+        return shape.toString();
+    }
+    
+    /**
+     * Whether {@code todo} would be returned by a query with this filter.
+     */
+    public boolean matches(Todo todo) {
+        return (completed == null || completed.equals(todo.getCompleted()))
+                && (category == null || category.equals(todo.getCategory()))
+                && (important == null || important.equals(todo.getImportant()))
+                && (dueDate == null || dueDate.equals(todo.getDueDate()));
+    }
+}
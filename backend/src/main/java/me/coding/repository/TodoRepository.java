@@ -2,14 +2,18 @@ package me.coding.repository;
 
 import me.coding.model.Todo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo>, TodoRepositoryCustom {
     
     List<Todo> findByCompleted(Boolean completed);
     
@@ -60,4 +64,23 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
     
     @Query("SELECT t FROM Todo t WHERE t.dueDate = CURRENT_DATE AND t.completed = ?1")
     List<Todo> findTodaysTodosByCompleted(Boolean completed);
-}
\ No newline at end of file
+    
+    @Query("SELECT t.version FROM Todo t WHERE t.id = ?1")
+    Optional<Long> findVersionById(Long id);
+    
+    /**
+     * One {@code [category, count]} row per category that has todos.
+     */
+    @Query("SELECT t.category, COUNT(t) FROM Todo t WHERE t.category IS NOT NULL GROUP BY t.category")
+    List<Object[]> countPerCategory();
+    
+    /**
+     * Deletes the todo with {@code id} in a single statement, without loading it first.
+     *
+     * @return the number of deleted rows, 0 when no todo has that id
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Todo t WHERE t.id = ?1")
+    int deleteTodoById(Long id);
+}
@@ -0,0 +1,43 @@
+package me.coding.repository;
+
+import jakarta.persistence.Tuple;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TodoRepositoryCustom {
+    
+    /**
+     * Returns at most {@code limit} todos matching {@code spec}, ordered by {@code (createdAt, id)}
+     * and starting strictly after {@code after} (or from the beginning when {@code after} is null).
+     * No count query is issued, so the cost does not depend on how deep the client pages.
+     */
+    List<Todo> findPage(Specification<Todo> spec, TodoCursor after, int limit);
+    
+    /**
+     * Reads only {@code fields} of the todos matching {@code spec}, as tuples aliased by
+     * {@link TodoField#attribute()}. No entities are created, so nothing enters the persistence context.
+     */
+    List<Tuple> findFields(Specification<Todo> spec, Collection<TodoField> fields);
+    
+    /**
+     * Streams all todos matching {@code spec} in id order using a JDBC fetch size,
+     * detaching every entity as it is handed out so the persistence context does not grow.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<Todo> streamAll(Specification<Todo> spec);
+    
+    /**
+     * Writes the fields {@code changes} reports as present, plus {@code updatedAt}, to the todo with
+     * {@code id} in a single UPDATE, without loading the row first, and increments its version.
+     * When {@code changes} carries a version, the row is only updated while it still has that version.
+     * Instances already managed by the current persistence context are not refreshed.
+     *
+     * @return the number of updated rows, 0 when no todo has that id (and version)
+     */
+    int patch(Long id, TodoUpdateRequest changes);
+}
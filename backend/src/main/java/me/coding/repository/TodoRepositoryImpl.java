@@ -0,0 +1,121 @@
+package me.coding.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+class TodoRepositoryImpl implements TodoRepositoryCustom {
+    
+    static final int STREAM_FETCH_SIZE = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Todo> findPage(Specification<Todo> spec, TodoCursor after, int limit) {
+        Specification<Todo> pageSpec = after != null ? spec.and(TodoSpecifications.after(after)) : spec;
+        return entityManager.createQuery(orderedQuery(pageSpec, "createdAt", "id"))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public List<Tuple> findFields(Specification<Todo> spec, Collection<TodoField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todo> root = query.from(Todo.class);
+        
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(fields.stream()
+                .<Selection<?>>map(field -> root.get(field.attribute()).alias(field.attribute()))
+                .toList());
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    @Override
+    public Stream<Todo> streamAll(Specification<Todo> spec) {
+        // Primary key order lets the database walk its index instead of sorting the whole result
+        return entityManager.createQuery(orderedQuery(spec, "id"))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(todo -> {
+                    entityManager.detach(todo);
+                    return todo;
+                });
+    }
+    
+    @Override
+    @Transactional
+    public int patch(Long id, TodoUpdateRequest changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Todo> update = cb.createCriteriaUpdate(Todo.class);
+        Root<Todo> root = update.from(Todo.class);
+        
+        if (changes.hasTitle()) {
+            update.set(root.<String>get("title"), changes.getTitle());
+        }
+        if (changes.hasDescription()) {
+            update.set(root.<String>get("description"), changes.getDescription());
+        }
+        if (changes.hasCompleted()) {
+            update.set(root.<Boolean>get("completed"), changes.getCompleted());
+        }
+        if (changes.hasImportant()) {
+            update.set(root.<Boolean>get("important"), changes.getImportant());
+        }
+        if (changes.hasCategory()) {
+            update.set(root.<String>get("category"), changes.getCategory());
+        }
+        if (changes.hasDueDate()) {
+            update.set(root.<LocalDate>get("dueDate"), changes.getDueDate());
+        }
+        // Bulk updates bypass the entity's @PreUpdate callback
+        update.set(root.<LocalDateTime>get("updatedAt"), Todo.now());
+        // ... and the @Version increment, so concurrent entity updates of this row fail their check
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+        
+        Predicate byId = cb.equal(root.get("id"), id);
+        update.where(changes.getVersion() != null ? cb.and(byId, cb.equal(version, changes.getVersion())) : byId);
+        
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    private CriteriaQuery<Todo> orderedQuery(Specification<Todo> spec, String... orderBy) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> root = query.from(Todo.class);
+        
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(Arrays.stream(orderBy)
+                .map(attribute -> cb.asc(root.get(attribute)))
+                .toList());
+        return query;
+    }
+}
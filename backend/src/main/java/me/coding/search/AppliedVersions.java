@@ -0,0 +1,73 @@
+package me.coding.search;
+
+import me.coding.service.TodoChangedEvent;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether an index applies a {@link TodoChangedEvent}.
+ * <p>
+ * Events are delivered after their transactions commit, on the committing threads, so two changes of
+ * one todo can arrive in the opposite order. An event older than the version the index holds for the
+ * todo is dropped instead of overwriting the newer state. The index keeps that version with the rest
+ * of the todo's indexed state, so nothing is kept here for live todos.
+ * <p>
+ * A deletion leaves a tombstone, since todo ids are never reused, so a late update cannot bring a
+ * deleted todo back. Such an update can only be in flight for as long as its committing thread takes
+ * to reach the listeners, so tombstones expire after {@link #TOMBSTONE_TTL} and the deletions of the
+ * last minute or so are all that is remembered.
+ * <p>
+ * Not thread-safe; the owning index calls it under its write lock.
+ */
+final class AppliedVersions {
+    
+    static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+    
+    private final LongSupplier nanoClock;
+    
+    /** deleted todo id -> time of deletion, oldest first */
+    private final LinkedHashMap<Long, Long> tombstones = new LinkedHashMap<>();
+    
+    AppliedVersions() {
+        this(System::nanoTime);
+    }
+    
+    AppliedVersions(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * Returns whether to apply {@code event}, given the version of the todo the index holds, or null
+     * when it holds none. False for an event older than that version and for a change of a deleted
+     * todo. Events without a version are applied.
+     */
+    boolean accept(TodoChangedEvent event, Long heldVersion) {
+        long now = nanoClock.getAsLong();
+        prune(now);
+        if (event.type() == TodoChangedEvent.Type.DELETED) {
+            tombstones.remove(event.id());
+            tombstones.put(event.id(), now);
+            return true;
+        }
+        if (tombstones.containsKey(event.id())) {
+            return false;
+        }
+        Long version = event.todo().getVersion();
+        return version == null || heldVersion == null || version >= heldVersion;
+    }
+    
+    int tombstones() {
+        return tombstones.size();
+    }
+    
+    private void prune(long now) {
+        Iterator<Map.Entry<Long, Long>> oldest = tombstones.entrySet().iterator();
+        while (oldest.hasNext() && now - oldest.next().getValue() >= TOMBSTONE_TTL.toNanos()) {
+            oldest.remove();
+        }
+    }
+}
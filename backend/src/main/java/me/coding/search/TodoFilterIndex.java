@@ -0,0 +1,309 @@
+package me.coding.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.coding.dto.TodoStats;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoChangedEvent;
+import me.coding.store.TodoStore;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-process secondary index answering {@link TodoFilter}s without a query.
+ * <p>
+ * Every filterable value (each completed and important flag, category and due date) maps to a
+ * compressed bitmap of the ids of the todos that have it. A filter is answered by AND-ing the
+ * bitmaps of its values, smallest first; counting it only needs the cardinality of that intersection,
+ * which for a single value is stored in the bitmap.
+ * <p>
+ * Like {@link TodoSearchIndex}, the index is rebuilt from the {@link TodoStore} on startup and kept
+ * current through {@link TodoChangedEvent}s, skipping any older than the state already applied
+ * ({@link AppliedVersions}). It answers nothing until the rebuild has finished, or
+ * after a todo id beyond the 32-bit range of the bitmaps was seen; callers then query the store.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TodoFilterIndex {
+    
+    private final TodoStore todoStore;
+    
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Boolean, RoaringBitmap> byCompleted = new HashMap<>();
+    private final Map<Boolean, RoaringBitmap> byImportant = new HashMap<>();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<LocalDate, RoaringBitmap> byDueDate = new HashMap<>();
+    
+    /** todo id -> indexed values and version, needed to unindex a todo without its previous state */
+    private final Map<Integer, Values> valuesByTodo = new HashMap<>();
+    
+    private final AppliedVersions appliedVersions = new AppliedVersions();
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private volatile boolean ready;
+    private volatile boolean overflowed;
+    
+    private record Values(Long version, Boolean completed, Boolean important, String category, LocalDate dueDate) {
+        
+        static Values of(Todo todo) {
+            return new Values(todo.getVersion(), todo.getCompleted(), todo.getImportant(), todo.getCategory(),
+                    todo.getDueDate());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        write(() -> {
+            ready = false;
+            overflowed = false;
+            all.clear();
+            byCompleted.clear();
+            byImportant.clear();
+            byCategory.clear();
+            byDueDate.clear();
+            valuesByTodo.clear();
+            try (Stream<Todo> todos = todoStore.streamAll(TodoFilter.NONE)) {
+                todos.forEach(this::add);
+            }
+            ready = true;
+            return null;
+        });
+        log.info("Indexed {} todos for filtering in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // Ordered before the cache: a filter result loaded after the cache dropped a todo's entries
+    // must already see the todo's new state here
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTodoChanged(TodoChangedEvent event) {
+        write(() -> {
+            if (!appliedVersions.accept(event, heldVersion(event.id()))) {
+                log.debug("Ignoring stale {} event of todo {}", event.type(), event.id());
+            } else if (event.type() == TodoChangedEvent.Type.DELETED) {
+                remove(event.id());
+            } else {
+                index(event.todo());
+            }
+            return null;
+        });
+    }
+    
+    public void index(Todo todo) {
+        write(() -> {
+            remove(todo.getId());
+            add(todo);
+            return null;
+        });
+    }
+    
+    public void remove(Long id) {
+        if (id == null || id > Integer.MAX_VALUE) {
+            return;
+        }
+        write(() -> {
+            int key = id.intValue();
+            Values values = valuesByTodo.remove(key);
+            if (values != null) {
+                all.remove(key);
+                unindex(byCompleted, values.completed(), key);
+                unindex(byImportant, values.important(), key);
+                unindex(byCategory, values.category(), key);
+                unindex(byDueDate, values.dueDate(), key);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Returns the ids of all todos matching {@code filter} in ascending order, or nothing while the
+     * index cannot answer.
+     */
+    public Optional<List<Long>> findIds(TodoFilter filter) {
+        return read(() -> {
+            if (!isAvailable()) {
+                return Optional.empty();
+            }
+            int[] matches = select(filter).toArray();
+            List<Long> ids = new ArrayList<>(matches.length);
+            for (int id : matches) {
+                ids.add((long) id);
+            }
+            return Optional.of(ids);
+        });
+    }
+    
+    /**
+     * Returns the number of todos matching {@code filter}, or nothing while the index cannot answer.
+     */
+    public OptionalLong count(TodoFilter filter) {
+        return read(() -> {
+            if (!isAvailable()) {
+                return OptionalLong.empty();
+            }
+            List<RoaringBitmap> bitmaps = bitmaps(filter);
+            return OptionalLong.of(switch (bitmaps.size()) {
+                case 0 -> all.getLongCardinality();
+                case 1 -> bitmaps.get(0).getLongCardinality();
+                case 2 -> RoaringBitmap.andCardinality(bitmaps.get(0), bitmaps.get(1));
+                default -> intersect(bitmaps).getLongCardinality();
+            });
+        });
+    }
+    
+    /**
+     * Returns the counts behind {@code GET /api/v1/todos/stats}, with "due today" relative to
+     * {@code today}, or nothing while the index cannot answer. Each count is the cardinality of one
+     * bitmap, read under one lock so the counts agree with each other.
+     */
+    public Optional<TodoStats> stats(LocalDate today) {
+        return read(() -> {
+            if (!isAvailable()) {
+                return Optional.empty();
+            }
+            long total = all.getLongCardinality();
+            long completed = lookup(byCompleted, true).getLongCardinality();
+            Map<String, Long> categories = new TreeMap<>();
+            byCategory.forEach((category, ids) -> categories.put(category, ids.getLongCardinality()));
+            return Optional.of(new TodoStats(total, total - completed, completed,
+                    lookup(byImportant, true).getLongCardinality(),
+                    lookup(byDueDate, today).getLongCardinality(), categories));
+        });
+    }
+    
+    public boolean isAvailable() {
+        return ready && !overflowed;
+    }
+    
+    public int size() {
+        return read(valuesByTodo::size);
+    }
+    
+    private Long heldVersion(Long id) {
+        Values values = id <= Integer.MAX_VALUE ? valuesByTodo.get(id.intValue()) : null;
+        return values != null ? values.version() : null;
+    }
+    
+    private void add(Todo todo) {
+        Long id = todo.getId();
+        if (id > Integer.MAX_VALUE) {
+            if (!overflowed) {
+                log.warn("Todo id {} does not fit the filter index; filters are answered by the store from now on", id);
+            }
+            overflowed = true;
+            return;
+        }
+        int key = id.intValue();
+        Values values = Values.of(todo);
+        valuesByTodo.put(key, values);
+        all.add(key);
+        index(byCompleted, values.completed(), key);
+        index(byImportant, values.important(), key);
+        index(byCategory, values.category(), key);
+        index(byDueDate, values.dueDate(), key);
+    }
+    
+    private RoaringBitmap select(TodoFilter filter) {
+        List<RoaringBitmap> bitmaps = bitmaps(filter);
+        return switch (bitmaps.size()) {
+            case 0 -> all;
+            case 1 -> bitmaps.get(0);
+            default -> intersect(bitmaps);
+        };
+    }
+    
+    /**
+     * The bitmaps of the values {@code filter} restricts, smallest first; an empty bitmap for a value
+     * no todo has.
+     */
+    private List<RoaringBitmap> bitmaps(TodoFilter filter) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(4);
+        if (filter.completed() != null) {
+            bitmaps.add(lookup(byCompleted, filter.completed()));
+        }
+        if (filter.important() != null) {
+            bitmaps.add(lookup(byImportant, filter.important()));
+        }
+        if (filter.category() != null) {
+            bitmaps.add(lookup(byCategory, filter.category()));
+        }
+        if (filter.dueDate() != null) {
+            bitmaps.add(lookup(byDueDate, filter.dueDate()));
+        }
+        bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        return bitmaps;
+    }
+    
+    private static RoaringBitmap intersect(List<RoaringBitmap> bitmaps) {
+        RoaringBitmap result = RoaringBitmap.and(bitmaps.get(0), bitmaps.get(1));
+        for (int i = 2; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+    
+    private static <K> RoaringBitmap lookup(Map<K, RoaringBitmap> bitmaps, K value) {
+        RoaringBitmap bitmap = bitmaps.get(value);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+    
+    private static <K> void index(Map<K, RoaringBitmap> bitmaps, K value, int id) {
+        if (value != null) {
+            bitmaps.computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+        }
+    }
+    
+    private static <K> void unindex(Map<K, RoaringBitmap> bitmaps, K value, int id) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }
+    }
+    
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private <T> T write(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package me.coding.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoChangedEvent;
+import me.coding.store.TodoStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over todo titles and descriptions.
+ * <p>
+ * Text is tokenised on non-alphanumeric characters and lower-cased. Every query token must match
+ * an indexed term exactly or as a prefix; results are ranked by a TF-IDF style score in which
+ * title terms and exact matches weigh more than description terms and prefix matches.
+ * <p>
+ * The index is rebuilt from the {@link TodoStore} on startup and kept current through {@link TodoChangedEvent}s;
+ * events older than the state already applied are skipped ({@link AppliedVersions}). Like
+ * {@link TodoFilterIndex}, it answers nothing until the rebuild has finished; callers then scan the
+ * todos with {@link #matches(Todo, String)}.
+ * Reads are lock-free; writers serialise on a lock so a document is never half re-indexed twice.
+ * The lock is a {@link ReentrantLock} because {@link #rebuild()} holds it while streaming from the store,
+ * over JDBC with the JPA store, which inside a {@code synchronized} block would pin a virtual thread to its carrier.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TodoSearchIndex {
+    
+    static final int TITLE_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final double PREFIX_MATCH_BOOST = 0.5;
+    
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private final TodoStore todoStore;
+    
+    /** term -> (todo id -> weighted term frequency) */
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    
+    /** todo id -> indexed terms and version, needed to unindex a todo without its previous state */
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    
+    /** Guarded by {@link #writeLock} */
+    private final AppliedVersions appliedVersions = new AppliedVersions();
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    private volatile boolean ready;
+    
+    private record Document(Long version, Set<String> terms) {
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            ready = false;
+            postings.clear();
+            documents.clear();
+            try (Stream<Todo> todos = todoStore.streamAll(TodoFilter.NONE)) {
+                todos.forEach(this::index);
+            }
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Indexed {} todos for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTodoChanged(TodoChangedEvent event) {
+        writeLock.lock();
+        try {
+            Document document = documents.get(event.id());
+            if (!appliedVersions.accept(event, document != null ? document.version() : null)) {
+                log.debug("Ignoring stale {} event of todo {}", event.type(), event.id());
+            } else if (event.type() == TodoChangedEvent.Type.DELETED) {
+                remove(event.id());
+            } else {
+                index(event.todo());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    public void index(Todo todo) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(todo.getTitle()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(todo.getDescription()).forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        
+        writeLock.lock();
+        try {
+            remove(todo.getId());
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(todo.getId(), frequency));
+            documents.put(todo.getId(), new Document(todo.getVersion(), frequencies.keySet()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                postings.computeIfPresent(term, (t, todos) -> {
+                    todos.remove(id);
+                    return todos.isEmpty() ? null : todos;
+                });
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the ids of all todos matching every token of {@code query}, most relevant first, or
+     * nothing while the index is not built.
+     */
+    public Optional<List<Long>> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Like {@link #search(String)}, but returns at most the {@code limit} most relevant ids.
+     */
+    public Optional<List<Long>> search(String query, int limit) {
+        return ready ? Optional.of(rank(query, limit)) : Optional.empty();
+    }
+    
+    /**
+     * Whether {@code todo} matches every token of {@code query} as {@link #search(String, int)} would
+     * find it, for scanning todos while the index is not built.
+     */
+    public static boolean matches(Todo todo, String query) {
+        List<String> terms = new ArrayList<>(tokenize(todo.getTitle()));
+        terms.addAll(tokenize(todo.getDescription()));
+        List<String> tokens = tokenize(query);
+        return !tokens.isEmpty() && tokens.stream().allMatch(token -> terms.stream().anyMatch(term -> term.startsWith(token)));
+    }
+    
+    private List<Long> rank(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        int indexedTodos = Math.max(documents.size(), 1);
+        Map<Long, Double> scores = null;
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> matches =
+                    postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+                Map<Long, Integer> todos = match.getValue();
+                double boost = match.getKey().length() == token.length() ? 1.0 : PREFIX_MATCH_BOOST;
+                double idf = Math.log(1.0 + (double) indexedTodos / todos.size());
+                todos.forEach((id, frequency) -> tokenScores.merge(id, frequency * idf * boost, Double::sum));
+            }
+            
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Double> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : tokenScores.entrySet()) {
+                    Double score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.stream()
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+    
+    public int size() {
+        return documents.size();
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
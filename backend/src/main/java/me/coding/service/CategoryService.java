@@ -4,11 +4,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.coding.model.Category;
 import me.coding.repository.CategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Serves category reads from an in-memory {@link CategorySnapshot}. Reads are lock-free: they only
+ * dereference the current snapshot. Creations are serialised, written to the database and then
+ * published by swapping in a new snapshot.
+ * <p>
+ * Writers are serialised with a {@link ReentrantLock} rather than {@code synchronized}: the lock is
+ * held across a JDBC call, and a virtual thread blocked inside a monitor pins its carrier thread.
+ * <p>
+ * No method opens a transaction of its own. Reads never take a connection. A creation commits in the
+ * repository's transaction before the new snapshot is published, so readers never see a category that
+ * could still roll back, and no connection is held while waiting for the lock.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -16,11 +32,54 @@ public class CategoryService {
     
     private final CategoryRepository categoryRepository;
     
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    /**
+     * Replaces the snapshot with the current database contents.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        writeLock.lock();
+        try {
+            CategorySnapshot previous = snapshot.get();
+            CategorySnapshot loaded = CategorySnapshot.of(categoryRepository.findAll(),
+                    previous == null ? 0 : previous.version() + 1);
+            snapshot.set(loaded);
+            log.info("Loaded {} categories into memory", loaded.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private CategorySnapshot snapshot() {
+        CategorySnapshot current = snapshot.get();
+        return current != null ? current : loadIfAbsent();
+    }
+    
+    private CategorySnapshot loadIfAbsent() {
+        writeLock.lock();
+        try {
+            // Another thread may have loaded or already extended the snapshot while this one waited
+            if (snapshot.get() == null) {
+                reload();
+            }
+            return snapshot.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Version of the category catalogue; it increases with every change and every reload.
+     */
+    public long categoriesVersion() {
+        return snapshot().version();
+    }
+    
     public List<Category> findAllCategories() {
-        log.debug("Getting all categories");
-        List<Category> categories = categoryRepository.findAll();
-        log.debug("Found {} categories", categories.size());
-        return categories;
+        return snapshot().all();
     }
     
     public Optional<Category> findCategoryById(Long id) {
@@ -29,16 +88,7 @@ public class CategoryService {
             return Optional.empty();
         }
         
-        log.debug("Getting category with id: {}", id);
-        Optional<Category> category = categoryRepository.findById(id);
-        
-        if (category.isPresent()) {
-            log.debug("Found category with id: {}", id);
-        } else {
-            log.debug("No category found with id: {}", id);
-        }
-        
-        return category;
+        return Optional.ofNullable(snapshot().byId(id));
     }
     
     public Optional<Category> findCategoryByName(String name) {
@@ -47,16 +97,7 @@ public class CategoryService {
             return Optional.empty();
         }
         
-        log.debug("Getting category with name: {}", name);
-        Optional<Category> category = categoryRepository.findByName(name.trim());
-        
-        if (category.isPresent()) {
-            log.debug("Found category with name: {}", name);
-        } else {
-            log.debug("No category found with name: {}", name);
-        }
-        
-        return category;
+        return Optional.ofNullable(snapshot().byName(name));
     }
     
     public Category createCategory(Category category) {
@@ -74,17 +115,23 @@ public class CategoryService {
         // Trim the name
         category.setName(name.trim());
         
-        // Check if category already exists
-        if (categoryRepository.existsByName(category.getName())) {
-            log.error("Attempted to create category with existing name: {}", category.getName());
-            throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists");
+        writeLock.lock();
+        try {
+            // Check if category already exists
+            CategorySnapshot current = snapshot();
+            if (current.byName(category.getName()) != null) {
+                log.error("Attempted to create category with existing name: {}", category.getName());
+                throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists");
+            }
+            
+            Category savedCategory = categoryRepository.save(category);
+            snapshot.set(current.with(savedCategory));
+            log.info("Created category with id: {} and name: {}", savedCategory.getId(), savedCategory.getName());
+            
+            return savedCategory;
+        } finally {
+            writeLock.unlock();
         }
-        
-        log.debug("Creating new category: {}", category.getName());
-        Category savedCategory = categoryRepository.save(category);
-        log.info("Created category with id: {} and name: {}", savedCategory.getId(), savedCategory.getName());
-        
-        return savedCategory;
     }
     
     public boolean existsByName(String name) {
@@ -92,8 +139,6 @@ public class CategoryService {
             return false;
         }
         
-        boolean exists = categoryRepository.existsByName(name.trim());
-        log.debug("Category exists check for name '{}': {}", name, exists);
-        return exists;
+        return snapshot().byName(name) != null;
     }
 }
\ No newline at end of file
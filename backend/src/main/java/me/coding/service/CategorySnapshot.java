@@ -0,0 +1,75 @@
+package me.coding.service;
+
+import me.coding.model.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the category catalogue, indexed by id and by normalised name.
+ * A new snapshot is built for every change and swapped in as a whole, so readers never see a partial update.
+ * Each snapshot carries a version one higher than the snapshot it replaced.
+ */
+final class CategorySnapshot {
+    
+    private final List<Category> categories;
+    private final Map<Long, Category> byId;
+    private final Map<String, Category> byName;
+    private final long version;
+    
+    private CategorySnapshot(List<Category> categories, long version) {
+        this.categories = Collections.unmodifiableList(categories);
+        this.version = version;
+        Map<Long, Category> ids = new HashMap<>();
+        Map<String, Category> names = new HashMap<>();
+        for (Category category : categories) {
+            ids.put(category.getId(), category);
+            names.put(normalise(category.getName()), category);
+        }
+        this.byId = ids;
+        this.byName = names;
+    }
+    
+    static CategorySnapshot of(List<Category> categories) {
+        return of(categories, 0);
+    }
+    
+    static CategorySnapshot of(List<Category> categories, long version) {
+        return new CategorySnapshot(new ArrayList<>(categories), version);
+    }
+    
+    CategorySnapshot with(Category category) {
+        List<Category> categories = new ArrayList<>(this.categories.size() + 1);
+        categories.addAll(this.categories);
+        categories.add(category);
+        return new CategorySnapshot(categories, version + 1);
+    }
+    
+    List<Category> all() {
+        return categories;
+    }
+    
+    Category byId(Long id) {
+        return byId.get(id);
+    }
+    
+    Category byName(String name) {
+        return byName.get(normalise(name));
+    }
+    
+    int size() {
+        return categories.size();
+    }
+    
+    long version() {
+        return version;
+    }
+    
+    /** Names are unique as stored, so lookups only ignore surrounding whitespace */
+    static String normalise(String name) {
+        return name == null ? null : name.trim();
+    }
+}
@@ -0,0 +1,30 @@
+package me.coding.service;
+
+import me.coding.model.Todo;
+
+/**
+ * Published by {@link TodoService} after every successful mutation.
+ * {@code todo} holds the state after the change and is null for deletions.
+ */
+public record TodoChangedEvent(Type type, Long id, Todo todo) {
+    
+    public enum Type {
+        CREATED, UPDATED, PATCHED, DELETED
+    }
+    
+    public static TodoChangedEvent created(Todo todo) {
+        return new TodoChangedEvent(Type.CREATED, todo.getId(), todo);
+    }
+    
+    public static TodoChangedEvent updated(Todo todo) {
+        return new TodoChangedEvent(Type.UPDATED, todo.getId(), todo);
+    }
+    
+    public static TodoChangedEvent patched(Todo todo) {
+        return new TodoChangedEvent(Type.PATCHED, todo.getId(), todo);
+    }
+    
+    public static TodoChangedEvent deleted(Long id) {
+        return new TodoChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -1,270 +1,637 @@
 package me.coding.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.coding.cache.TodoCache;
+import me.coding.dto.BatchItemResult;
+import me.coding.dto.BatchResponse;
+import me.coding.dto.TodoBatchPatchRequest;
+import me.coding.dto.TodoPage;
 import me.coding.dto.TodoUpdateRequest;
+import me.coding.dto.TodoView;
+import me.coding.exception.VersionConflictException;
 import me.coding.model.Todo;
-import me.coding.repository.TodoRepository;
+import me.coding.repository.TodoCursor;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+import me.coding.search.TodoFilterIndex;
+import me.coding.search.TodoSearchIndex;
+import me.coding.store.TodoStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "todo.service", description = "TodoService calls by method")
 public class TodoService {
     
-    private final TodoRepository todoRepository;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int DEFAULT_INDEX_FETCH_LIMIT = 5000;
     
+    /** Filtered list loads, tagged by the filter's shape and whether the index or the store answered */
+    public static final String FILTER_LOAD_METER = "todo.filter.load";
+    
+    private final TodoStore todoStore;
+    private final TodoSearchIndex searchIndex;
+    private final TodoFilterIndex filterIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TodoCache todoCache;
+    private final MeterRegistry meterRegistry;
+    
+    /** Filters matching more todos than this are answered by one store query instead of id lookups */
+    private int indexFetchLimit = DEFAULT_INDEX_FETCH_LIMIT;
+    
+    /** How often a flags-only patch is re-applied after losing a version check, 0 to fail at once */
+    private int flagPatchRetries;
+    
+    /** Bumped after every committed change to the todos table */
+    private final AtomicLong version = new AtomicLong();
+    
+    /**
+     * Version of the todos table. It increases after every committed change made through this
+     * service, so a value read before a query is never newer than the data the query returns.
+     */
+    public long todosVersion() {
+        return version.get();
+    }
+    
+    @Value("${todo.concurrency.flag-patch-retries:0}")
+    void setFlagPatchRetries(int flagPatchRetries) {
+        if (flagPatchRetries < 0) {
+            throw new IllegalArgumentException("Flag patch retries must not be negative");
+        }
+        this.flagPatchRetries = flagPatchRetries;
+    }
+    
+    @Value("${todo.index.fetch-limit:" + DEFAULT_INDEX_FETCH_LIMIT + "}")
+    void setIndexFetchLimit(int indexFetchLimit) {
+        if (indexFetchLimit < 0) {
+            throw new IllegalArgumentException("Index fetch limit must not be negative");
+        }
+        this.indexFetchLimit = indexFetchLimit;
+    }
+    
+    // Ordered after the cache and index listeners: once a reader sees the new version,
+    // neither can serve the old state any more
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    public void onTodoChanged(TodoChangedEvent event) {
+        version.incrementAndGet();
+    }
+    
+    @Transactional(readOnly = true)
     public List<Todo> findAllTodos() {
-        log.debug("Fetching all todos from database");
-        List<Todo> todos = todoRepository.findAll();
-        log.debug("Retrieved {} todos from database", todos.size());
-        return todos;
+        return todoStore.findAll();
     }
     
+    // Not transactional on purpose: a cache hit should not take a connection, and with the JPA store
+    // the loader runs in the read-only transaction of the repository's findById
     public Optional<Todo> findTodoById(Long id) {
-        log.debug("Fetching todo by id: {}", id);
-        Optional<Todo> todo = todoRepository.findById(id);
-        if (todo.isPresent()) {
-            log.debug("Found todo with id: {}", id);
-        } else {
-            log.debug("No todo found with id: {}", id);
-        }
-        return todo;
+        return todoCache.findById(id, todoStore::findById);
     }
     
+    @Transactional
     public Todo createTodo(Todo todo) {
-        log.info("Creating new todo: {}", todo.getTitle());
-        Todo savedTodo = todoRepository.save(todo);
-        log.info("Successfully created todo with id: {} and title: {}", savedTodo.getId(), savedTodo.getTitle());
+        // Always insert; a client-supplied id or version would turn the persist into a merge
+        todo.setId(null);
+        todo.setVersion(null);
+        Todo savedTodo = todoStore.save(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.created(savedTodo));
         return savedTodo;
     }
     
+    /**
+     * Replaces the fields of the todo with {@code id}. When {@code updatedTodo} carries a version,
+     * the update fails with a {@link VersionConflictException} unless the todo still has it; a
+     * concurrent write between the read and the commit fails the version check of the UPDATE itself.
+     */
+    @Transactional
     public Optional<Todo> updateTodo(Long id, Todo updatedTodo) {
-        log.debug("Updating todo with id: {}", id);
-        return todoRepository.findById(id)
+        return todoStore.findById(id)
                 .map(todo -> {
-                    log.debug("Found existing todo, updating fields for id: {}", id);
+                    requireVersion(id, updatedTodo.getVersion(), todo.getVersion());
                     todo.setTitle(updatedTodo.getTitle());
                     todo.setDescription(updatedTodo.getDescription());
                     todo.setCompleted(updatedTodo.getCompleted());
                     todo.setCategory(updatedTodo.getCategory());
                     todo.setImportant(updatedTodo.getImportant());
                     todo.setDueDate(updatedTodo.getDueDate());
-                    Todo savedTodo = todoRepository.save(todo);
-                    log.info("Successfully updated todo with id: {}", id);
+                    Todo savedTodo = todoStore.save(todo);
+                    eventPublisher.publishEvent(TodoChangedEvent.updated(savedTodo));
                     return savedTodo;
                 });
     }
     
+    /**
+     * Writes only the fields present in {@code updateRequest} with a single UPDATE, then reads the
+     * todo back for the response. A request without fields does not touch the row.
+     * <p>
+     * When the request carries a version, the UPDATE only applies while the todo still has it;
+     * otherwise a {@link VersionConflictException} is thrown. Patches that only set flags are
+     * re-applied against the current version up to {@code todo.concurrency.flag-patch-retries} times
+     * first, since the value they write does not depend on the rest of the todo.
+     */
+    @Transactional
     public Optional<Todo> patchTodo(Long id, TodoUpdateRequest updateRequest) {
-        log.debug("Patching todo with id: {}", id);
-        return todoRepository.findById(id)
-                .map(todo -> {
-                    log.debug("Found existing todo, applying partial updates for id: {}", id);
-                    
-                    // Only update fields that are present in the request
-                    if (updateRequest.hasTitle()) {
-                        todo.setTitle(updateRequest.getTitle());
-                        log.debug("Updated title for todo {}", id);
-                    }
-                    
-                    if (updateRequest.hasDescription()) {
-                        todo.setDescription(updateRequest.getDescription());
-                        log.debug("Updated description for todo {}", id);
-                    }
-                    
-                    if (updateRequest.hasCompleted()) {
-                        todo.setCompleted(updateRequest.getCompleted());
-                        log.debug("Updated completed status to {} for todo {}", updateRequest.getCompleted(), id);
-                    }
-                    
-                    if (updateRequest.hasImportant()) {
-                        todo.setImportant(updateRequest.getImportant());
-                        log.debug("Updated important status to {} for todo {}", updateRequest.getImportant(), id);
-                    }
-                    
-                    if (updateRequest.hasCategory()) {
-                        todo.setCategory(updateRequest.getCategory());
-                        log.debug("Updated category for todo {}", id);
-                    }
-                    
-                    if (updateRequest.hasDueDate()) {
-                        todo.setDueDate(updateRequest.getDueDate());
-                        log.debug("Updated due date for todo {}", id);
-                    }
-                    
-                    Todo savedTodo = todoRepository.save(todo);
-                    log.info("Successfully patched todo with id: {}", id);
-                    return savedTodo;
-                });
+        if (!updateRequest.hasChanges()) {
+            Optional<Todo> todo = todoStore.findById(id);
+            todo.ifPresent(current -> requireVersion(id, updateRequest.getVersion(), current.getVersion()));
+            return todo;
+        }
+        int retries = 0;
+        while (todoStore.patch(id, updateRequest) == 0) {
+            Long expectedVersion = updateRequest.getVersion();
+            Optional<Long> currentVersion = expectedVersion != null ? todoStore.findVersionById(id) : Optional.empty();
+            if (currentVersion.isEmpty()) {
+                return Optional.empty();
+            }
+            if (!updateRequest.touchesOnlyFlags() || retries++ >= flagPatchRetries) {
+                throw new VersionConflictException("Todo", id, expectedVersion, currentVersion.get());
+            }
+            log.debug("Re-applying flag patch of todo {} on version {} instead of {}", id, currentVersion.get(), expectedVersion);
+            updateRequest.setVersion(currentVersion.get());
+        }
+        
+        Optional<Todo> patchedTodo = todoStore.findById(id);
+        patchedTodo.ifPresent(todo -> eventPublisher.publishEvent(TodoChangedEvent.patched(todo)));
+        return patchedTodo;
     }
     
+    /**
+     * Sets the fields present in {@code updateRequest} on {@code todo}.
+     *
+     * @return whether any of them had a different value before
+     */
+    private boolean applyPatch(Todo todo, TodoUpdateRequest updateRequest) {
+        boolean changed = false;
+        
+        if (updateRequest.hasTitle()) {
+            changed |= !updateRequest.getTitle().equals(todo.getTitle());
+            todo.setTitle(updateRequest.getTitle());
+        }
+        
+        if (updateRequest.hasDescription()) {
+            changed |= !updateRequest.getDescription().equals(todo.getDescription());
+            todo.setDescription(updateRequest.getDescription());
+        }
+        
+        if (updateRequest.hasCompleted()) {
+            changed |= !updateRequest.getCompleted().equals(todo.getCompleted());
+            todo.setCompleted(updateRequest.getCompleted());
+        }
+        
+        if (updateRequest.hasImportant()) {
+            changed |= !updateRequest.getImportant().equals(todo.getImportant());
+            todo.setImportant(updateRequest.getImportant());
+        }
+        
+        if (updateRequest.hasCategory()) {
+            changed |= !updateRequest.getCategory().equals(todo.getCategory());
+            todo.setCategory(updateRequest.getCategory());
+        }
+        
+        if (updateRequest.hasDueDate()) {
+            changed |= !updateRequest.getDueDate().equals(todo.getDueDate());
+            todo.setDueDate(updateRequest.getDueDate());
+        }
+        
+        return changed;
+    }
+    
+    @Transactional
     public boolean deleteTodo(Long id) {
-        log.debug("Attempting to delete todo with id: {}", id);
-        return todoRepository.findById(id)
-                .map(todo -> {
-                    todoRepository.delete(todo);
-                    log.info("Successfully deleted todo with id: {}", id);
-                    return true;
-                })
-                .orElseGet(() -> {
-                    log.debug("Todo not found for deletion with id: {}", id);
-                    return false;
-                });
+        if (todoStore.deleteById(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(TodoChangedEvent.deleted(id));
+        return true;
     }
     
-    public List<Todo> findTodosByStatus(Boolean completed) {
-        log.debug("Fetching todos by completion status: {}", completed);
-        List<Todo> todos = todoRepository.findByCompleted(completed);
-        log.debug("Found {} todos with completion status: {}", todos.size(), completed);
-        return todos;
+    /**
+     * Creates all valid todos in one transaction. Ids come from the pooled sequence, so the inserts
+     * go out as JDBC batches. Invalid items are reported and skipped; they do not fail the batch.
+     */
+    @Transactional
+    public BatchResponse createTodos(List<Todo> todos) {
+        requireBatchSize(todos);
+        BatchItemResult[] results = new BatchItemResult[todos.size()];
+        List<Integer> validIndexes = new ArrayList<>(todos.size());
+        List<Todo> validTodos = new ArrayList<>(todos.size());
+        for (int i = 0; i < todos.size(); i++) {
+            Todo todo = todos.get(i);
+            String error = validate(todo);
+            if (error != null) {
+                results[i] = BatchItemResult.invalid(i, null, error);
+                continue;
+            }
+            // Always insert; a client-supplied id or version would turn the persist into a merge
+            todo.setId(null);
+            todo.setVersion(null);
+            validIndexes.add(i);
+            validTodos.add(todo);
+        }
+        
+        List<Todo> savedTodos = todoStore.saveAll(validTodos);
+        for (int i = 0; i < savedTodos.size(); i++) {
+            Todo savedTodo = savedTodos.get(i);
+            int index = validIndexes.get(i);
+            results[index] = BatchItemResult.created(index, savedTodo.getId());
+            eventPublisher.publishEvent(TodoChangedEvent.created(savedTodo));
+        }
+        
+        BatchResponse response = BatchResponse.of(Arrays.asList(results));
+        log.debug("Created batch of todos: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
     }
     
-    public List<Todo> findTodos(Boolean completed, String category) {
-        log.debug("Fetching todos with completed status: {} and category: {}", completed, category);
+    /**
+     * Applies all valid partial updates in one transaction: the todos are loaded with a single query
+     * and the resulting updates are flushed as JDBC batches. Items whose version does not match the
+     * loaded todo are reported as conflicts.
+     */
+    @Transactional
+    public BatchResponse patchTodos(List<TodoBatchPatchRequest> updateRequests) {
+        requireBatchSize(updateRequests);
+        List<Long> ids = updateRequests.stream()
+                .filter(Objects::nonNull)
+                .map(TodoBatchPatchRequest::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Todo> todosById = new HashMap<>();
+        todoStore.findAllById(ids).forEach(todo -> todosById.put(todo.getId(), todo));
         
-        List<Todo> todos;
+        List<BatchItemResult> results = new ArrayList<>(updateRequests.size());
+        Map<Long, Todo> patchedTodos = new LinkedHashMap<>();
+        for (int i = 0; i < updateRequests.size(); i++) {
+            TodoBatchPatchRequest updateRequest = updateRequests.get(i);
+            Long id = updateRequest != null ? updateRequest.getId() : null;
+            String error = id == null ? "Id is required" : validate(updateRequest);
+            if (error != null) {
+                results.add(BatchItemResult.invalid(i, id, error));
+                continue;
+            }
+            Todo todo = todosById.get(id);
+            if (todo == null) {
+                results.add(BatchItemResult.notFound(i, id));
+                continue;
+            }
+            if (updateRequest.getVersion() != null && !updateRequest.getVersion().equals(todo.getVersion())) {
+                results.add(BatchItemResult.conflict(i, id, updateRequest.getVersion(), todo.getVersion()));
+                continue;
+            }
+            // A todo the patch leaves as it is is not written, so its version and ETag stay
+            if (applyPatch(todo, updateRequest)) {
+                patchedTodos.put(id, todo);
+            }
+            results.add(BatchItemResult.ok(i, id));
+        }
         
-        if (completed != null && category != null && !category.trim().isEmpty()) {
-            // Both filters specified
-            todos = todoRepository.findByCategoryAndCompleted(category.trim(), completed);
-            log.debug("Retrieved {} todos with category: {} and completed: {}", todos.size(), category, completed);
-        } else if (category != null && !category.trim().isEmpty()) {
-            // Only category filter specified
-            todos = todoRepository.findByCategory(category.trim());
-            log.debug("Retrieved {} todos with category: {}", todos.size(), category);
-        } else if (completed != null) {
-            // Only completed filter specified
-            todos = todoRepository.findByCompleted(completed);
-            log.debug("Retrieved {} todos with completed: {}", todos.size(), completed);
-        } else {
-            // No filters specified
-            todos = todoRepository.findAll();
-            log.debug("Retrieved {} todos (no filters)", todos.size());
+        todoStore.saveAll(patchedTodos.values())
+                .forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.patched(todo)));
+        
+        BatchResponse response = BatchResponse.of(results);
+        log.debug("Patched batch of todos: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+    
+    /**
+     * Deletes all existing todos among {@code ids} with a single bulk statement. Ids that do not
+     * exist are reported as not found.
+     */
+    @Transactional
+    public BatchResponse deleteTodos(List<Long> ids) {
+        requireBatchSize(ids);
+        Set<Long> existingIds = new HashSet<>();
+        todoStore.findAllById(ids.stream().filter(Objects::nonNull).distinct().toList())
+                .forEach(todo -> existingIds.add(todo.getId()));
+        if (!existingIds.isEmpty()) {
+            todoStore.deleteAllById(existingIds);
+            existingIds.forEach(id -> eventPublisher.publishEvent(TodoChangedEvent.deleted(id)));
         }
         
-        return todos;
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.invalid(i, null, "Id is required"));
+            } else if (existingIds.contains(id)) {
+                results.add(BatchItemResult.ok(i, id));
+            } else {
+                results.add(BatchItemResult.notFound(i, id));
+            }
+        }
+        
+        BatchResponse response = BatchResponse.of(results);
+        log.debug("Deleted batch of todos: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+    
+    private static void requireVersion(Long id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new VersionConflictException("Todo", id, expectedVersion, currentVersion);
+        }
+    }
+    
+    private void requireBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " items");
+        }
+    }
+    
+    /**
+     * Runs bean validation on a single batch item, since a violation must only reject that item.
+     *
+     * @return the violation messages, or null when the item is valid
+     */
+    private String validate(Object item) {
+        if (item == null) {
+            return "Item must not be null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    public List<Todo> findTodosByStatus(Boolean completed) {
+        return loadTodos(TodoFilter.of(completed, null, null, null));
+    }
+    
+    public List<Todo> findTodos(Boolean completed, String category) {
+        return findTodos(completed, category, null, null);
     }
     
     public List<Todo> findTodos(Boolean completed, String category, Boolean important) {
-        log.debug("Fetching todos with completed: {}, category: {}, important: {}", completed, category, important);
-        
+        return findTodos(completed, category, important, null);
+    }
+    
+    public List<Todo> findTodos(Boolean completed, String category, Boolean important, LocalDate dueDate) {
+        return findTodos(TodoFilter.of(completed, category, important, dueDate));
+    }
+    
+    // Like findTodoById, left to the read-only transactions of the store's reads
+    public List<Todo> findTodos(TodoFilter filter) {
+        return todoCache.findTodos(filter, this::loadTodos);
+    }
+    
+    /**
+     * Returns the number of todos matching {@code filter}, from the filter index without touching the
+     * store unless the index is not available. Not transactional, like {@link #findTodos(TodoFilter)}:
+     * a read-only transaction takes its connection up front, and the index needs none.
+     */
+    public long countTodos(TodoFilter filter) {
+        return filterIndex.count(filter).orElseGet(() -> todoStore.count(filter));
+    }
+    
+    /**
+     * Reads the todos matching {@code filter} in id order. The ids come from the filter index and the
+     * todos are then fetched by id, in chunks of {@value #MAX_BATCH_SIZE}; a filter matching nothing does
+     * not reach the store at all. Without a filter, or when the index is not available or matches more
+     * than {@code todo.index.fetch-limit} todos, the store evaluates the filter itself. Each load is
+     * timed in {@value #FILTER_LOAD_METER}.
+     */
+    private List<Todo> loadTodos(TodoFilter filter) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Long> ids = filter.isEmpty() ? null : filterIndex.findIds(filter).orElse(null);
         List<Todo> todos;
-        
-        // Handle all combinations of filters
-        if (completed != null && category != null && !category.trim().isEmpty() && important != null) {
-            // All three filters specified
-            todos = todoRepository.findByImportantAndCategoryAndCompleted(important, category.trim(), completed);
-            log.debug("Retrieved {} todos with important: {}, category: {}, completed: {}", todos.size(), important, category, completed);
-        } else if (important != null && category != null && !category.trim().isEmpty()) {
-            // Important and category filters specified
-            todos = todoRepository.findByImportantAndCategory(important, category.trim());
-            log.debug("Retrieved {} todos with important: {} and category: {}", todos.size(), important, category);
-        } else if (important != null && completed != null) {
-            // Important and completed filters specified
-            todos = todoRepository.findByImportantAndCompleted(important, completed);
-            log.debug("Retrieved {} todos with important: {} and completed: {}", todos.size(), important, completed);
-        } else if (completed != null && category != null && !category.trim().isEmpty()) {
-            // Category and completed filters specified
-            todos = todoRepository.findByCategoryAndCompleted(category.trim(), completed);
-            log.debug("Retrieved {} todos with category: {} and completed: {}", todos.size(), category, completed);
-        } else if (important != null) {
-            // Only important filter specified
-            todos = todoRepository.findByImportant(important);
-            log.debug("Retrieved {} todos with important: {}", todos.size(), important);
-        } else if (category != null && !category.trim().isEmpty()) {
-            // Only category filter specified
-            todos = todoRepository.findByCategory(category.trim());
-            log.debug("Retrieved {} todos with category: {}", todos.size(), category);
-        } else if (completed != null) {
-            // Only completed filter specified
-            todos = todoRepository.findByCompleted(completed);
-            log.debug("Retrieved {} todos with completed: {}", todos.size(), completed);
+        String path;
+        if (ids == null || ids.size() > indexFetchLimit) {
+            path = "store";
+            todos = todoStore.findAll(filter);
         } else {
-            // No filters specified
-            todos = todoRepository.findAll();
-            log.debug("Retrieved {} todos (no filters)", todos.size());
+            path = ids.isEmpty() ? "index-empty" : "index";
+            todos = fetchMatching(ids, filter);
         }
-        
+        sample.stop(Timer.builder(FILTER_LOAD_METER)
+                .description("Filtered todo list reads below the cache")
+                .tag("filter", filter.shape())
+                .tag("path", path)
+                .register(meterRegistry));
         return todos;
     }
     
-    public List<Todo> findTodos(Boolean completed, String category, Boolean important, LocalDate dueDate) {
-        log.debug("Fetching todos with completed: {}, category: {}, important: {}, dueDate: {}", completed, category, important, dueDate);
+    private List<Todo> fetchMatching(List<Long> ids, TodoFilter filter) {
+        List<Todo> todos = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_BATCH_SIZE));
+            // The index is updated after commit, so a todo may have changed since it was looked up
+            todoStore.findAllById(chunk).stream()
+                    .filter(filter::matches)
+                    .forEach(todos::add);
+        }
+        todos.sort(Comparator.comparing(Todo::getId));
+        return todos;
+    }
+    
+    /**
+     * Like {@link #findTodos(TodoFilter)}, but reads only {@code fields} with a scalar query instead of
+     * loading entities. Views are not cached.
+     */
+    @Transactional(readOnly = true)
+    public List<TodoView> findTodoViews(TodoFilter filter, List<TodoField> fields) {
+        return todoStore.findFields(filter, null, fields).stream()
+                .map(row -> toView(row, fields))
+                .toList();
+    }
+    
+    /**
+     * Like {@link #searchTodos(String)}, but reads only {@code fields} with a scalar query instead of
+     * loading entities.
+     */
+    @Transactional(readOnly = true)
+    public List<TodoView> searchTodoViews(String searchTerm, List<TodoField> fields) {
+        List<Long> rankedIds = searchIds(searchTerm);
+        if (rankedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
         
-        List<Todo> todos;
+        // The id is needed to restore the ranking, whether or not the client asked for it
+        Set<TodoField> selected = new LinkedHashSet<>(fields);
+        selected.add(TodoField.ID);
+        Map<Object, Map<String, Object>> rowsById = new HashMap<>();
+        todoStore.findFields(TodoFilter.NONE, rankedIds, selected)
+                .forEach(row -> rowsById.put(row.get(TodoField.ID.attribute()), row));
+        return rankedIds.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .map(row -> toView(row, fields))
+                .toList();
+    }
+    
+    private static TodoView toView(Map<String, Object> row, List<TodoField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (TodoField field : fields) {
+            values.put(field.attribute(), row.get(field.attribute()));
+        }
+        return new TodoView(values);
+    }
+    
+    @Transactional(readOnly = true)
+    public TodoPage findTodoPage(TodoFilter filter, String searchTerm, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        TodoCursor after = cursor != null && !cursor.trim().isEmpty() ? TodoCursor.decode(cursor.trim()) : null;
+        List<Long> matchingIds = null;
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            // Page through the same best-matching todos an unpaged search returns
+            matchingIds = searchIds(searchTerm.trim());
+            if (matchingIds.isEmpty()) {
+                return new TodoPage(Collections.emptyList(), null);
+            }
+        }
         
-        // Handle all combinations of filters including date
-        if (dueDate != null && completed != null && category != null && !category.trim().isEmpty() && important != null) {
-            // All four filters specified
-            todos = todoRepository.findByDueDateAndImportantAndCategoryAndCompleted(dueDate, important, category.trim(), completed);
-            log.debug("Retrieved {} todos with dueDate: {}, important: {}, category: {}, completed: {}", todos.size(), dueDate, important, category, completed);
-        } else if (dueDate != null && important != null && category != null && !category.trim().isEmpty()) {
-            // Date, important and category filters
-            todos = todoRepository.findByDueDateAndImportantAndCategory(dueDate, important, category.trim());
-            log.debug("Retrieved {} todos with dueDate: {}, important: {}, category: {}", todos.size(), dueDate, important, category);
-        } else if (dueDate != null && category != null && !category.trim().isEmpty() && completed != null) {
-            // Date, category and completed filters
-            todos = todoRepository.findByDueDateAndCategoryAndCompleted(dueDate, category.trim(), completed);
-            log.debug("Retrieved {} todos with dueDate: {}, category: {}, completed: {}", todos.size(), dueDate, category, completed);
-        } else if (dueDate != null && important != null && completed != null) {
-            // Date, important and completed filters
-            todos = todoRepository.findByDueDateAndImportantAndCompleted(dueDate, important, completed);
-            log.debug("Retrieved {} todos with dueDate: {}, important: {}, completed: {}", todos.size(), dueDate, important, completed);
-        } else if (dueDate != null && important != null) {
-            // Date and important filters
-            todos = todoRepository.findByDueDateAndImportant(dueDate, important);
-            log.debug("Retrieved {} todos with dueDate: {} and important: {}", todos.size(), dueDate, important);
-        } else if (dueDate != null && category != null && !category.trim().isEmpty()) {
-            // Date and category filters
-            todos = todoRepository.findByDueDateAndCategory(dueDate, category.trim());
-            log.debug("Retrieved {} todos with dueDate: {} and category: {}", todos.size(), dueDate, category);
-        } else if (dueDate != null && completed != null) {
-            // Date and completed filters
-            todos = todoRepository.findByDueDateAndCompleted(dueDate, completed);
-            log.debug("Retrieved {} todos with dueDate: {} and completed: {}", todos.size(), dueDate, completed);
-        } else if (dueDate != null) {
-            // Only date filter specified
-            todos = todoRepository.findByDueDate(dueDate);
-            log.debug("Retrieved {} todos with dueDate: {}", todos.size(), dueDate);
-        } else {
-            // No date filter - use existing logic
-            todos = findTodos(completed, category, important);
+        // Fetch one extra row to find out whether another page follows
+        List<Todo> todos = todoStore.findPage(filter, matchingIds, after, pageSize + 1);
+        if (todos.size() <= pageSize) {
+            return new TodoPage(todos, null);
         }
         
-        return todos;
+        List<Todo> items = new ArrayList<>(todos.subList(0, pageSize));
+        String nextCursor = TodoCursor.of(items.get(pageSize - 1)).encode();
+        return new TodoPage(items, nextCursor);
+    }
+    
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * Hands every todo matching {@code filter} to {@code consumer} in id order, streaming them from the
+     * store (through a database cursor with the JPA store). Todos are not retained, so heap use stays
+     * flat regardless of how many are exported.
+     *
+     * @return the number of exported todos
+     */
+    @Transactional(readOnly = true)
+    public long exportTodos(TodoFilter filter, Consumer<Todo> consumer) {
+        long exported = 0;
+        try (Stream<Todo> todos = todoStore.streamAll(filter)) {
+            Iterator<Todo> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                exported++;
+            }
+        }
+        log.debug("Exported {} todos with filter: {}", exported, filter);
+        return exported;
     }
     
     public List<Todo> findTodaysTodos() {
-        log.debug("Fetching today's todos");
-        List<Todo> todos = todoRepository.findTodaysTodos();
-        log.debug("Retrieved {} todos for today", todos.size());
-        return todos;
+        return loadTodos(TodoFilter.of(null, null, null, LocalDate.now()));
     }
     
     public List<Todo> findTodaysTodos(Boolean completed) {
-        log.debug("Fetching today's todos with completed: {}", completed);
-        List<Todo> todos = todoRepository.findTodaysTodosByCompleted(completed);
-        log.debug("Retrieved {} todos for today with completed: {}", todos.size(), completed);
-        return todos;
+        return loadTodos(TodoFilter.of(completed, null, null, LocalDate.now()));
     }
     
     public List<Todo> findTodosByDate(LocalDate date) {
-        log.debug("Fetching todos for date: {}", date);
-        List<Todo> todos = todoRepository.findByDueDate(date);
-        log.debug("Retrieved {} todos for date: {}", todos.size(), date);
-        return todos;
+        return loadTodos(TodoFilter.of(null, null, null, date));
     }
     
+    /**
+     * Returns all todos matching {@code searchTerm}, most relevant first.
+     * Matching is token based, case-insensitive and accepts prefixes ("groc" finds "Groceries").
+     */
+    @Transactional(readOnly = true)
     public List<Todo> searchTodos(String searchTerm) {
-        log.debug("Searching todos with term: {}", searchTerm);
-        List<Todo> todos = todoRepository.findByTitleOrDescriptionContaining(searchTerm);
-        log.debug("Found {} todos matching search term: {}", todos.size(), searchTerm);
-        return todos;
+        List<Long> rankedIds = searchIds(searchTerm);
+        if (rankedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Map<Long, Todo> todosById = new HashMap<>();
+        todoStore.findAllById(rankedIds).forEach(todo -> todosById.put(todo.getId(), todo));
+        return rankedIds.stream()
+                .map(todosById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    /**
+     * Hands every todo matching {@code searchTerm} to {@code consumer}, most relevant first, like
+     * {@link #searchTodos(String)} but fetching them by id in chunks of {@value #MAX_BATCH_SIZE}, so
+     * only one chunk is held at a time. Not transactional: each chunk is read in its own transaction,
+     * which leaves no todo managed once it was handed over.
+     *
+     * @return the number of exported todos
+     */
+    public long exportSearchResults(String searchTerm, Consumer<Todo> consumer) {
+        List<Long> rankedIds = searchIds(searchTerm);
+        long exported = 0;
+        for (int from = 0; from < rankedIds.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = rankedIds.subList(from, Math.min(rankedIds.size(), from + MAX_BATCH_SIZE));
+            Map<Long, Todo> todosById = new HashMap<>();
+            todoStore.findAllById(chunk).forEach(todo -> todosById.put(todo.getId(), todo));
+            for (Long id : chunk) {
+                Todo todo = todosById.get(id);
+                if (todo != null) {
+                    consumer.accept(todo);
+                    exported++;
+                }
+            }
+        }
+        log.debug("Exported {} todos matching: {}", exported, searchTerm);
+        return exported;
+    }
+    
+    /**
+     * Ids of all todos matching {@code searchTerm}, most relevant first.
+     * Until the search index is built, the todos of the store are scanned instead and the matches
+     * come in id order.
+     */
+    private List<Long> searchIds(String searchTerm) {
+        return searchIndex.search(searchTerm).orElseGet(() -> todoStore.findAll().stream()
+                .filter(todo -> TodoSearchIndex.matches(todo, searchTerm))
+                .map(Todo::getId)
+                .sorted()
+                .toList());
     }
     
 }
\ No newline at end of file
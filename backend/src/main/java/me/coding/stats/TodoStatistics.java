@@ -0,0 +1,114 @@
+package me.coding.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.coding.dto.TodoStats;
+import me.coding.repository.TodoFilter;
+import me.coding.search.TodoFilterIndex;
+import me.coding.service.TodoService;
+import me.coding.store.TodoStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The counts behind {@code GET /api/v1/todos/stats}: all, completed and important todos, and todos
+ * per category and due today.
+ * <p>
+ * They are the cardinalities of the {@link TodoFilterIndex} bitmaps, which already follow every
+ * change, so a request reads a handful of numbers however many todos there are. While the index
+ * cannot answer, they are counted by the {@link TodoStore} with one count query per figure.
+ * <p>
+ * The index only sees changes made through {@link TodoService}, so every
+ * {@code todo.stats.reconcile-interval} the counts are recounted from the store. A difference that
+ * cannot be explained by a change applied during the recount is drift: it is logged, counted in the
+ * {@value #DRIFT_METER} meter and corrected by rebuilding the index.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TodoStatistics implements MeterBinder {
+    
+    static final String DRIFT_METER = "todo.stats.drift";
+    
+    private final TodoFilterIndex filterIndex;
+    private final TodoStore todoStore;
+    private final TodoService todoService;
+    
+    private final AtomicLong drifts = new AtomicLong();
+    private Counter driftCounter;
+    
+    /**
+     * Current counts, with "due today" relative to {@code today}.
+     */
+    public TodoStats stats(LocalDate today) {
+        return filterIndex.stats(today).orElseGet(() -> count(today));
+    }
+    
+    /**
+     * Compares the counts of the index with a recount by the store and rebuilds the index when they
+     * differ. A round is skipped when a todo changed while recounting, since the recount may then
+     * predate or postdate the index state it is compared with.
+     *
+     * @return whether drift was found and corrected
+     */
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${todo.stats.reconcile-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public boolean reconcile() {
+        return reconcile(LocalDate.now());
+    }
+    
+    boolean reconcile(LocalDate today) {
+        long versionBefore = todoService.todosVersion();
+        Optional<TodoStats> indexed = filterIndex.stats(today);
+        if (indexed.isEmpty()) {
+            log.debug("Skipping statistics reconciliation, the filter index is not available");
+            return false;
+        }
+        TodoStats stored = count(today);
+        if (stored.equals(indexed.get())) {
+            log.debug("Todo statistics match the store");
+            return false;
+        }
+        if (todoService.todosVersion() != versionBefore || !indexed.equals(filterIndex.stats(today))) {
+            log.debug("Skipping statistics reconciliation, todos changed while recounting");
+            return false;
+        }
+        log.warn("Todo statistics drifted from the store, rebuilding the filter index: indexed {}, stored {}",
+                indexed.get(), stored);
+        drifts.incrementAndGet();
+        if (driftCounter != null) {
+            driftCounter.increment();
+        }
+        filterIndex.rebuild();
+        return true;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        driftCounter = Counter.builder(DRIFT_METER)
+                .description("Reconciliations that found the todo statistics out of line with the store")
+                .register(registry);
+    }
+    
+    long drifts() {
+        return drifts.get();
+    }
+    
+    private TodoStats count(LocalDate today) {
+        long total = todoStore.count(TodoFilter.NONE);
+        long completed = todoStore.count(TodoFilter.of(true, null, null, null));
+        return new TodoStats(total, total - completed, completed,
+                todoStore.count(TodoFilter.of(null, null, true, null)),
+                todoStore.count(TodoFilter.of(null, null, null, today)),
+                todoStore.countByCategory());
+    }
+}
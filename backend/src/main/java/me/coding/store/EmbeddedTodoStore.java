@@ -0,0 +1,659 @@
+package me.coding.store;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoCursor;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link TodoStore} without a SQL layer, for deployments that cannot run a database.
+ * <p>
+ * Todos live on the heap in columns indexed by a dense slot number: primitive arrays for ids,
+ * versions, dates and timestamps, {@link BitSet}s for the flags, and dictionary codes for categories,
+ * so a todo costs no object of its own beyond its strings. An id-to-slot {@link LongIntHashMap}
+ * serves lookups by id. The flag bit sets double as the completed and important indexes; category
+ * and due date have one bit set of slots per value. Filters are answered by intersecting bit sets.
+ * <p>
+ * Every write is appended to a {@link TodoLog} before it is applied, and a snapshot is taken every
+ * {@code todo.store.embedded.snapshot-every} operations and on shutdown, so restarts replay a short log.
+ * Reads share a lock, writes take it exclusively. Each call is atomic on its own.
+ * <p>
+ * Writes are applied immediately, so later reads of the same service transaction see them, and so do
+ * other threads. Inside a Spring transaction the store remembers the state each written todo had
+ * before; when the transaction rolls back, that state is written back (as new log entries), so the
+ * store again agrees with the indexes and caches, which only follow committed changes. A todo that
+ * another transaction wrote in the meantime is left as it is.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.store.type", havingValue = "embedded")
+@Slf4j
+@Timed(value = "todo.store", extraTags = {"engine", "embedded"}, description = "TodoStore calls by method")
+public class EmbeddedTodoStore implements TodoStore, AutoCloseable {
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_CATEGORY = -1;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TodoLog todoLog;
+    private final int snapshotEvery;
+    
+    private final LongIntHashMap slotsById = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private int[] dueDates = new int[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private long[] updatedAts = new long[INITIAL_CAPACITY];
+    private final BitSet live = new BitSet(INITIAL_CAPACITY);
+    private final BitSet completed = new BitSet(INITIAL_CAPACITY);
+    private final BitSet important = new BitSet(INITIAL_CAPACITY);
+    
+    /** category code -> name, and name -> code */
+    private final List<String> categoryNames = new ArrayList<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    
+    /** category code -> slots */
+    private final List<BitSet> slotsByCategory = new ArrayList<>();
+    
+    /** due date as epoch day -> slots */
+    private final Map<Integer, BitSet> slotsByDueDate = new HashMap<>();
+    
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int slotLimit;
+    private long nextId = 1;
+    private boolean closed;
+    
+    public EmbeddedTodoStore(@Value("${todo.store.embedded.directory:./data/todos}") String directory,
+                             @Value("${todo.store.embedded.fsync:true}") boolean fsync,
+                             @Value("${todo.store.embedded.snapshot-every:100000}") int snapshotEvery) {
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be at least 1");
+        }
+        this.snapshotEvery = snapshotEvery;
+        this.todoLog = new TodoLog(Path.of(directory), fsync);
+        
+        long start = System.nanoTime();
+        long snapshotNextId = todoLog.recover(this::replay);
+        nextId = Math.max(nextId, snapshotNextId);
+        log.info("Recovered {} todos from {} in {} ms", slotsById.size(), directory, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    @Override
+    public List<Todo> findAll() {
+        return findAll(TodoFilter.NONE);
+    }
+    
+    @Override
+    public List<Todo> findAll(TodoFilter filter) {
+        return read(() -> toTodos(select(filter, null)));
+    }
+    
+    @Override
+    public long count(TodoFilter filter) {
+        return read(() -> select(filter, null).cardinality());
+    }
+    
+    @Override
+    public Map<String, Long> countByCategory() {
+        return read(() -> {
+            Map<String, Long> counts = new TreeMap<>();
+            for (int code = 0; code < categoryNames.size(); code++) {
+                int count = slotsByCategory.get(code).cardinality();
+                if (count > 0) {
+                    counts.put(categoryNames.get(code), (long) count);
+                }
+            }
+            return counts;
+        });
+    }
+    
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return read(() -> {
+            int slot = slotOf(id);
+            return slot != LongIntHashMap.MISSING ? Optional.of(record(slot).toTodo()) : Optional.empty();
+        });
+    }
+    
+    @Override
+    public List<Todo> findAllById(Collection<Long> ids) {
+        return read(() -> toTodos(select(TodoFilter.NONE, ids)));
+    }
+    
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return read(() -> {
+            int slot = slotOf(id);
+            return slot != LongIntHashMap.MISSING ? Optional.of(versions[slot]) : Optional.empty();
+        });
+    }
+    
+    @Override
+    public List<Todo> findPage(TodoFilter filter, Collection<Long> ids, TodoCursor after, int limit) {
+        return read(() -> {
+            Comparator<Integer> order = Comparator.<Integer>comparingLong(slot -> createdAts[slot])
+                    .thenComparingLong(slot -> this.ids[slot]);
+            long afterCreatedAt = after != null ? TodoRecord.micros(after.createdAt()) : 0;
+            
+            // Keep the first `limit` slots in a bounded heap instead of sorting every match
+            PriorityQueue<Integer> page = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+            BitSet slots = select(filter, ids);
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                if (after != null && (createdAts[slot] < afterCreatedAt
+                        || (createdAts[slot] == afterCreatedAt && this.ids[slot] <= after.id()))) {
+                    continue;
+                }
+                page.add(slot);
+                if (page.size() > limit) {
+                    page.poll();
+                }
+            }
+            
+            List<Integer> ordered = new ArrayList<>(page);
+            ordered.sort(order);
+            return ordered.stream().map(slot -> record(slot).toTodo()).toList();
+        });
+    }
+    
+    @Override
+    public List<Map<String, Object>> findFields(TodoFilter filter, Collection<Long> ids, Collection<TodoField> fields) {
+        return read(() -> {
+            BitSet slots = select(filter, ids);
+            List<Map<String, Object>> rows = new ArrayList<>(slots.cardinality());
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (TodoField field : fields) {
+                    row.put(field.attribute(), value(slot, field));
+                }
+                rows.add(row);
+            }
+            return rows;
+        });
+    }
+    
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter) {
+        // Only the matching ids are copied; each todo is read when the stream reaches it
+        long[] matchingIds = read(() -> select(filter, null).stream()
+                .mapToLong(slot -> ids[slot])
+                .sorted()
+                .toArray());
+        return Arrays.stream(matchingIds)
+                .mapToObj(this::findById)
+                .flatMap(Optional::stream);
+    }
+    
+    @Override
+    public Todo save(Todo todo) {
+        saveAll(List.of(todo));
+        return todo;
+    }
+    
+    /**
+     * Writes all {@code todos} as one log entry. Like JPA, the given instances receive their id,
+     * version and timestamps. Only the written todos are returned: a todo without changes is not
+     * written and keeps its version.
+     *
+     * @throws ObjectOptimisticLockingFailureException when a todo has a version other than the
+     *         stored one, or an id that is not stored; nothing is written then
+     */
+    @Override
+    public List<Todo> saveAll(Collection<Todo> todos) {
+        return write(() -> {
+            LocalDateTime now = Todo.now();
+            long id = nextId;
+            List<Todo> saved = new ArrayList<>(todos.size());
+            List<TodoRecord> records = new ArrayList<>(todos.size());
+            for (Todo todo : todos) {
+                if (todo.getId() == null) {
+                    records.add(TodoRecord.of(todo, id++, 0, now, now));
+                    saved.add(todo);
+                    continue;
+                }
+                int slot = slotOf(todo.getId());
+                if (slot == LongIntHashMap.MISSING || (todo.getVersion() != null && todo.getVersion() != versions[slot])) {
+                    throw new ObjectOptimisticLockingFailureException(Todo.class, todo.getId());
+                }
+                TodoRecord current = record(slot);
+                TodoRecord updated = TodoRecord.of(todo, current.id(), current.version() + 1, current.createdAt(), now);
+                if (!updated.sameContent(current)) {
+                    records.add(updated);
+                    saved.add(todo);
+                }
+            }
+            
+            logAndApply(records.stream().map(TodoLog.Put::new).toList());
+            for (int i = 0; i < records.size(); i++) {
+                TodoRecord record = records.get(i);
+                Todo todo = saved.get(i);
+                todo.setId(record.id());
+                todo.setVersion(record.version());
+                todo.setCreatedAt(record.createdAt());
+                todo.setUpdatedAt(record.updatedAt());
+            }
+            snapshotIfDue();
+            return List.copyOf(saved);
+        });
+    }
+    
+    @Override
+    public int patch(Long id, TodoUpdateRequest changes) {
+        return write(() -> {
+            int slot = slotOf(id);
+            if (slot == LongIntHashMap.MISSING || (changes.getVersion() != null && changes.getVersion() != versions[slot])) {
+                return 0;
+            }
+            TodoRecord current = record(slot);
+            TodoRecord patched = current.patched(changes, current.version() + 1, Todo.now());
+            logAndApply(List.of(new TodoLog.Put(patched)));
+            snapshotIfDue();
+            return 1;
+        });
+    }
+    
+    @Override
+    public int deleteById(Long id) {
+        return write(() -> {
+            if (slotOf(id) == LongIntHashMap.MISSING) {
+                return 0;
+            }
+            logAndApply(List.of(new TodoLog.Delete(id)));
+            snapshotIfDue();
+            return 1;
+        });
+    }
+    
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        write(() -> {
+            List<TodoLog.Delete> deletes = ids.stream()
+                    .distinct()
+                    .filter(id -> slotOf(id) != LongIntHashMap.MISSING)
+                    .map(TodoLog.Delete::new)
+                    .toList();
+            logAndApply(deletes);
+            snapshotIfDue();
+            return null;
+        });
+    }
+    
+    /**
+     * Writes a snapshot of all todos and empties the log.
+     */
+    public void snapshot() {
+        write(() -> {
+            writeSnapshot();
+            return null;
+        });
+    }
+    
+    /**
+     * Takes a final snapshot, so the next start does not have to replay the log, and closes the log.
+     */
+    @Override
+    public void close() {
+        write(() -> {
+            if (closed) {
+                return null;
+            }
+            try {
+                if (todoLog.operationsSinceSnapshot() > 0) {
+                    writeSnapshot();
+                }
+                todoLog.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } finally {
+                closed = true;
+            }
+            return null;
+        });
+    }
+    
+    private void snapshotIfDue() {
+        if (todoLog.operationsSinceSnapshot() >= snapshotEvery) {
+            writeSnapshot();
+        }
+    }
+    
+    private void writeSnapshot() {
+        long start = System.nanoTime();
+        todoLog.writeSnapshot(nextId, slotsById.size(), this::records);
+        log.info("Wrote snapshot of {} todos in {} ms", slotsById.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Slots of the todos matching {@code filter}, restricted to {@code ids} unless that is null.
+     */
+    private BitSet select(TodoFilter filter, Collection<Long> ids) {
+        BitSet slots;
+        if (ids != null) {
+            slots = new BitSet();
+            for (Long id : ids) {
+                int slot = slotOf(id);
+                if (slot != LongIntHashMap.MISSING) {
+                    slots.set(slot);
+                }
+            }
+        } else {
+            slots = (BitSet) live.clone();
+        }
+        if (filter.completed() != null) {
+            restrict(slots, completed, filter.completed());
+        }
+        if (filter.important() != null) {
+            restrict(slots, important, filter.important());
+        }
+        if (filter.category() != null) {
+            Integer code = categoryCodes.get(filter.category());
+            if (code != null) {
+                slots.and(slotsByCategory.get(code));
+            } else {
+                slots.clear();
+            }
+        }
+        if (filter.dueDate() != null) {
+            BitSet due = slotsByDueDate.get(TodoRecord.epochDay(filter.dueDate()));
+            if (due != null) {
+                slots.and(due);
+            } else {
+                slots.clear();
+            }
+        }
+        return slots;
+    }
+    
+    private static void restrict(BitSet slots, BitSet flag, boolean value) {
+        if (value) {
+            slots.and(flag);
+        } else {
+            slots.andNot(flag);
+        }
+    }
+    
+    private List<Todo> toTodos(BitSet slots) {
+        List<Todo> todos = new ArrayList<>(slots.cardinality());
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            todos.add(record(slot).toTodo());
+        }
+        return todos;
+    }
+    
+    private Object value(int slot, TodoField field) {
+        return switch (field) {
+            case ID -> ids[slot];
+            case TITLE -> titles[slot];
+            case DESCRIPTION -> descriptions[slot];
+            case COMPLETED -> completed.get(slot);
+            case IMPORTANT -> important.get(slot);
+            case CATEGORY -> category(slot);
+            case DUE_DATE -> TodoRecord.date(dueDates[slot]);
+            case CREATED_AT -> TodoRecord.time(createdAts[slot]);
+            case UPDATED_AT -> TodoRecord.time(updatedAts[slot]);
+            case VERSION -> versions[slot];
+        };
+    }
+    
+    private TodoRecord record(int slot) {
+        return new TodoRecord(ids[slot], versions[slot], titles[slot], descriptions[slot],
+                completed.get(slot), important.get(slot), category(slot), TodoRecord.date(dueDates[slot]),
+                TodoRecord.time(createdAts[slot]), TodoRecord.time(updatedAts[slot]));
+    }
+    
+    private Iterator<TodoRecord> records() {
+        return live.stream().mapToObj(this::record).iterator();
+    }
+    
+    private String category(int slot) {
+        return categories[slot] != NO_CATEGORY ? categoryNames.get(categories[slot]) : null;
+    }
+    
+    private int slotOf(Long id) {
+        return id != null ? slotsById.get(id) : LongIntHashMap.MISSING;
+    }
+    
+    /**
+     * Appends {@code operations} to the log and applies them. Inside a transaction, the state of
+     * each todo before its first write there is remembered for a rollback.
+     */
+    private void logAndApply(List<? extends TodoLog.Operation> operations) {
+        Undo undo = currentUndo();
+        if (undo != null) {
+            operations.forEach(operation -> undo.remember(id(operation)));
+        }
+        todoLog.append(operations);
+        operations.forEach(this::replay);
+        if (undo != null) {
+            operations.forEach(operation -> undo.written(id(operation)));
+        }
+    }
+    
+    private void replay(TodoLog.Operation operation) {
+        switch (operation) {
+            case TodoLog.Put put -> apply(put.todo());
+            case TodoLog.Delete delete -> remove(delete.id());
+        }
+    }
+    
+    private static long id(TodoLog.Operation operation) {
+        return switch (operation) {
+            case TodoLog.Put put -> put.todo().id();
+            case TodoLog.Delete delete -> delete.id();
+        };
+    }
+    
+    private Undo currentUndo() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Undo undo && undo.store() == this) {
+                return undo;
+            }
+        }
+        Undo undo = new Undo();
+        TransactionSynchronizationManager.registerSynchronization(undo);
+        return undo;
+    }
+    
+    /**
+     * Writes back the state the todos written in a rolled-back transaction had before it, unless
+     * another transaction wrote them since.
+     */
+    private void rollBack(Undo undo) {
+        write(() -> {
+            List<TodoLog.Operation> restores = new ArrayList<>();
+            undo.previous.forEach((id, previous) -> {
+                int slot = slotOf(id);
+                Long version = slot != LongIntHashMap.MISSING ? versions[slot] : null;
+                if (!Objects.equals(version, undo.writtenVersions.get(id))) {
+                    log.warn("Not rolling back todo {}, another transaction changed it since", id);
+                } else if (previous != null) {
+                    restores.add(new TodoLog.Put(previous));
+                } else if (version != null) {
+                    restores.add(new TodoLog.Delete(id));
+                }
+            });
+            if (!restores.isEmpty()) {
+                todoLog.append(restores);
+                restores.forEach(this::replay);
+                snapshotIfDue();
+                log.debug("Rolled back {} todos", restores.size());
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * The writes of one transaction: the state of each written todo before the transaction, null when
+     * it did not exist, and the version it wrote last, null when it deleted the todo.
+     */
+    private final class Undo implements TransactionSynchronization {
+        
+        private final Map<Long, TodoRecord> previous = new LinkedHashMap<>();
+        private final Map<Long, Long> writtenVersions = new HashMap<>();
+        
+        void remember(long id) {
+            if (!previous.containsKey(id)) {
+                int slot = slotOf(id);
+                previous.put(id, slot != LongIntHashMap.MISSING ? record(slot) : null);
+            }
+        }
+        
+        void written(long id) {
+            int slot = slotOf(id);
+            writtenVersions.put(id, slot != LongIntHashMap.MISSING ? versions[slot] : null);
+        }
+        
+        EmbeddedTodoStore store() {
+            return EmbeddedTodoStore.this;
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                rollBack(this);
+            }
+        }
+    }
+    
+    private void apply(TodoRecord record) {
+        int slot = slotsById.get(record.id());
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocateSlot();
+            slotsById.put(record.id(), slot);
+            live.set(slot);
+        } else {
+            unindex(slot);
+        }
+        ids[slot] = record.id();
+        versions[slot] = record.version();
+        titles[slot] = record.title();
+        descriptions[slot] = record.description();
+        completed.set(slot, record.completed());
+        important.set(slot, record.important());
+        categories[slot] = record.category() != null ? categoryCode(record.category()) : NO_CATEGORY;
+        dueDates[slot] = TodoRecord.epochDay(record.dueDate());
+        createdAts[slot] = TodoRecord.micros(record.createdAt());
+        updatedAts[slot] = TodoRecord.micros(record.updatedAt());
+        index(slot);
+        nextId = Math.max(nextId, record.id() + 1);
+    }
+    
+    private void remove(long id) {
+        int slot = slotsById.remove(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return;
+        }
+        unindex(slot);
+        live.clear(slot);
+        completed.clear(slot);
+        important.clear(slot);
+        titles[slot] = null;
+        descriptions[slot] = null;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+    
+    private void index(int slot) {
+        if (categories[slot] != NO_CATEGORY) {
+            slotsByCategory.get(categories[slot]).set(slot);
+        }
+        if (dueDates[slot] != TodoRecord.NO_DUE_DATE) {
+            slotsByDueDate.computeIfAbsent(dueDates[slot], day -> new BitSet()).set(slot);
+        }
+    }
+    
+    private void unindex(int slot) {
+        if (categories[slot] != NO_CATEGORY) {
+            slotsByCategory.get(categories[slot]).clear(slot);
+        }
+        if (dueDates[slot] != TodoRecord.NO_DUE_DATE) {
+            BitSet due = slotsByDueDate.get(dueDates[slot]);
+            due.clear(slot);
+            if (due.isEmpty()) {
+                slotsByDueDate.remove(dueDates[slot]);
+            }
+        }
+    }
+    
+    private int categoryCode(String category) {
+        return categoryCodes.computeIfAbsent(category, name -> {
+            categoryNames.add(name);
+            slotsByCategory.add(new BitSet());
+            return categoryNames.size() - 1;
+        });
+    }
+    
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotLimit == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            dueDates = Arrays.copyOf(dueDates, capacity);
+            createdAts = Arrays.copyOf(createdAts, capacity);
+            updatedAts = Arrays.copyOf(updatedAts, capacity);
+        }
+        return slotLimit++;
+    }
+    
+    private <T> T read(Supplier<T> action) {
+        return locked(lock.readLock(), action);
+    }
+    
+    private <T> T write(Supplier<T> action) {
+        return locked(lock.writeLock(), action);
+    }
+    
+    private static <T> T locked(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
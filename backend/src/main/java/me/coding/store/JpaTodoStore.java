@@ -0,0 +1,125 @@
+package me.coding.store;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoCursor;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+import me.coding.repository.TodoRepository;
+import me.coding.repository.TodoSpecifications;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * {@link TodoStore} over the {@code todos} table, delegating to {@link TodoRepository}.
+ * Todos returned inside a transaction are managed entities, so changes to them are flushed on commit.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.store.type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@Timed(value = "todo.store", extraTags = {"engine", "jpa"}, description = "TodoStore calls by method")
+public class JpaTodoStore implements TodoStore {
+    
+    private final TodoRepository todoRepository;
+    
+    @Override
+    public List<Todo> findAll() {
+        return todoRepository.findAll();
+    }
+    
+    @Override
+    public List<Todo> findAll(TodoFilter filter) {
+        return todoRepository.findAll(TodoSpecifications.matching(filter));
+    }
+    
+    @Override
+    public long count(TodoFilter filter) {
+        return todoRepository.count(TodoSpecifications.matching(filter));
+    }
+    
+    @Override
+    public Map<String, Long> countByCategory() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : todoRepository.countPerCategory()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+    
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return todoRepository.findById(id);
+    }
+    
+    @Override
+    public List<Todo> findAllById(Collection<Long> ids) {
+        return todoRepository.findAllById(ids);
+    }
+    
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return todoRepository.findVersionById(id);
+    }
+    
+    @Override
+    public List<Todo> findPage(TodoFilter filter, Collection<Long> ids, TodoCursor after, int limit) {
+        return todoRepository.findPage(specification(filter, ids), after, limit);
+    }
+    
+    @Override
+    public List<Map<String, Object>> findFields(TodoFilter filter, Collection<Long> ids, Collection<TodoField> fields) {
+        return todoRepository.findFields(specification(filter, ids), fields).stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    fields.forEach(field -> row.put(field.attribute(), tuple.get(field.attribute())));
+                    return row;
+                })
+                .toList();
+    }
+    
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter) {
+        return todoRepository.streamAll(TodoSpecifications.matching(filter));
+    }
+    
+    @Override
+    public Todo save(Todo todo) {
+        return todoRepository.save(todo);
+    }
+    
+    @Override
+    public List<Todo> saveAll(Collection<Todo> todos) {
+        return todoRepository.saveAll(todos);
+    }
+    
+    @Override
+    public int patch(Long id, TodoUpdateRequest changes) {
+        return todoRepository.patch(id, changes);
+    }
+    
+    @Override
+    public int deleteById(Long id) {
+        return todoRepository.deleteTodoById(id);
+    }
+    
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        todoRepository.deleteAllByIdInBatch(ids);
+    }
+    
+    private static Specification<Todo> specification(TodoFilter filter, Collection<Long> ids) {
+        Specification<Todo> spec = TodoSpecifications.matching(filter);
+        return ids != null ? spec.and(TodoSpecifications.idIn(ids)) : spec;
+    }
+}
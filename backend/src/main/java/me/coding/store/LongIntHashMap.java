@@ -0,0 +1,120 @@
+package me.coding.store;
+
+/**
+ * Open-addressing map from positive {@code long} keys to {@code int} values, without boxing either.
+ * Uses linear probing with backward-shift deletion, so lookups never have to skip tombstones.
+ * Not thread-safe.
+ */
+final class LongIntHashMap {
+    
+    static final int MISSING = -1;
+    
+    private static final long EMPTY = 0L;
+    private static final int MAX_LOAD_PERCENT = 70;
+    
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 100 / MAX_LOAD_PERCENT) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * @return the value for {@code key}, or {@link #MISSING}
+     */
+    int get(long key) {
+        if (key == EMPTY) {
+            return MISSING;
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+    
+    void put(long key, int value) {
+        if (key <= EMPTY) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        if ((size + 1) * 100L > (long) keys.length * MAX_LOAD_PERCENT) {
+            resize(keys.length << 1);
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * @return the removed value, or {@link #MISSING} when {@code key} was not present
+     */
+    int remove(long key) {
+        if (key == EMPTY) {
+            return MISSING;
+        }
+        int gap = slot(key);
+        while (keys[gap] != key) {
+            if (keys[gap] == EMPTY) {
+                return MISSING;
+            }
+            gap = (gap + 1) & mask;
+        }
+        int removed = values[gap];
+        
+        // Pull later entries of the probe sequence back into the gap, unless that would move
+        // an entry in front of its home slot
+        for (int i = (gap + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+            boolean reachable = gap < i ? gap < home && home <= i : gap < home || home <= i;
+            if (!reachable) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+    
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
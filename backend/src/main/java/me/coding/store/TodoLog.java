@@ -0,0 +1,297 @@
+package me.coding.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durable state of the {@link EmbeddedTodoStore}: a snapshot of all todos plus an append-only log
+ * of the writes made since.
+ * <p>
+ * Each log entry is {@code [length][crc32][payload]} and holds all operations of one store call, so
+ * a batch is recovered completely or not at all. Recovery loads the snapshot, replays the log and
+ * cuts off a torn entry at its end, as left behind by a crash during an append: one whose header or
+ * declared payload runs past the end of the file. Any other damage fails recovery with the offset of
+ * the bad entry, rather than silently dropping it and every write logged after it. Replaying is
+ * idempotent, because every put carries the complete todo; a crash between writing a snapshot and
+ * truncating the log therefore only costs replay time.
+ * <p>
+ * Not thread-safe; the store serialises all calls.
+ */
+@Slf4j
+final class TodoLog implements Closeable {
+    
+    static final String LOG_FILE = "todos.log";
+    static final String SNAPSHOT_FILE = "todos.snapshot";
+    
+    private static final int SNAPSHOT_MAGIC = 0x54445331; // "TDS1"
+    private static final int ENTRY_HEADER_SIZE = 8;
+    private static final int MAX_ENTRY_SIZE = 64 * 1024 * 1024;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    
+    sealed interface Operation permits Put, Delete {
+    }
+    
+    record Put(TodoRecord todo) implements Operation {
+    }
+    
+    record Delete(long id) implements Operation {
+    }
+    
+    private final Path directory;
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final boolean fsync;
+    
+    private FileChannel channel;
+    private long operationsSinceSnapshot;
+    
+    TodoLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.logFile = directory.resolve(LOG_FILE);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.fsync = fsync;
+    }
+    
+    /**
+     * Hands every operation of the snapshot and the log to {@code replay} in order, then opens the
+     * log for appending.
+     *
+     * @return the next free id recorded in the snapshot, 1 without a snapshot
+     */
+    long recover(Consumer<Operation> replay) {
+        try {
+            Files.createDirectories(directory);
+            long nextId = readSnapshot(replay);
+            long validLength = replayLog(replay);
+            channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() > validLength) {
+                log.warn("Discarding {} bytes of an incomplete entry at the end of {}", channel.size() - validLength, logFile);
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+            return nextId;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not recover todos from " + directory, ex);
+        }
+    }
+    
+    long operationsSinceSnapshot() {
+        return operationsSinceSnapshot;
+    }
+    
+    /**
+     * Appends {@code operations} as one entry. When {@code todo.store.embedded.fsync} is on, the
+     * entry is on disk once this method returns.
+     */
+    void append(List<? extends Operation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        ByteBuffer entry = encode(operations);
+        long start = -1;
+        try {
+            start = channel.position();
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            operationsSinceSnapshot += operations.size();
+        } catch (IOException ex) {
+            // Never leave half an entry in front of the next one, recovery would stop there
+            discardFrom(start);
+            throw new UncheckedIOException("Could not append to " + logFile, ex);
+        }
+    }
+    
+    /**
+     * Replaces the snapshot with {@code todos} and empties the log. The new snapshot is written to a
+     * temporary file and renamed into place, so a crash leaves either the old or the new one.
+     */
+    void writeSnapshot(long nextId, int count, Iterable<TodoRecord> todos) {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        CRC32 crc = new CRC32();
+        try {
+            try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                 DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(nextId);
+                out.writeInt(count);
+                for (TodoRecord todo : todos) {
+                    todo.writeTo(out);
+                }
+                out.writeLong(crc.getValue());
+                out.flush();
+                file.getChannel().force(true);
+            }
+            Files.move(temporary, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel.truncate(0);
+            channel.force(true);
+            operationsSinceSnapshot = 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write snapshot " + snapshotFile, ex);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    private long readSnapshot(Consumer<Operation> replay) throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return 1;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile)), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("Not a todo snapshot: " + snapshotFile);
+            }
+            long nextId = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                replay.accept(new Put(TodoRecord.readFrom(in)));
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IllegalStateException("Corrupt todo snapshot: " + snapshotFile);
+            }
+            log.debug("Loaded {} todos from {}", count, snapshotFile);
+            return nextId;
+        }
+    }
+    
+    /**
+     * @return the length of the log up to the end of its last complete entry
+     * @throws IllegalStateException when an entry other than a torn one at the end is damaged
+     */
+    private long replayLog(Consumer<Operation> replay) throws IOException {
+        if (!Files.exists(logFile)) {
+            return 0;
+        }
+        long size = Files.size(logFile);
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+            while (size - offset >= ENTRY_HEADER_SIZE) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0) {
+                    throw corrupt(offset, "negative length " + length);
+                }
+                if (offset + ENTRY_HEADER_SIZE + length > size) {
+                    break;
+                }
+                if (length > MAX_ENTRY_SIZE) {
+                    throw corrupt(offset, "length " + length + " exceeds " + MAX_ENTRY_SIZE);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    throw corrupt(offset, "checksum mismatch");
+                }
+                List<Operation> operations;
+                try {
+                    operations = decode(payload);
+                } catch (IOException ex) {
+                    throw corrupt(offset, "unreadable payload");
+                }
+                operations.forEach(replay);
+                operationsSinceSnapshot += operations.size();
+                offset += ENTRY_HEADER_SIZE + length;
+            }
+        }
+        log.debug("Replayed {} operations from {}", operationsSinceSnapshot, logFile);
+        return offset;
+    }
+    
+    private IllegalStateException corrupt(long offset, String reason) {
+        return new IllegalStateException("Corrupt todo log entry at offset " + offset + " of " + logFile + ": " + reason);
+    }
+    
+    private static ByteBuffer encode(List<? extends Operation> operations) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // Header placeholder, filled in once the payload is known
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(operations.size());
+            for (Operation operation : operations) {
+                switch (operation) {
+                    case Put put -> {
+                        out.writeByte(PUT);
+                        put.todo().writeTo(out);
+                    }
+                    case Delete delete -> {
+                        out.writeByte(DELETE);
+                        out.writeLong(delete.id());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ByteBuffer entry = ByteBuffer.wrap(bytes.toByteArray());
+        int length = entry.remaining() - ENTRY_HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(entry.array(), ENTRY_HEADER_SIZE, length);
+        entry.putInt(0, length);
+        entry.putInt(4, (int) crc.getValue());
+        return entry;
+    }
+    
+    private static List<Operation> decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        List<Operation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            switch (type) {
+                case PUT -> operations.add(new Put(TodoRecord.readFrom(in)));
+                case DELETE -> operations.add(new Delete(in.readLong()));
+                default -> throw new IOException("Unknown log operation " + type);
+            }
+        }
+        return operations;
+    }
+    
+    private void discardFrom(long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException ex) {
+            log.error("Could not discard incomplete entry at {} of {}", position, logFile, ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package me.coding.store;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Immutable state of one stored todo, and its binary form in the {@link TodoLog} and snapshots.
+ * Timestamps are kept as microseconds since the epoch, the precision of the SQL store.
+ */
+record TodoRecord(long id, long version, String title, String description, boolean completed, boolean important,
+                  String category, LocalDate dueDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    
+    static final int NO_DUE_DATE = Integer.MIN_VALUE;
+    static final long NO_TIME = Long.MIN_VALUE;
+    
+    TodoRecord {
+        if (title == null) {
+            throw new IllegalArgumentException("Title is required");
+        }
+    }
+    
+    static TodoRecord of(Todo todo, long id, long version, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new TodoRecord(id, version, todo.getTitle(), todo.getDescription(),
+                Boolean.TRUE.equals(todo.getCompleted()), Boolean.TRUE.equals(todo.getImportant()),
+                todo.getCategory(), todo.getDueDate(), createdAt, updatedAt);
+    }
+    
+    /**
+     * Applies the fields {@code changes} reports as present, like the SQL store's single-statement patch.
+     */
+    TodoRecord patched(TodoUpdateRequest changes, long newVersion, LocalDateTime newUpdatedAt) {
+        return new TodoRecord(id, newVersion,
+                changes.hasTitle() ? changes.getTitle() : title,
+                changes.hasDescription() ? changes.getDescription() : description,
+                changes.hasCompleted() ? changes.getCompleted() : completed,
+                changes.hasImportant() ? changes.getImportant() : important,
+                changes.hasCategory() ? changes.getCategory() : category,
+                changes.hasDueDate() ? changes.getDueDate() : dueDate,
+                createdAt, newUpdatedAt);
+    }
+    
+    /**
+     * Whether both records hold the same user-visible fields, ignoring version and timestamps.
+     * Saving such a todo is a no-op, as it is for a clean JPA entity.
+     */
+    boolean sameContent(TodoRecord other) {
+        return title.equals(other.title)
+                && Objects.equals(description, other.description)
+                && completed == other.completed
+                && important == other.important
+                && Objects.equals(category, other.category)
+                && Objects.equals(dueDate, other.dueDate);
+    }
+    
+    Todo toTodo() {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        todo.setDescription(description);
+        todo.setCompleted(completed);
+        todo.setImportant(important);
+        todo.setCategory(category);
+        todo.setDueDate(dueDate);
+        todo.setCreatedAt(createdAt);
+        todo.setUpdatedAt(updatedAt);
+        todo.setVersion(version);
+        return todo;
+    }
+    
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeLong(version);
+        out.writeUTF(title);
+        writeNullable(out, description);
+        out.writeBoolean(completed);
+        out.writeBoolean(important);
+        writeNullable(out, category);
+        out.writeInt(epochDay(dueDate));
+        out.writeLong(micros(createdAt));
+        out.writeLong(micros(updatedAt));
+    }
+    
+    static TodoRecord readFrom(DataInput in) throws IOException {
+        return new TodoRecord(in.readLong(), in.readLong(), in.readUTF(), readNullable(in),
+                in.readBoolean(), in.readBoolean(), readNullable(in),
+                date(in.readInt()), time(in.readLong()), time(in.readLong()));
+    }
+    
+    static int epochDay(LocalDate date) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : NO_DUE_DATE;
+    }
+    
+    static LocalDate date(int epochDay) {
+        return epochDay != NO_DUE_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+    
+    static long micros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+    
+    static LocalDateTime time(long micros) {
+        if (micros == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+    
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,98 @@
+package me.coding.store;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoCursor;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage for todos as seen by {@link me.coding.service.TodoService}. {@code todo.store.type} picks
+ * the implementation: {@link JpaTodoStore} over the SQL database (the default), or
+ * {@link EmbeddedTodoStore}, which keeps todos in memory and makes writes durable through its own log.
+ * <p>
+ * Every implementation assigns ids and timestamps on insert, increments {@link Todo#getVersion()}
+ * on every write and rejects a {@link #save(Todo) save} of a stale version with an
+ * {@link org.springframework.dao.OptimisticLockingFailureException}.
+ * <p>
+ * The {@code ids} parameters restrict a query to the given ids in addition to the filter;
+ * {@code null} means no restriction.
+ */
+public interface TodoStore {
+    
+    List<Todo> findAll();
+    
+    List<Todo> findAll(TodoFilter filter);
+    
+    long count(TodoFilter filter);
+    
+    /**
+     * Returns the number of todos per category, for every category with at least one todo. Todos
+     * without a category are not counted.
+     */
+    Map<String, Long> countByCategory();
+    
+    Optional<Todo> findById(Long id);
+    
+    /**
+     * Returns the existing todos among {@code ids}, in no particular order.
+     */
+    List<Todo> findAllById(Collection<Long> ids);
+    
+    Optional<Long> findVersionById(Long id);
+    
+    /**
+     * Returns at most {@code limit} todos matching {@code filter}, ordered by {@code (createdAt, id)}
+     * and starting strictly after {@code after} (or from the beginning when {@code after} is null).
+     */
+    List<Todo> findPage(TodoFilter filter, Collection<Long> ids, TodoCursor after, int limit);
+    
+    /**
+     * Reads only {@code fields} of the todos matching {@code filter}, one map per todo keyed by
+     * {@link TodoField#attribute()}.
+     */
+    List<Map<String, Object>> findFields(TodoFilter filter, Collection<Long> ids, Collection<TodoField> fields);
+    
+    /**
+     * Streams all todos matching {@code filter} in id order without holding them all in memory.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<Todo> streamAll(TodoFilter filter);
+    
+    /**
+     * Inserts {@code todo} when it has no id, otherwise replaces the stored todo with the same id.
+     *
+     * @return the stored todo, which may be a different instance than {@code todo}
+     */
+    Todo save(Todo todo);
+    
+    /**
+     * Saves each of {@code todos} like {@link #save(Todo)}.
+     *
+     * @return the stored todos; a store that skips todos without changes, like the embedded one,
+     *         leaves them out
+     */
+    List<Todo> saveAll(Collection<Todo> todos);
+    
+    /**
+     * Writes the fields {@code changes} reports as present, plus {@code updatedAt}, to the todo with
+     * {@code id} and increments its version. When {@code changes} carries a version, the todo is only
+     * updated while it still has that version.
+     *
+     * @return the number of updated todos, 0 when no todo has that id (and version)
+     */
+    int patch(Long id, TodoUpdateRequest changes);
+    
+    /**
+     * @return the number of deleted todos, 0 when no todo has that id
+     */
+    int deleteById(Long id);
+    
+    void deleteAllById(Collection<Long> ids);
+}
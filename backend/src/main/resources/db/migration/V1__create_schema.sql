@@ -0,0 +1,19 @@
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50)  NOT NULL,
+    description VARCHAR(200),
+    created_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE todos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    completed   BOOLEAN      NOT NULL,
+    important   BOOLEAN      NOT NULL,
+    category    VARCHAR(50),
+    due_date    DATE,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
@@ -0,0 +1,18 @@
+-- Composite indexes for the filter combinations TodoService issues.
+-- Leading columns follow the order in which TodoSpecifications appends predicates
+-- (due_date, important, category, completed), so every non-empty filter set has an index prefix.
+
+-- dueDate filters, findTodaysTodos and findTodaysTodosByCompleted
+CREATE INDEX idx_todos_due_date_completed ON todos (due_date, completed);
+
+-- important filters, optionally narrowed by category and completed
+CREATE INDEX idx_todos_important_category_completed ON todos (important, category, completed);
+
+-- category filters, optionally narrowed by completed
+CREATE INDEX idx_todos_category_completed ON todos (category, completed);
+
+-- completed-only filters, including findByCompletedOrderByCreatedAtDesc
+CREATE INDEX idx_todos_completed_created_at ON todos (completed, created_at);
+
+-- keyset pagination over (created_at, id)
+CREATE INDEX idx_todos_created_at_id ON todos (created_at, id);
@@ -0,0 +1,5 @@
+-- Todo ids come from a sequence so Hibernate can pre-allocate them (pooled optimizer, 50 per call)
+-- and batch inserts; IDENTITY columns force one round trip per inserted row.
+CREATE SEQUENCE todos_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE todos ALTER COLUMN id DROP IDENTITY;
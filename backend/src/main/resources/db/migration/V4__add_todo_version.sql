@@ -0,0 +1,3 @@
+-- Optimistic locking: every write increments the version, and writes that expect a version
+-- (If-Match, or the version field of PUT and PATCH bodies) only apply while it is unchanged.
+ALTER TABLE todos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,124 @@
+package me.coding.benchmark;
+
+import me.coding.TodoApiApplication;
+import me.coding.model.Todo;
+import me.coding.search.TodoFilterIndex;
+import me.coding.search.TodoSearchIndex;
+import me.coding.store.TodoStore;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the application without a web server against a private in-memory database seeded with
+ * {@code rows} todos, so every benchmark trial sees the same data.
+ * <p>
+ * Row {@code n} (1-based) is generated as follows:
+ * <ul>
+ *   <li>title: one of "Buy groceries", "Finish project report", "Weekly team meeting" or "Call the dentist", followed by {@code n}</li>
+ *   <li>category: Work, Personal, Shopping or Health (Work and Personal twice as often)</li>
+ *   <li>completed when {@code n % 3 == 0}, important when {@code n % 5 == 0}</li>
+ *   <li>due date: today plus {@code n % 30} days</li>
+ * </ul>
+ */
+final class BenchmarkDataset {
+
+    /** Filter values that match a known share of the seeded rows */
+    static final Boolean COMPLETED = Boolean.FALSE;
+    static final String CATEGORY = "Work";
+    static final Boolean IMPORTANT = Boolean.TRUE;
+    static final int DUE_IN_DAYS = 5;
+
+    private static final int COPY_CHUNK_SIZE = 10_000;
+
+    private BenchmarkDataset() {
+    }
+
+    static ConfigurableApplicationContext start(String name, int rows, String... extraArgs) {
+        ConfigurableApplicationContext context = run(name, extraArgs);
+        seed(context, rows);
+        rebuildIndexes(context);
+        return context;
+    }
+
+    /**
+     * Like {@link #start}, but on the embedded store in {@code directory}. The rows are generated in the
+     * database as above and then copied into the store in id order, so both engines hold the same todos.
+     * Timestamps are assigned by the store on insert.
+     */
+    static ConfigurableApplicationContext startEmbedded(String name, int rows, Path directory, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--todo.store.type=embedded",
+                "--todo.store.embedded.directory=" + directory));
+        args.addAll(Arrays.asList(extraArgs));
+        ConfigurableApplicationContext context = run(name, args.toArray(String[]::new));
+        seed(context, rows);
+        
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TodoStore todoStore = context.getBean(TodoStore.class);
+        List<Todo> chunk = new ArrayList<>(COPY_CHUNK_SIZE);
+        jdbcTemplate.query("SELECT title, description, completed, important, category, due_date FROM todos ORDER BY id", row -> {
+            Todo todo = new Todo(row.getString(1), row.getString(2), row.getString(5), row.getBoolean(4),
+                    row.getObject(6, LocalDate.class));
+            todo.setCompleted(row.getBoolean(3));
+            chunk.add(todo);
+            if (chunk.size() == COPY_CHUNK_SIZE) {
+                todoStore.saveAll(chunk);
+                chunk.clear();
+            }
+        });
+        todoStore.saveAll(chunk);
+        jdbcTemplate.update("DELETE FROM todos");
+        
+        rebuildIndexes(context);
+        return context;
+    }
+
+    /**
+     * The indexes were built on startup, before the rows existed.
+     */
+    private static void rebuildIndexes(ConfigurableApplicationContext context) {
+        context.getBean(TodoSearchIndex.class).rebuild();
+        context.getBean(TodoFilterIndex.class).rebuild();
+    }
+
+    private static ConfigurableApplicationContext run(String name, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";QUERY_CACHE_SIZE=32",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int rows) {
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq,
+                       CASE MOD(X, 4) WHEN 0 THEN 'Buy groceries ' WHEN 1 THEN 'Finish project report '
+                                      WHEN 2 THEN 'Weekly team meeting ' ELSE 'Call the dentist ' END || X,
+                       'Generated todo number ' || X,
+                       MOD(X, 3) = 0,
+                       MOD(X, 5) = 0,
+                       CASE MOD(X, 6) WHEN 0 THEN 'Work' WHEN 1 THEN 'Work' WHEN 2 THEN 'Personal'
+                                      WHEN 3 THEN 'Personal' WHEN 4 THEN 'Shopping' ELSE 'Health' END,
+                       DATEADD('DAY', MOD(X, 30), CURRENT_DATE),
+                       DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'),
+                       DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00')
+                FROM SYSTEM_RANGE(1, ?)
+                """, rows);
+    }
+
+    static LocalDate dueDate() {
+        return LocalDate.now().plusDays(DUE_IN_DAYS);
+    }
+}
@@ -0,0 +1,87 @@
+package me.coding.benchmark;
+
+import me.coding.TodoApiApplication;
+import me.coding.model.Category;
+import me.coding.repository.CategoryRepository;
+import me.coding.service.CategoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares category reads against the repository with the in-memory snapshot in
+ * {@link CategoryService}. Runs with several threads to show that snapshot reads do not contend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CategoryLookupBenchmark {
+
+    @Param({"20"})
+    public int categories;
+
+    private ConfigurableApplicationContext context;
+    private CategoryRepository categoryRepository;
+    private CategoryService categoryService;
+    private String existingName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:category-bench",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        categoryRepository = context.getBean(CategoryRepository.class);
+        categoryService = context.getBean(CategoryService.class);
+
+        for (int i = 0; i < categories; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            categoryService.createCategory(category);
+        }
+        existingName = "Category " + (categories / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean repositoryExistsByName() {
+        return categoryRepository.existsByName(existingName);
+    }
+
+    @Benchmark
+    public boolean snapshotExistsByName() {
+        return categoryService.existsByName(existingName);
+    }
+
+    @Benchmark
+    public List<Category> repositoryFindAll() {
+        return categoryRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Category> snapshotFindAll() {
+        return categoryService.findAllCategories();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CategoryLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,159 @@
+package me.coding.benchmark;
+
+import me.coding.TodoApiApplication;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.repository.TodoRepository;
+import me.coding.repository.TodoSpecifications;
+import me.coding.search.TodoFilterIndex;
+import me.coding.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former derived-query branching of {@code TodoService.findTodos} with the
+ * specification path and with the bitmap filter index plus fetching by id, for every combination
+ * of the four filters; and counting with a query against counting from the index.
+ * <p>
+ * {@code filterMask} bits: 1 = completed, 2 = category, 4 = important, 8 = dueDate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindTodosBenchmark {
+
+    private static final String[] CATEGORIES = {"Work", "Personal", "Shopping", "Health"};
+
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    public int filterMask;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private TodoFilterIndex filterIndex;
+    private TodoFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:findtodos-bench;QUERY_CACHE_SIZE=32",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        todoRepository = context.getBean(TodoRepository.class);
+
+        LocalDate today = LocalDate.now();
+        List<Todo> todos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Todo todo = new Todo("Todo " + i, "Benchmark todo " + i,
+                    CATEGORIES[i % CATEGORIES.length], i % 5 == 0, today.plusDays(i % 30));
+            todo.setCompleted(i % 3 == 0);
+            todos.add(todo);
+        }
+        todoRepository.saveAll(todos);
+        // The index was built on startup, before the rows existed
+        filterIndex = context.getBean(TodoFilterIndex.class);
+        filterIndex.rebuild();
+
+        filter = TodoFilter.of(
+                (filterMask & 1) != 0 ? Boolean.FALSE : null,
+                (filterMask & 2) != 0 ? "Work" : null,
+                (filterMask & 4) != 0 ? Boolean.TRUE : null,
+                (filterMask & 8) != 0 ? today.plusDays(5) : null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Todo> specification() {
+        return todoRepository.findAll(TodoSpecifications.matching(filter));
+    }
+
+    /** What {@code TodoService} does for a filter without a cached result */
+    @Benchmark
+    public List<Todo> filterIndex() {
+        List<Long> ids = filterIndex.findIds(filter).orElseThrow();
+        List<Todo> todos = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += TodoService.MAX_BATCH_SIZE) {
+            todos.addAll(todoRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + TodoService.MAX_BATCH_SIZE))));
+        }
+        return todos;
+    }
+
+    @Benchmark
+    public long countSpecification() {
+        return todoRepository.count(TodoSpecifications.matching(filter));
+    }
+
+    @Benchmark
+    public long countFilterIndex() {
+        return filterIndex.count(filter).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Todo> derivedQueries() {
+        Boolean completed = filter.completed();
+        String category = filter.category();
+        Boolean important = filter.important();
+        LocalDate dueDate = filter.dueDate();
+
+        if (dueDate != null) {
+            if (important != null && category != null && completed != null) {
+                return todoRepository.findByDueDateAndImportantAndCategoryAndCompleted(dueDate, important, category, completed);
+            } else if (important != null && category != null) {
+                return todoRepository.findByDueDateAndImportantAndCategory(dueDate, important, category);
+            } else if (category != null && completed != null) {
+                return todoRepository.findByDueDateAndCategoryAndCompleted(dueDate, category, completed);
+            } else if (important != null && completed != null) {
+                return todoRepository.findByDueDateAndImportantAndCompleted(dueDate, important, completed);
+            } else if (important != null) {
+                return todoRepository.findByDueDateAndImportant(dueDate, important);
+            } else if (category != null) {
+                return todoRepository.findByDueDateAndCategory(dueDate, category);
+            } else if (completed != null) {
+                return todoRepository.findByDueDateAndCompleted(dueDate, completed);
+            }
+            return todoRepository.findByDueDate(dueDate);
+        }
+        if (important != null && category != null && completed != null) {
+            return todoRepository.findByImportantAndCategoryAndCompleted(important, category, completed);
+        } else if (important != null && category != null) {
+            return todoRepository.findByImportantAndCategory(important, category);
+        } else if (important != null && completed != null) {
+            return todoRepository.findByImportantAndCompleted(important, completed);
+        } else if (category != null && completed != null) {
+            return todoRepository.findByCategoryAndCompleted(category, completed);
+        } else if (important != null) {
+            return todoRepository.findByImportant(important);
+        } else if (category != null) {
+            return todoRepository.findByCategory(category);
+        } else if (completed != null) {
+            return todoRepository.findByCompleted(completed);
+        }
+        return todoRepository.findAll();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FindTodosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package me.coding.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost per request, without the request itself. {@code perCall} logs what a PATCH used to
+ * log: two INFO lines in TodoController and one in TodoService. {@code perRequest} logs what
+ * RequestLogFilter logs for a request: one line for a {@code sampleRate} share of requests.
+ * <p>
+ * Each is run against a synchronous file appender and against the file appender behind the
+ * AsyncAppender of the prod profile (logback-spring.xml), with the same queue settings. Under
+ * sustained overload the async appender drops INFO events instead of stalling callers, which is the
+ * behaviour being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    @Param({"0.01"})
+    public double sampleRate;
+
+    private LoggerContext loggerContext;
+    private Path logFile;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Logger requestLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("request-logging-benchmark", ".log");
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(loggerContext);
+        file.setFile(logFile.toString());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> root = file;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1024);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            root = async;
+        }
+        Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        rootLogger.addAppender(root);
+
+        controllerLog = loggerContext.getLogger("me.coding.controller.TodoController");
+        serviceLog = loggerContext.getLogger("me.coding.service.TodoService");
+        requestLog = loggerContext.getLogger("me.coding.requests");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public long perCall() {
+        long id = ThreadLocalRandom.current().nextLong(1, 100_000);
+        controllerLog.info("Patching todo with id: {}", id);
+        serviceLog.info("Successfully patched todo with id: {}", id);
+        controllerLog.info("Successfully patched todo with id: {}", id);
+        return id;
+    }
+
+    @Benchmark
+    public long perRequest() {
+        long id = ThreadLocalRandom.current().nextLong(1, 100_000);
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate && requestLog.isInfoEnabled()) {
+            requestLog.info("request method={} uri={} status={} durationMs={} reason={}",
+                    "PATCH", "/api/v1/todos/" + id, 200, 3, "sampled");
+        }
+        return id;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestLoggingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
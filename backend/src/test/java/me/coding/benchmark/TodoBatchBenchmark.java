@@ -0,0 +1,101 @@
+package me.coding.benchmark;
+
+import me.coding.TodoApiApplication;
+import me.coding.dto.BatchResponse;
+import me.coding.model.Todo;
+import me.coding.repository.TodoRepository;
+import me.coding.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating todos one {@code createTodo} call at a time (one transaction and one INSERT
+ * round trip per todo) with {@code createTodos}, which inserts the whole batch in one transaction
+ * using pre-allocated sequence ids and JDBC batching.
+ * <p>
+ * Scores are todos per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoBatchBenchmark {
+
+    private static final String[] CATEGORIES = {"Work", "Personal", "Shopping", "Health"};
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private TodoRepository todoRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:batch-bench",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        todoService = context.getBean(TodoService.class);
+        todoRepository = context.getBean(TodoRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTodos() {
+        todoRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void singleItem(Blackhole blackhole) {
+        // Scores must stay comparable across batchSize params, so always create 1000 todos
+        for (Todo todo : newTodos(1000)) {
+            blackhole.consume(todoService.createTodo(todo));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void batch(Blackhole blackhole) {
+        List<Todo> todos = newTodos(1000);
+        for (int from = 0; from < todos.size(); from += batchSize) {
+            BatchResponse response = todoService.createTodos(todos.subList(from, Math.min(from + batchSize, todos.size())));
+            blackhole.consume(response);
+        }
+    }
+
+    private static List<Todo> newTodos(int count) {
+        LocalDate today = LocalDate.now();
+        List<Todo> todos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            todos.add(new Todo("Todo " + i, "Benchmark todo " + i,
+                    CATEGORIES[i % CATEGORIES.length], i % 5 == 0, today.plusDays(i % 30)));
+        }
+        return todos;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodoBatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
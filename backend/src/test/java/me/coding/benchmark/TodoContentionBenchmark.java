@@ -0,0 +1,123 @@
+package me.coding.benchmark;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.exception.VersionConflictException;
+import me.coding.model.Todo;
+import me.coding.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoService#patchTodo(Long, TodoUpdateRequest)} with {@value #WRITERS} writers sharing
+ * {@code hotTodos} todos.
+ * <p>
+ * The versioned benchmarks behave like a client: they read the todo, then patch it against the
+ * version they read. The {@code applied} and {@code conflicts} counters split the throughput into
+ * patches that were written and patches rejected with a {@link VersionConflictException}.
+ * {@code unversionedFlagPatch} is the last-writer-wins baseline and ignores {@code flagPatchRetries}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(TodoContentionBenchmark.WRITERS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class TodoContentionBenchmark {
+
+    static final int WRITERS = 8;
+    static final int ROWS = 1000;
+
+    /** Number of todos the writers share; 1 puts every writer on the same row */
+    @Param({"1", "16"})
+    public int hotTodos;
+
+    /** Value of {@code todo.concurrency.flag-patch-retries} */
+    @Param({"0", "3"})
+    public int flagPatchRetries;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start("contention-bench", ROWS,
+                "--todo.concurrency.flag-patch-retries=" + flagPatchRetries);
+        todoService = context.getBean(TodoService.class);
+        List<Long> hot = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM todos ORDER BY id LIMIT ?", Long.class, hotTodos);
+        ids = hot.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long applied;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            applied = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public void unversionedFlagPatch(Outcomes outcomes) {
+        TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+        updateRequest.setCompleted(ThreadLocalRandom.current().nextBoolean());
+        todoService.patchTodo(hotId(), updateRequest);
+        outcomes.applied++;
+    }
+
+    @Benchmark
+    public void versionedFlagPatch(Outcomes outcomes) {
+        TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+        updateRequest.setCompleted(ThreadLocalRandom.current().nextBoolean());
+        patchVersioned(updateRequest, outcomes);
+    }
+
+    @Benchmark
+    public void versionedTitlePatch(Outcomes outcomes) {
+        TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+        updateRequest.setTitle("Renamed by writer " + Thread.currentThread().threadId());
+        patchVersioned(updateRequest, outcomes);
+    }
+
+    private void patchVersioned(TodoUpdateRequest updateRequest, Outcomes outcomes) {
+        Long id = hotId();
+        Todo current = todoService.findTodoById(id).orElseThrow();
+        updateRequest.setVersion(current.getVersion());
+        try {
+            todoService.patchTodo(id, updateRequest);
+            outcomes.applied++;
+        } catch (VersionConflictException ex) {
+            outcomes.conflicts++;
+        }
+    }
+
+    private Long hotId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodoContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
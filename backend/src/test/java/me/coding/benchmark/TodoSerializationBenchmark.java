@@ -0,0 +1,81 @@
+package me.coding.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import me.coding.json.TodoJsonSerializer;
+import me.coding.model.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of todo lists as the list endpoint writes them, for a default page,
+ * the largest page and unpaged 10k- and 100k-row results. No database is involved.
+ * <p>
+ * {@code serializer=default} is Jackson's bean serialization with the {@code @JsonFormat} patterns of
+ * {@link Todo}; {@code serializer=custom} adds {@link TodoJsonSerializer}, as the application does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class TodoSerializationBenchmark {
+
+    private static final String[] CATEGORIES = {"Work", "Personal", "Shopping", "Health"};
+
+    @Param({"50", "500", "10000", "100000"})
+    public int size;
+
+    @Param({"default", "custom"})
+    public String serializer;
+
+    private ObjectWriter writer;
+    private List<Todo> todos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same settings Spring Boot applies to the application's ObjectMapper
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("custom".equals(serializer)) {
+            builder.serializers(new TodoJsonSerializer());
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Todo.class));
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Todo todo = new Todo("Todo " + i, "Benchmark todo number " + i,
+                    CATEGORIES[i % CATEGORIES.length], i % 5 == 0, today.plusDays(i % 30));
+            todo.setId((long) i + 1);
+            todo.setCompleted(i % 3 == 0);
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+            todos.add(todo);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeTodoList() throws Exception {
+        return writer.writeValueAsBytes(todos);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodoSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
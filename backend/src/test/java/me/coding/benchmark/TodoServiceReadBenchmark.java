@@ -0,0 +1,66 @@
+package me.coding.benchmark;
+
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoService#findTodos(TodoFilter)} for every filter combination, against the seeded datasets.
+ * The filter result cache is disabled, so every call reaches the database.
+ * <p>
+ * {@code filterMask} bits: 1 = completed, 2 = category, 4 = important, 8 = dueDate.
+ * Without filters the whole table is materialised, which at 1M rows is what the unpaged list endpoint costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class TodoServiceReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    public int filterMask;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private TodoFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start("service-read-bench", rows, "--todo.cache.filters.maximum-size=0");
+        todoService = context.getBean(TodoService.class);
+        filter = TodoFilter.of(
+                (filterMask & 1) != 0 ? BenchmarkDataset.COMPLETED : null,
+                (filterMask & 2) != 0 ? BenchmarkDataset.CATEGORY : null,
+                (filterMask & 4) != 0 ? BenchmarkDataset.IMPORTANT : null,
+                (filterMask & 8) != 0 ? BenchmarkDataset.dueDate() : null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Todo> findTodos() {
+        return todoService.findTodos(filter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodoServiceReadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
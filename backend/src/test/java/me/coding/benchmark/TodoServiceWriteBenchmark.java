@@ -0,0 +1,69 @@
+package me.coding.benchmark;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoService#createTodo(Todo)} and {@link TodoService#patchTodo(Long, TodoUpdateRequest)}
+ * against the seeded datasets. Both include the after-commit work of the search index and the cache.
+ * Patches toggle the completed flag of a random existing todo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class TodoServiceWriteBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start("service-write-bench", rows);
+        todoService = context.getBean(TodoService.class);
+        List<Long> existing = context.getBean(JdbcTemplate.class).queryForList("SELECT id FROM todos", Long.class);
+        ids = existing.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Todo createTodo() {
+        return todoService.createTodo(new Todo("Benchmark todo", "Created by the write benchmark", "Work", false));
+    }
+
+    @Benchmark
+    public Optional<Todo> patchTodo() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+        updateRequest.setCompleted(random.nextBoolean());
+        return todoService.patchTodo(ids[random.nextInt(ids.length)], updateRequest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodoServiceWriteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package me.coding.benchmark;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.store.TodoStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two {@link TodoStore} engines on the same seeded todos, called directly rather than through
+ * the service so caches and events do not hide the difference.
+ * <p>
+ * {@code store}: {@code jpa} is the in-memory H2 database, {@code embedded} the embedded engine with
+ * {@code todo.store.embedded.fsync=false} (as durable as H2 in memory, i.e. not at all), and
+ * {@code embedded-fsync} the embedded engine forcing every log append to disk, which is what
+ * {@code patch} costs in a durable deployment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class TodoStoreBenchmark {
+
+    @Param({"jpa", "embedded", "embedded-fsync"})
+    public String store;
+
+    @Param({"100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoStore todoStore;
+    private Path directory;
+    private TodoFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (store.equals("jpa")) {
+            context = BenchmarkDataset.start("store-bench", rows);
+        } else {
+            directory = Files.createTempDirectory("todo-store-bench");
+            context = BenchmarkDataset.startEmbedded("store-bench", rows, directory,
+                    "--todo.store.embedded.fsync=" + store.equals("embedded-fsync"));
+        }
+        todoStore = context.getBean(TodoStore.class);
+        filter = TodoFilter.of(BenchmarkDataset.COMPLETED, BenchmarkDataset.CATEGORY, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public Optional<Todo> findById() {
+        return todoStore.findById(randomId());
+    }
+
+    /** Roughly a fifth of all rows: not completed and in the Work category */
+    @Benchmark
+    public List<Todo> findByFilter() {
+        return todoStore.findAll(filter);
+    }
+
+    @Benchmark
+    public List<Todo> findFirstPage() {
+        return todoStore.findPage(filter, null, null, 50);
+    }
+
+    @Benchmark
+    public int patchFlag() {
+        TodoUpdateRequest changes = new TodoUpdateRequest();
+        changes.setImportant(ThreadLocalRandom.current().nextBoolean());
+        return todoStore.patch(randomId(), changes);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodoStoreBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,121 @@
+package me.coding.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import me.coding.json.ProtobufCodec;
+import me.coding.json.TodoJsonSerializer;
+import me.coding.model.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a todo list in each wire format the v1 endpoints negotiate, with the mappers
+ * configured as the application configures them. The payload size of each format is printed once per
+ * trial, so one run compares bytes on the wire as well as CPU time.
+ * <p>
+ * {@code protobuf} writes length-delimited messages, as the list endpoint does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class WireFormatBenchmark {
+
+    private static final String[] CATEGORIES = {"Work", "Personal", "Shopping", "Health"};
+
+    @Param({"50", "500", "10000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    private List<Todo> todos;
+    private byte[] payload;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ProtobufCodec protobufCodec;
+    private JavaType todoType;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Todo todo = new Todo("Todo " + i, "Benchmark todo number " + i,
+                    CATEGORIES[i % CATEGORIES.length], i % 5 == 0, today.plusDays(i % 30));
+            todo.setId((long) i + 1);
+            todo.setCompleted(i % 3 == 0);
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+            todo.setVersion(0L);
+            todos.add(todo);
+        }
+
+        if ("protobuf".equals(format)) {
+            protobufCodec = new ProtobufCodec();
+            todoType = protobufCodec.mapper().constructType(Todo.class);
+        } else {
+            // Same settings and serializer as the application's ObjectMapper, on the format's factory
+            Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .serializers(new TodoJsonSerializer());
+            switch (format) {
+                case "cbor" -> builder.factory(new CBORFactory());
+                case "smile" -> builder.factory(new SmileFactory());
+                default -> { }
+            }
+            ObjectMapper objectMapper = builder.build();
+            JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, Todo.class);
+            writer = objectMapper.writerFor(listType);
+            reader = objectMapper.readerFor(listType);
+        }
+
+        payload = encode();
+        System.out.printf("%n%s, %d todos: %d bytes%n", format, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (protobufCodec == null) {
+            return writer.writeValueAsBytes(todos);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream(size * 128);
+        protobufCodec.writeDelimited(output, todos, todoType);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public List<Todo> decode() throws IOException {
+        if (protobufCodec == null) {
+            return reader.readValue(payload);
+        }
+        return protobufCodec.readDelimited(new ByteArrayInputStream(payload), todoType);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
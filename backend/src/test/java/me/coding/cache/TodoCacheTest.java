@@ -0,0 +1,198 @@
+package me.coding.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("TodoCache Tests")
+class TodoCacheTest {
+
+    private static final TodoFilter WORK = TodoFilter.of(null, "Work", null, null);
+    private static final TodoFilter PERSONAL = TodoFilter.of(null, "Personal", null, null);
+    private static final TodoFilter OPEN = TodoFilter.of(false, null, null, null);
+
+    private TodoCache cache;
+    private Todo workTodo;
+    private Todo personalTodo;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TodoCache(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+        workTodo = todo(1L, "Work", false);
+        personalTodo = todo(2L, "Personal", true);
+        loads = new AtomicInteger();
+
+        load(WORK, workTodo);
+        load(PERSONAL, personalTodo);
+        load(OPEN, workTodo);
+        cache.findById(1L, id -> Optional.of(workTodo));
+        cache.findById(2L, id -> Optional.of(personalTodo));
+        loads.set(0);
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class Invalidation {
+
+        @Test
+        @DisplayName("Should only evict the changed id and the filters that contained it")
+        void shouldEvictOnlyAffectedEntries() {
+            // When
+            cache.onTodoChanged(TodoChangedEvent.deleted(2L));
+
+            // Then
+            assertThat(cache.idCacheSize(), is(1L));
+            load(WORK, workTodo);
+            load(OPEN, workTodo);
+            assertThat("work and open filters stay cached", loads.get(), is(0));
+            load(PERSONAL);
+            assertThat(loads.get(), is(1));
+        }
+
+        @Test
+        @DisplayName("Should evict filters the todo starts to match")
+        void shouldEvictFiltersTheTodoStartsToMatch() {
+            // Given
+            personalTodo.setCompleted(false);
+
+            // When
+            cache.onTodoChanged(TodoChangedEvent.patched(personalTodo));
+
+            // Then
+            load(WORK, workTodo);
+            assertThat("work filter neither contained nor matches the todo", loads.get(), is(0));
+            load(OPEN, workTodo, personalTodo);
+            assertThat(loads.get(), is(1));
+        }
+
+        @Test
+        @DisplayName("Should evict filters a created todo matches")
+        void shouldEvictFiltersACreatedTodoMatches() {
+            // When
+            cache.onTodoChanged(TodoChangedEvent.created(todo(3L, "Work", true)));
+
+            // Then
+            load(PERSONAL, personalTodo);
+            load(OPEN, workTodo);
+            assertThat(loads.get(), is(0));
+            load(WORK, workTodo);
+            assertThat(loads.get(), is(1));
+        }
+
+        @Test
+        @DisplayName("Should not cache a filter result loaded while a todo changed")
+        void shouldNotCacheResultLoadedDuringChange() {
+            // Given
+            TodoFilter important = TodoFilter.of(null, null, true, null);
+
+            // When
+            cache.findTodos(important, filter -> {
+                cache.onTodoChanged(TodoChangedEvent.deleted(99L));
+                return List.of();
+            });
+
+            // Then
+            load(important);
+            assertThat(loads.get(), is(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookups")
+    class Lookups {
+
+        @Test
+        @DisplayName("Should not cache missing todos")
+        void shouldNotCacheMissingTodos() {
+            // When
+            Optional<Todo> first = cache.findById(42L, id -> Optional.empty());
+            Optional<Todo> second = cache.findById(42L, id -> Optional.of(todo(42L, "Work", false)));
+
+            // Then
+            assertThat(first.isEmpty(), is(true));
+            assertThat(second.isPresent(), is(true));
+        }
+
+        @Test
+        @DisplayName("Should not cache a todo loaded while it changed")
+        void shouldNotCacheTodoLoadedDuringChange() {
+            // Given
+            Todo stale = todo(7L, "Work", false);
+            Todo current = todo(7L, "Work", true);
+
+            // When
+            cache.findById(7L, id -> {
+                cache.onTodoChanged(TodoChangedEvent.updated(current));
+                return Optional.of(stale);
+            });
+            Optional<Todo> reloaded = cache.findById(7L, id -> Optional.of(current));
+
+            // Then
+            assertThat(reloaded.get().getCompleted(), is(true));
+        }
+
+        @Test
+        @DisplayName("Should not let callers change cached todos")
+        void shouldNotLetCallersChangeCachedTodos() {
+            // Given
+            Todo changedAfterLoad = cache.findById(1L, id -> Optional.of(workTodo)).orElseThrow();
+            workTodo.setTitle("Changed by the loader's caller");
+
+            // When
+            changedAfterLoad.setTitle("Changed by a reader");
+            cache.findTodos(WORK, filter -> List.of()).get(0).setCompleted(true);
+
+            // Then
+            assertThat(cache.findById(1L, id -> Optional.empty()).orElseThrow().getTitle(), is("Todo 1"));
+            assertThat(cache.findTodos(WORK, filter -> List.of()).get(0).getCompleted(), is(false));
+            assertThat(cache.findById(1L, id -> Optional.empty()).orElseThrow(), is(not(sameInstance(workTodo))));
+        }
+
+        @Test
+        @DisplayName("Should publish hit and miss counters")
+        void shouldPublishHitAndMissCounters() {
+            // Given
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            cache.bindTo(registry);
+
+            // When
+            cache.findById(1L, id -> Optional.of(workTodo));
+            cache.findById(3L, id -> Optional.empty());
+
+            // Then
+            assertThat(registry.get("cache.gets").tag("cache", TodoCache.BY_ID_CACHE).tag("result", "hit")
+                    .functionCounter().count(), is(greaterThanOrEqualTo(1.0)));
+            assertThat(registry.get("cache.gets").tag("cache", TodoCache.BY_ID_CACHE).tag("result", "miss")
+                    .functionCounter().count(), is(greaterThanOrEqualTo(1.0)));
+        }
+    }
+
+    private void load(TodoFilter filter, Todo... todos) {
+        cache.findTodos(filter, f -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of(todos));
+        });
+    }
+
+    private static Todo todo(Long id, String category, boolean completed) {
+        Todo todo = new Todo("Todo " + id, null, category);
+        todo.setId(id);
+        todo.setCompleted(completed);
+        return todo;
+    }
+}
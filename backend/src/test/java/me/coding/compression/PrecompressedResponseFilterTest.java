@@ -0,0 +1,217 @@
+package me.coding.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Precompressed Response Tests")
+class PrecompressedResponseFilterTest {
+
+    private static final String CATEGORIES = "/api/v1/categories";
+    private static final String API_DOCS = "/v3/api-docs";
+
+    private final PrecompressedResponseFilter filter = new PrecompressedResponseFilter(
+            new String[]{CATEGORIES}, new String[]{API_DOCS}, 16, 9, DataSize.ofBytes(256));
+
+    @Nested
+    @DisplayName("Versioned responses")
+    class Versioned {
+
+        @Test
+        @DisplayName("Should serve the cached body while the handler reports it unchanged")
+        void shouldServeCachedBodyWhileUnchanged() throws Exception {
+            // Given
+            Handler handler = new Handler("\"categories-1\"", body('a'));
+
+            // When
+            MockHttpServletResponse first = get(CATEGORIES, handler);
+            MockHttpServletResponse second = get(CATEGORIES, handler);
+
+            // Then
+            assertThat(first.getHeader(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+            assertThat(gunzip(first.getContentAsByteArray()), is(body('a')));
+            assertThat(second.getStatus(), is(200));
+            assertThat(second.getHeader(HttpHeaders.ETAG), is("\"categories-1\""));
+            assertThat(gunzip(second.getContentAsByteArray()), is(body('a')));
+            assertThat(handler.bodiesWritten.get(), is(1));
+        }
+
+        @Test
+        @DisplayName("Should replace the cached body once the ETag changes")
+        void shouldReplaceCachedBodyOnNewTag() throws Exception {
+            // Given
+            Handler handler = new Handler("\"categories-1\"", body('a'));
+            get(CATEGORIES, handler);
+
+            // When
+            handler.etag = "\"categories-2\"";
+            handler.body = body('b');
+            MockHttpServletResponse changed = get(CATEGORIES, handler);
+            MockHttpServletResponse cached = get(CATEGORIES, handler);
+
+            // Then
+            assertThat(gunzip(changed.getContentAsByteArray()), is(body('b')));
+            assertThat(changed.getHeader(HttpHeaders.ETAG), is("\"categories-2\""));
+            assertThat(gunzip(cached.getContentAsByteArray()), is(body('b')));
+            assertThat(handler.bodiesWritten.get(), is(2));
+        }
+
+        @Test
+        @DisplayName("Should pass a 304 to a client sending the current tag")
+        void shouldPassNotModifiedToClient() throws Exception {
+            // Given
+            Handler handler = new Handler("\"categories-1\"", body('a'));
+            get(CATEGORIES, handler);
+            MockHttpServletRequest request = request(CATEGORIES);
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"categories-1\"");
+
+            // When
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, handler);
+
+            // Then
+            assertThat(response.getStatus(), is(304));
+            assertThat(response.getContentLength(), is(0));
+        }
+
+        @Test
+        @DisplayName("Should leave small bodies and clients without gzip alone")
+        void shouldLeaveSmallBodiesAlone() throws Exception {
+            // Given
+            Handler small = new Handler("\"categories-1\"", "[]".getBytes(StandardCharsets.UTF_8));
+            Handler large = new Handler("\"categories-1\"", body('a'));
+            MockHttpServletRequest identity = new MockHttpServletRequest("GET", CATEGORIES);
+
+            // When
+            MockHttpServletResponse smallResponse = get(CATEGORIES, small);
+            MockHttpServletResponse identityResponse = new MockHttpServletResponse();
+            filter.doFilter(identity, identityResponse, large);
+
+            // Then
+            assertThat(smallResponse.getHeader(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+            assertThat(smallResponse.getContentAsString(), is("[]"));
+            assertThat(identityResponse.getHeader(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+            assertThat(identityResponse.getContentAsByteArray(), is(body('a')));
+        }
+    }
+
+    @Nested
+    @DisplayName("Immutable responses")
+    class Immutable {
+
+        @Test
+        @DisplayName("Should render the document once and tag it by content")
+        void shouldRenderOnce() throws Exception {
+            // Given
+            Handler handler = new Handler(null, body('d'));
+
+            // When
+            MockHttpServletResponse first = get(API_DOCS, handler);
+            MockHttpServletResponse second = get(API_DOCS, handler);
+
+            MockHttpServletRequest conditional = request(API_DOCS);
+            conditional.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+            MockHttpServletResponse notModified = new MockHttpServletResponse();
+            filter.doFilter(conditional, notModified, handler);
+
+            // Then
+            assertThat(handler.calls.get(), is(1));
+            assertThat(first.getHeader(HttpHeaders.ETAG), is(PrecompressedResponseFilter.contentTag(body('d'))));
+            assertThat(gunzip(second.getContentAsByteArray()), is(body('d')));
+            assertThat(notModified.getStatus(), is(304));
+        }
+    }
+
+    @Nested
+    @DisplayName("Accept-Encoding")
+    class AcceptEncoding {
+
+        @Test
+        @DisplayName("Should accept gzip unless its quality is zero")
+        void shouldParseAcceptEncoding() {
+            assertThat(PrecompressedResponseFilter.acceptsGzip("gzip, deflate, br"), is(true));
+            assertThat(PrecompressedResponseFilter.acceptsGzip("br;q=1.0, GZIP;q=0.5"), is(true));
+            assertThat(PrecompressedResponseFilter.acceptsGzip("*"), is(true));
+            assertThat(PrecompressedResponseFilter.acceptsGzip("gzip;q=0"), is(false));
+            assertThat(PrecompressedResponseFilter.acceptsGzip("deflate, br"), is(false));
+            assertThat(PrecompressedResponseFilter.acceptsGzip(null), is(false));
+        }
+
+        @Test
+        @DisplayName("Should reject compression levels outside 1 to 9")
+        void shouldRejectInvalidLevel() {
+            assertThrows(IllegalArgumentException.class, () -> new PrecompressedResponseFilter(
+                    new String[]{CATEGORIES}, new String[0], 16, 10, DataSize.ofKilobytes(2)));
+        }
+    }
+
+    private MockHttpServletResponse get(String path, FilterChain handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path), response, handler);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return request;
+    }
+
+    private static byte[] body(char fill) {
+        return ("[" + String.valueOf(fill).repeat(4096) + "]").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws Exception {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return input.readAllBytes();
+        }
+    }
+
+    /**
+     * Stands in for a controller that answers If-None-Match from its current tag, like CategoryController.
+     */
+    private static final class Handler implements FilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger bodiesWritten = new AtomicInteger();
+        private String etag;
+        private byte[] body;
+
+        Handler(String etag, byte[] body) {
+            this.etag = etag;
+            this.body = body;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+            calls.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            if (etag != null && new ServletWebRequest((HttpServletRequest) request, httpResponse).checkNotModified(etag)) {
+                return;
+            }
+            bodiesWritten.incrementAndGet();
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write(body);
+        }
+    }
+}
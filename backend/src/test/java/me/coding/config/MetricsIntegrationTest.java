@@ -0,0 +1,63 @@
+package me.coding.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DisplayName("Metrics Integration Tests")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should publish endpoint, service, store, filter and pool meters for Prometheus")
+    void shouldPublishMetersForPrometheus() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/v1/todos").param("completed", "false").param("category", "Work"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk());
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(lines(scrape, "http_server_requests_seconds"), hasItem(allOf(
+                containsString("uri=\"/api/v1/todos\""), containsString("quantile=\"0.99\""))));
+        assertThat(lines(scrape, "http_server_requests_seconds_bucket{"), hasItem(
+                containsString("uri=\"/api/v1/categories\"")));
+        assertThat(lines(scrape, "todo_service_seconds_count{"), hasItem(
+                containsString("method=\"findTodos\"")));
+        assertThat(lines(scrape, "todo_store_seconds_count{"), hasItem(
+                containsString("engine=\"jpa\"")));
+        assertThat(lines(scrape, "todo_filter_load_seconds_count{"), hasItem(
+                containsString("filter=\"completed+category\"")));
+        assertThat(lines(scrape, "spring_data_repository_invocations_seconds_count{"), hasItem(
+                containsString("repository=\"CategoryRepository\"")));
+        assertThat(lines(scrape, "hikaricp_connections"), is(not(empty())));
+        assertThat(lines(scrape, "hibernate_statements"), is(not(empty())));
+    }
+
+    private static List<String> lines(String scrape, String prefix) {
+        return scrape.lines()
+                .filter(line -> line.startsWith(prefix))
+                .toList();
+    }
+}
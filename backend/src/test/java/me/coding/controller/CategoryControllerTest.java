@@ -77,6 +77,23 @@ class CategoryControllerTest {
             verify(categoryService, times(1)).findAllCategories();
         }
 
+        @Test
+        @DisplayName("Should return 304 without reading categories when the catalogue is unchanged")
+        void shouldReturnNotModifiedWhenCatalogueUnchanged() throws Exception {
+            // Given
+            when(categoryService.categoriesVersion()).thenReturn(3L);
+            when(categoryService.findAllCategories()).thenReturn(List.of(testCategory));
+            String etag = mockMvc.perform(get("/api/v1/categories"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/categories").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified());
+
+            verify(categoryService, times(1)).findAllCategories();
+        }
+
         @Test
         @DisplayName("Should return empty list when no categories exist")
         void shouldReturnEmptyListWhenNoCategoriesExist() throws Exception {
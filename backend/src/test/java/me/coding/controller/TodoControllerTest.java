@@ -1,9 +1,23 @@
 package me.coding.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import me.coding.dto.BatchItemResult;
+import me.coding.dto.BatchResponse;
+import me.coding.dto.TodoPage;
+import me.coding.dto.TodoStats;
 import me.coding.dto.TodoUpdateRequest;
+import me.coding.dto.TodoView;
+import me.coding.exception.VersionConflictException;
+import me.coding.feed.TodoChangeFeed;
+import me.coding.json.JacksonProtobufHttpMessageConverter;
+import me.coding.json.ProtobufCodec;
 import me.coding.model.Todo;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
 import me.coding.service.TodoService;
+import me.coding.stats.TodoStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,15 +26,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -38,6 +61,12 @@ class TodoControllerTest {
     @MockBean
     private TodoService todoService;
 
+    @MockBean
+    private TodoChangeFeed changeFeed;
+
+    @MockBean
+    private TodoStatistics statistics;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -124,6 +153,60 @@ class TodoControllerTest {
             verify(todoService, times(1))
                     .findTodos(false, "Work", true, LocalDate.of(2024, 1, 15));
         }
+
+        @Test
+        @DisplayName("Should return only the selected fields")
+        void shouldReturnOnlySelectedFields() throws Exception {
+            // Given
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("id", 1L);
+            fields.put("title", "Test Todo");
+            fields.put("createdAt", LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000));
+            when(todoService.findTodoViews(TodoFilter.of(false, null, null, null),
+                    List.of(TodoField.ID, TodoField.TITLE, TodoField.CREATED_AT)))
+                    .thenReturn(List.of(new TodoView(fields)));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos")
+                            .param("completed", "false")
+                            .param("fields", "id, title,createdAt"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id", is(1)))
+                    .andExpect(jsonPath("$[0].title", is("Test Todo")))
+                    .andExpect(jsonPath("$[0].createdAt", is("2024-01-15T10:30:00")))
+                    .andExpect(jsonPath("$[0].description").doesNotExist());
+
+            verify(todoService, never()).findTodos(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should search with selected fields")
+        void shouldSearchWithSelectedFields() throws Exception {
+            // Given
+            when(todoService.searchTodoViews("test", List.of(TodoField.TITLE)))
+                    .thenReturn(List.of(new TodoView(Map.of("title", "Test Todo"))));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos").param("q", "test").param("fields", "title"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].title", is("Test Todo")));
+        }
+
+        @Test
+        @DisplayName("Should reject unknown fields and fields combined with pagination")
+        void shouldRejectInvalidFieldSelections() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos").param("fields", "id,owner"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.details", containsString("Unknown field 'owner'")));
+            mockMvc.perform(get("/api/v1/todos").param("fields", " , "))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/v1/todos").param("fields", "id").param("limit", "10"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(todoService);
+        }
     }
 
     @Nested
@@ -422,6 +505,24 @@ class TodoControllerTest {
             verify(todoService, times(1)).patchTodo(eq(999L), any(TodoUpdateRequest.class));
         }
 
+        @Test
+        @DisplayName("Should return 400 when PATCH sets a blank title")
+        void shouldReturn400WhenPatchingBlankTitle() throws Exception {
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \"\"}"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \" \\t \"}"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+
+            verify(todoService, never()).patchTodo(any(), any(TodoUpdateRequest.class));
+        }
+
         @Test
         @DisplayName("Should update multiple fields via PATCH")
         void shouldUpdateMultipleFields() throws Exception {
@@ -552,6 +653,571 @@ class TodoControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Count Tests")
+    class CountTests {
+
+        @Test
+        @DisplayName("Should count todos matching the filters")
+        void shouldCountTodosMatchingFilters() throws Exception {
+            // Given
+            when(todoService.countTodos(TodoFilter.of(false, "Work", null, null))).thenReturn(42L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos/count")
+                            .param("completed", "false")
+                            .param("category", "Work"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.count", is(42)));
+
+            verify(todoService, never()).findTodos(any(TodoFilter.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Statistics Tests")
+    class StatisticsTests {
+
+        @Test
+        @DisplayName("Should return the current statistics")
+        void shouldReturnCurrentStatistics() throws Exception {
+            // Given
+            when(statistics.stats(LocalDate.now())).thenReturn(new TodoStats(12, 8, 4, 3, 2, Map.of("Work", 7L)));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos/stats"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(jsonPath("$.total", is(12)))
+                    .andExpect(jsonPath("$.open", is(8)))
+                    .andExpect(jsonPath("$.completed", is(4)))
+                    .andExpect(jsonPath("$.important", is(3)))
+                    .andExpect(jsonPath("$.dueToday", is(2)))
+                    .andExpect(jsonPath("$.byCategory.Work", is(7)));
+
+            verify(todoService, never()).findAllTodos();
+        }
+
+        @Test
+        @DisplayName("Should answer 304 while no todo changed")
+        void shouldAnswerNotModifiedWhileUnchanged() throws Exception {
+            // Given
+            when(todoService.todosVersion()).thenReturn(5L);
+            when(statistics.stats(any(LocalDate.class))).thenReturn(new TodoStats(0, 0, 0, 0, 0, Map.of()));
+            String etag = mockMvc.perform(get("/api/v1/todos/stats"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos/stats").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified());
+
+            verify(statistics, times(1)).stats(any(LocalDate.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pagination Tests")
+    class PaginationTests {
+
+        @Test
+        @DisplayName("Should return first page with next cursor header")
+        void shouldReturnFirstPageWithNextCursorHeader() throws Exception {
+            // Given
+            TodoPage page = new TodoPage(Collections.singletonList(testTodo), "next-token");
+            when(todoService.findTodoPage(TodoFilter.of(false, "Work", null, null), null, null, 1)).thenReturn(page);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos")
+                            .param("completed", "false")
+                            .param("category", "Work")
+                            .param("limit", "1"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(TodoController.NEXT_CURSOR_HEADER, "next-token"))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id", is(1)));
+
+            verify(todoService, never()).findTodos(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should omit next cursor header on last page")
+        void shouldOmitNextCursorHeaderOnLastPage() throws Exception {
+            // Given
+            TodoPage page = new TodoPage(Collections.singletonList(testTodo), null);
+            when(todoService.findTodoPage(TodoFilter.NONE, "test", "some-cursor", null)).thenReturn(page);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos")
+                            .param("q", "test")
+                            .param("cursor", "some-cursor"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(TodoController.NEXT_CURSOR_HEADER))
+                    .andExpect(jsonPath("$", hasSize(1)));
+
+            verify(todoService, never()).searchTodos(any());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for invalid cursor")
+        void shouldReturn400ForInvalidCursor() throws Exception {
+            // Given
+            when(todoService.findTodoPage(any(), any(), eq("garbage"), any()))
+                    .thenThrow(new IllegalArgumentException("Invalid cursor: garbage"));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos")
+                            .param("cursor", "garbage"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.details", is("Invalid cursor: garbage")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/todos/export Tests")
+    class ExportTodosTests {
+
+        @Test
+        @DisplayName("Should stream filtered todos as newline-delimited JSON")
+        void shouldStreamTodosAsNdjson() throws Exception {
+            // Given
+            doAnswer(invocation -> {
+                Consumer<Todo> consumer = invocation.getArgument(1);
+                consumer.accept(testTodo);
+                consumer.accept(createAnotherTodo());
+                return 2L;
+            }).when(todoService).exportTodos(eq(TodoFilter.of(null, "Test", null, null)), any());
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/v1/todos/export")
+                            .param("category", "Test"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertThat(lines.length, is(2));
+            assertThat(objectMapper.readValue(lines[0], Todo.class).getId(), is(1L));
+            assertThat(objectMapper.readValue(lines[1], Todo.class).getTitle(), is("Another Todo"));
+            assertThat(body.endsWith("\n"), is(true));
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional GET Tests")
+    class ConditionalGetTests {
+
+        @Test
+        @DisplayName("Should return 304 for the list without querying when the todos are unchanged")
+        void shouldReturnNotModifiedWithoutQuerying() throws Exception {
+            // Given
+            when(todoService.todosVersion()).thenReturn(7L);
+            when(todoService.findTodos(null, null, null, null)).thenReturn(List.of(testTodo));
+            String etag = mockMvc.perform(get("/api/v1/todos"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(todoService, times(1)).findTodos(null, null, null, null);
+        }
+
+        @Test
+        @DisplayName("Should tag each representation of the list separately and vary on Accept")
+        void shouldTagEachRepresentationSeparately() throws Exception {
+            // Given
+            when(todoService.todosVersion()).thenReturn(7L);
+            when(todoService.findTodos(null, null, null, null)).thenReturn(List.of(testTodo));
+            String jsonTag = mockMvc.perform(get("/api/v1/todos"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                    .andReturn().getResponse().getHeader("ETag");
+            String cborTag = mockMvc.perform(get("/api/v1/todos").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // Then
+            assertThat(jsonTag, matchesPattern("W/\".+\""));
+            assertThat(cborTag, is(not(jsonTag)));
+            mockMvc.perform(get("/api/v1/todos").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", jsonTag))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/v1/todos").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", cborTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")));
+        }
+
+        @Test
+        @DisplayName("Should tag a single todo with its version")
+        void shouldTagTodoWithItsVersion() throws Exception {
+            // Given
+            testTodo.setVersion(3L);
+            when(todoService.findTodoById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos/{id}", TODO_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3\""));
+            mockMvc.perform(get("/api/v1/todos/{id}", TODO_ID).header("If-None-Match", "\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("Should return the todo again once its version changed")
+        void shouldReturnTodoAfterChange() throws Exception {
+            // Given
+            testTodo.setVersion(4L);
+            when(todoService.findTodoById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos/{id}", TODO_ID).header("If-None-Match", "\"3\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"4\""))
+                    .andExpect(jsonPath("$.id", is(1)))
+                    .andExpect(jsonPath("$.version", is(4)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Optimistic Concurrency Tests")
+    class OptimisticConcurrencyTests {
+
+        @Test
+        @DisplayName("Should pass the If-Match version of a PUT to the service and tag the result")
+        void shouldPassIfMatchVersionOfPut() throws Exception {
+            // Given
+            Todo updatedTodo = new Todo("Updated Todo", null, "Work");
+            testTodo.setVersion(4L);
+            when(todoService.updateTodo(eq(TODO_ID), any(Todo.class))).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(put("/api/v1/todos/{id}", TODO_ID)
+                            .header("If-Match", "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(updatedTodo)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"4\""));
+
+            verify(todoService).updateTodo(eq(TODO_ID), argThat(todo -> Long.valueOf(3L).equals(todo.getVersion())));
+        }
+
+        @Test
+        @DisplayName("Should pass the version field of a PATCH to the service")
+        void shouldPassBodyVersionOfPatch() throws Exception {
+            // Given
+            when(todoService.patchTodo(eq(TODO_ID), any(TodoUpdateRequest.class))).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"completed\": true, \"version\": 3}"))
+                    .andExpect(status().isOk());
+
+            verify(todoService).patchTodo(eq(TODO_ID), argThat(request -> Long.valueOf(3L).equals(request.getVersion())));
+        }
+
+        @Test
+        @DisplayName("Should reject If-Match and a version field that disagree")
+        void shouldRejectDisagreeingVersions() throws Exception {
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .header("If-Match", "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"completed\": true, \"version\": 2}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(todoService, never()).patchTodo(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject an If-Match header that is not a todo ETag")
+        void shouldRejectMalformedIfMatch() throws Exception {
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .header("If-Match", "W/\"todos-abc-3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"completed\": true}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(todoService, never()).patchTodo(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("Should ignore an If-Match wildcard")
+        void shouldIgnoreIfMatchWildcard() throws Exception {
+            // Given
+            when(todoService.patchTodo(eq(TODO_ID), any(TodoUpdateRequest.class))).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .header("If-Match", "*")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"completed\": true}"))
+                    .andExpect(status().isOk());
+
+            verify(todoService).patchTodo(eq(TODO_ID), argThat(request -> request.getVersion() == null));
+        }
+
+        @Test
+        @DisplayName("Should map a stale version to 409")
+        void shouldMapStaleVersionToConflict() throws Exception {
+            // Given
+            when(todoService.patchTodo(eq(TODO_ID), any(TodoUpdateRequest.class)))
+                    .thenThrow(new VersionConflictException("Todo", TODO_ID, 3L, 4L));
+
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/{id}", TODO_ID)
+                            .header("If-Match", "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \"Renamed\"}"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status", is(409)))
+                    .andExpect(jsonPath("$.message", is("Resource conflict")))
+                    .andExpect(jsonPath("$.details", is("Todo with id 1 has version 4, expected 3")));
+        }
+
+        @Test
+        @DisplayName("Should map a write that lost the race at commit to 409")
+        void shouldMapLostRaceToConflict() throws Exception {
+            // Given
+            when(todoService.updateTodo(eq(TODO_ID), any(Todo.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Todo.class, TODO_ID));
+
+            // When & Then
+            mockMvc.perform(put("/api/v1/todos/{id}", TODO_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(testTodo)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status", is(409)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/todos/stream Tests")
+    class StreamTodosTests {
+
+        @Test
+        @DisplayName("Should open a server-sent event stream from the change feed")
+        void shouldOpenEventStream() throws Exception {
+            // Given
+            SseEmitter emitter = new SseEmitter();
+            when(changeFeed.subscribe()).thenReturn(emitter);
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/v1/todos/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            emitter.send(SseEmitter.event().id("1").name("created").data("{\"id\":1}", MediaType.APPLICATION_JSON));
+            emitter.complete();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+            assertThat(result.getResponse().getContentAsString(), containsString("event:created"));
+            verify(changeFeed).subscribe();
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Tests")
+    class BatchTests {
+
+        @Test
+        @DisplayName("Should create todos in bulk and return per-item results")
+        void shouldCreateTodosInBulk() throws Exception {
+            // Given
+            BatchResponse response = BatchResponse.of(List.of(
+                    BatchItemResult.created(0, 51L),
+                    BatchItemResult.invalid(1, null, "Title is required")));
+            when(todoService.createTodos(anyList())).thenReturn(response);
+            List<Todo> todos = List.of(new Todo("New Todo", "New Description"), new Todo("", "No title"));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/todos/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(todos)))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.succeeded", is(1)))
+                    .andExpect(jsonPath("$.failed", is(1)))
+                    .andExpect(jsonPath("$.results[0].status", is(201)))
+                    .andExpect(jsonPath("$.results[0].id", is(51)))
+                    .andExpect(jsonPath("$.results[1].status", is(400)))
+                    .andExpect(jsonPath("$.results[1].error", is("Title is required")))
+                    .andExpect(jsonPath("$.results[1].success").doesNotExist());
+
+            verify(todoService, times(1)).createTodos(anyList());
+        }
+
+        @Test
+        @DisplayName("Should route PATCH /batch to the batch patch instead of the single-item patch")
+        void shouldRoutePatchBatch() throws Exception {
+            // Given
+            when(todoService.patchTodos(anyList())).thenReturn(BatchResponse.of(List.of(
+                    BatchItemResult.ok(0, TODO_ID),
+                    BatchItemResult.notFound(1, 999L))));
+
+            // When & Then
+            mockMvc.perform(patch("/api/v1/todos/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"id\": 1, \"completed\": true}, {\"id\": 999, \"completed\": true}]"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results[1].status", is(404)))
+                    .andExpect(jsonPath("$.results[1].error", is("Todo not found with id: 999")));
+
+            verify(todoService, times(1)).patchTodos(argThat(requests ->
+                    requests.size() == 2 && requests.get(0).getId().equals(TODO_ID) && requests.get(0).getCompleted()));
+            verify(todoService, never()).patchTodo(anyLong(), any(TodoUpdateRequest.class));
+        }
+
+        @Test
+        @DisplayName("Should delete todos in bulk")
+        void shouldDeleteTodosInBulk() throws Exception {
+            // Given
+            when(todoService.deleteTodos(List.of(1L, 2L))).thenReturn(BatchResponse.of(List.of(
+                    BatchItemResult.ok(0, 1L),
+                    BatchItemResult.ok(1, 2L))));
+
+            // When & Then
+            mockMvc.perform(delete("/api/v1/todos/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[1, 2]"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.succeeded", is(2)))
+                    .andExpect(jsonPath("$.results", hasSize(2)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an empty batch")
+        void shouldReturn400ForEmptyBatch() throws Exception {
+            // Given
+            when(todoService.deleteTodos(anyList()))
+                    .thenThrow(new IllegalArgumentException("Batch must contain at least one item"));
+
+            // When & Then
+            mockMvc.perform(delete("/api/v1/todos/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Binary wire formats")
+    class WireFormats {
+
+        @Autowired
+        private ProtobufCodec protobufCodec;
+
+        @Test
+        @DisplayName("Should return CBOR when asked for it")
+        void shouldReturnCbor() throws Exception {
+            // Given
+            when(todoService.findTodoById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/v1/todos/{id}", TODO_ID)
+                            .accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn();
+
+            // Then
+            JsonNode todo = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+            assertThat(todo.get("id").asLong(), is(TODO_ID));
+            assertThat(todo.get("title").asText(), is("Test Todo"));
+            assertThat(todo.get("dueDate").asText(), is("2024-01-15"));
+        }
+
+        @Test
+        @DisplayName("Should return length-delimited protobuf messages for a list")
+        void shouldReturnProtobufList() throws Exception {
+            // Given
+            when(todoService.findTodos(null, null, null, null)).thenReturn(Arrays.asList(testTodo, createAnotherTodo()));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/v1/todos")
+                            .accept(JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                    .andReturn();
+
+            // Then
+            List<Todo> todos = protobufCodec.readDelimited(
+                    new ByteArrayInputStream(result.getResponse().getContentAsByteArray()),
+                    protobufCodec.mapper().constructType(Todo.class));
+            assertThat(todos, hasSize(2));
+            assertThat(todos.get(0).getTitle(), is("Test Todo"));
+            assertThat(todos.get(1).getTitle(), is("Another Todo"));
+        }
+
+        @Test
+        @DisplayName("Should create a todo sent as protobuf")
+        void shouldCreateFromProtobuf() throws Exception {
+            // Given
+            Todo todoToCreate = new Todo("New Todo", "New Description", "Work", true, LocalDate.of(2024, 1, 20));
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            protobufCodec.write(body, todoToCreate, protobufCodec.mapper().constructType(Todo.class));
+            when(todoService.createTodo(any(Todo.class))).thenAnswer(invocation -> {
+                Todo created = invocation.getArgument(0);
+                created.setId(2L);
+                return created;
+            });
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/todos")
+                            .contentType(JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                            .content(body.toByteArray()))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.id", is(2)))
+                    .andExpect(jsonPath("$.title", is("New Todo")))
+                    .andExpect(jsonPath("$.dueDate", is("2024-01-20")));
+        }
+
+        @Test
+        @DisplayName("Should keep returning JSON when any type is accepted")
+        void shouldPreferJson() throws Exception {
+            // Given
+            when(todoService.findTodoById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/todos/{id}", TODO_ID)
+                            .accept(MediaType.ALL))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        }
+
+        @Test
+        @DisplayName("Should serve the protobuf schema")
+        void shouldServeSchema() throws Exception {
+            mockMvc.perform(get("/api/v1/todos/schema.proto"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("message Todo")))
+                    .andExpect(content().string(containsString("message DeleteResponse")));
+        }
+    }
+
     private Todo createAnotherTodo() {
         Todo anotherTodo = new Todo();
         anotherTodo.setId(2L);
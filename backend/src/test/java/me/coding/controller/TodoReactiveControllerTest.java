@@ -0,0 +1,313 @@
+package me.coding.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.coding.config.ReactiveConfig;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TodoReactiveController.class)
+@Import(TodoReactiveControllerTest.SchedulerConfig.class)
+@DisplayName("TodoReactiveController Tests")
+class TodoReactiveControllerTest {
+
+    /**
+     * Imported rather than detected as a nested {@code @TestConfiguration}, which the {@code @Nested}
+     * classes would not see.
+     */
+    static class SchedulerConfig {
+        @Bean(ReactiveConfig.TODO_SCHEDULER)
+        Scheduler todoScheduler() {
+            return Schedulers.immediate();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TodoService todoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Todo testTodo;
+    private final Long TODO_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        testTodo = new Todo("Test Todo", "Test Description", "Work");
+        testTodo.setId(TODO_ID);
+        testTodo.setDueDate(LocalDate.of(2024, 1, 15));
+    }
+
+    @Nested
+    @DisplayName("GET /api/v2/todos Tests")
+    class GetTodosTests {
+
+        @Test
+        @DisplayName("Should return filtered todos as a JSON array")
+        void shouldReturnFilteredTodosAsJsonArray() throws Exception {
+            // Given
+            TodoFilter filter = TodoFilter.of(false, "Work", null, null);
+            when(todoService.exportTodos(eq(filter), any())).thenAnswer(export(testTodo, anotherTodo()));
+
+            // When & Then
+            mockMvc.perform(dispatch(get("/api/v2/todos").param("completed", "false").param("category", "Work")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].id", is(1)))
+                    .andExpect(jsonPath("$[1].id", is(2)));
+
+            verify(todoService).exportTodos(eq(filter), any());
+            verify(todoService, never()).findTodos(any(TodoFilter.class));
+        }
+
+        @Test
+        @DisplayName("Should stream todos as NDJSON when requested")
+        void shouldStreamTodosAsNdjson() throws Exception {
+            // Given
+            when(todoService.exportTodos(eq(TodoFilter.NONE), any())).thenAnswer(export(testTodo, anotherTodo()));
+
+            // When
+            MvcResult result = mockMvc.perform(dispatch(get("/api/v2/todos")
+                            .accept(TodoController.NDJSON_MEDIA_TYPE)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(TodoController.NDJSON_MEDIA_TYPE))
+                    .andReturn();
+
+            // Then
+            String[] lines = result.getResponse().getContentAsString().strip().split("\n");
+            assertThat(lines.length, is(2));
+            assertThat(objectMapper.readValue(lines[0], Todo.class).getId(), is(1L));
+            assertThat(objectMapper.readValue(lines[1], Todo.class).getId(), is(2L));
+        }
+
+        @Test
+        @DisplayName("Should search when q is given")
+        void shouldSearchWhenQueryIsGiven() throws Exception {
+            // Given
+            when(todoService.exportSearchResults(eq("test"), any())).thenAnswer(export(testTodo));
+
+            // When & Then
+            mockMvc.perform(dispatch(get("/api/v2/todos").param("q", " test ")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+
+            verify(todoService).exportSearchResults(eq("test"), any());
+            verify(todoService, never()).exportTodos(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return today's todos")
+        void shouldReturnTodaysTodos() throws Exception {
+            // Given
+            TodoFilter filter = TodoFilter.of(false, null, null, LocalDate.now());
+            when(todoService.exportTodos(eq(filter), any())).thenAnswer(export(testTodo));
+
+            // When & Then
+            mockMvc.perform(dispatch(get("/api/v2/todos/today").param("completed", "false")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming Tests")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should read the next todo only when the client asks for it")
+        void shouldReadOnlyWhatClientRequested() throws Exception {
+            // Given
+            AtomicInteger read = new AtomicInteger();
+            CountDownLatch closed = new CountDownLatch(1);
+            when(todoService.exportTodos(eq(TodoFilter.NONE), any())).thenAnswer(invocation -> {
+                Consumer<Todo> consumer = invocation.getArgument(1);
+                try {
+                    for (long id = 1; id <= 1000; id++) {
+                        Todo todo = new Todo("Todo " + id, null);
+                        todo.setId(id);
+                        read.incrementAndGet();
+                        consumer.accept(todo);
+                    }
+                    return 1000L;
+                } finally {
+                    closed.countDown();
+                }
+            });
+            TodoReactiveController controller = new TodoReactiveController(todoService, Schedulers.boundedElastic());
+            CountDownLatch received = new CountDownLatch(2);
+            BaseSubscriber<Todo> slowClient = new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    request(2);
+                }
+
+                @Override
+                protected void hookOnNext(Todo todo) {
+                    received.countDown();
+                }
+            };
+
+            // When
+            controller.findAll(null, null, null, null, null).subscribe(slowClient);
+            assertThat(received.await(5, TimeUnit.SECONDS), is(true));
+            Thread.sleep(100);
+
+            // Then the reader waits with the third todo instead of running ahead
+            assertThat(read.get(), is(3));
+
+            // And a cancellation ends the export
+            slowClient.cancel();
+            assertThat(closed.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(read.get(), is(3));
+        }
+    }
+
+    @Nested
+    @DisplayName("Single todo Tests")
+    class SingleTodoTests {
+
+        @Test
+        @DisplayName("Should return todo by id")
+        void shouldReturnTodoById() throws Exception {
+            // Given
+            when(todoService.findTodoById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(dispatch(get("/api/v2/todos/{id}", TODO_ID)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title", is("Test Todo")));
+        }
+
+        @Test
+        @DisplayName("Should return 404 for a missing todo")
+        void shouldReturn404ForMissingTodo() throws Exception {
+            // Given
+            when(todoService.findTodoById(999L)).thenReturn(Optional.empty());
+
+            // When & Then
+            mockMvc.perform(dispatch(get("/api/v2/todos/{id}", 999L)))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.status", is(404)));
+        }
+
+        @Test
+        @DisplayName("Should create todo")
+        void shouldCreateTodo() throws Exception {
+            // Given
+            when(todoService.createTodo(any(Todo.class))).thenReturn(testTodo);
+
+            // When & Then
+            mockMvc.perform(dispatch(post("/api/v2/todos")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \"Test Todo\", \"category\": \"Work\"}")))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id", is(1)));
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid todo before calling the service")
+        void shouldRejectInvalidTodo() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/v2/todos")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"description\": \"No title\"}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(todoService, never()).createTodo(any());
+        }
+
+        @Test
+        @DisplayName("Should patch todo")
+        void shouldPatchTodo() throws Exception {
+            // Given
+            testTodo.setCompleted(true);
+            when(todoService.patchTodo(eq(TODO_ID), any(TodoUpdateRequest.class))).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            mockMvc.perform(dispatch(patch("/api/v2/todos/{id}", TODO_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"completed\": true}")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.completed", is(true)));
+        }
+
+        @Test
+        @DisplayName("Should delete todo and return 404 when it is gone")
+        void shouldDeleteTodo() throws Exception {
+            // Given
+            when(todoService.deleteTodo(TODO_ID)).thenReturn(true).thenReturn(false);
+
+            // When & Then
+            mockMvc.perform(dispatch(delete("/api/v2/todos/{id}", TODO_ID)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deletedId", is(1)));
+            mockMvc.perform(dispatch(delete("/api/v2/todos/{id}", TODO_ID)))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    /**
+     * Performs the request, waits for the reactive result and returns the async dispatch that
+     * renders it.
+     */
+    private RequestBuilder dispatch(RequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return asyncDispatch(started);
+    }
+
+    /** Answers an export call by handing {@code todos} to the consumer it was given. */
+    private static Answer<Long> export(Todo... todos) {
+        return invocation -> {
+            Consumer<Todo> consumer = invocation.getArgument(1);
+            Arrays.stream(todos).forEach(consumer);
+            return (long) todos.length;
+        };
+    }
+
+    private Todo anotherTodo() {
+        Todo todo = new Todo("Another Todo", "Another Description", "Work");
+        todo.setId(2L);
+        return todo;
+    }
+}
@@ -0,0 +1,239 @@
+package me.coding.feed;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.coding.model.Todo;
+import me.coding.service.TodoChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("TodoChangeFeed Tests")
+class TodoChangeFeedTest {
+
+    private static final int BUFFER_SIZE = 3;
+
+    private ManualExecutor executor;
+    private TodoChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ManualExecutor();
+        feed = new TodoChangeFeed(BUFFER_SIZE, Duration.ofMinutes(1), executor);
+    }
+
+    @Nested
+    @DisplayName("Delivery")
+    class Delivery {
+
+        @Test
+        @DisplayName("Should deliver every change to every subscriber in order")
+        void shouldDeliverChangesInOrder() {
+            // Given
+            RecordingEmitter first = subscribe();
+            RecordingEmitter second = subscribe();
+
+            // When
+            feed.onTodoChanged(TodoChangedEvent.created(todo(1L)));
+            feed.onTodoChanged(TodoChangedEvent.patched(todo(1L)));
+            feed.onTodoChanged(TodoChangedEvent.deleted(1L));
+            executor.runAll();
+
+            // Then
+            assertThat(first.eventNames(), contains("created", "patched", "deleted"));
+            assertThat(second.eventNames(), contains("created", "patched", "deleted"));
+        }
+
+        @Test
+        @DisplayName("Should drain a subscriber with a single delivery task")
+        void shouldDrainWithSingleTask() {
+            // Given
+            subscribe();
+
+            // When
+            feed.onTodoChanged(TodoChangedEvent.created(todo(1L)));
+            feed.onTodoChanged(TodoChangedEvent.created(todo(2L)));
+
+            // Then
+            assertThat(executor.queued(), is(1));
+        }
+
+        @Test
+        @DisplayName("Should send heartbeats as comments")
+        void shouldSendHeartbeats() {
+            // Given
+            RecordingEmitter emitter = subscribe();
+
+            // When
+            feed.heartbeat();
+            executor.runAll();
+
+            // Then
+            assertThat(emitter.sent.size(), is(1));
+            assertThat(emitter.sent.get(0), containsString(":heartbeat"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Slow and closed subscribers")
+    class SlowSubscribers {
+
+        @Test
+        @DisplayName("Should disconnect only the subscriber whose buffer overflows")
+        void shouldDisconnectSlowSubscriber() {
+            // Given
+            RecordingEmitter slow = subscribe();
+
+            // When
+            for (long id = 1; id <= BUFFER_SIZE + 1; id++) {
+                feed.onTodoChanged(TodoChangedEvent.created(todo(id)));
+            }
+            RecordingEmitter fresh = subscribe();
+            feed.onTodoChanged(TodoChangedEvent.created(todo(99L)));
+            executor.runAll();
+
+            // Then
+            assertThat(slow.completed, is(true));
+            assertThat(slow.sent, is(empty()));
+            assertThat(fresh.eventNames(), contains("created"));
+            assertThat(feed.subscriberCount(), is(1));
+        }
+
+        @Test
+        @DisplayName("Should remove a subscriber whose connection fails")
+        void shouldRemoveFailedSubscriber() {
+            // Given
+            RecordingEmitter broken = subscribe();
+            broken.failOnSend = true;
+
+            // When
+            feed.onTodoChanged(TodoChangedEvent.created(todo(1L)));
+            executor.runAll();
+
+            // Then
+            assertThat(broken.completed, is(true));
+            assertThat(feed.subscriberCount(), is(0));
+        }
+
+        @Test
+        @DisplayName("Should publish subscriber and drop meters")
+        void shouldPublishMeters() {
+            // Given
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            feed.bindTo(registry);
+            subscribe();
+            subscribe();
+
+            // When
+            for (long id = 1; id <= BUFFER_SIZE + 1; id++) {
+                feed.onTodoChanged(TodoChangedEvent.created(todo(id)));
+            }
+
+            // Then
+            assertThat(registry.get("todos.feed.subscribers").gauge().value(), is(0.0));
+            assertThat(registry.get("todos.feed.dropped").functionCounter().count(), is(2.0));
+        }
+    }
+
+    private RecordingEmitter subscribe() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter);
+        return emitter;
+    }
+
+    private static Todo todo(Long id) {
+        Todo todo = new Todo("Todo " + id, null, "Work");
+        todo.setId(id);
+        return todo;
+    }
+
+    /**
+     * Records the rendered events instead of writing them to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private boolean failOnSend;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failOnSend) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> eventNames() {
+            return sent.stream()
+                    .map(event -> event.substring(event.indexOf("event:") + 6, event.indexOf('\n', event.indexOf("event:"))))
+                    .toList();
+        }
+    }
+
+    /**
+     * Queues delivery tasks until the test runs them, so slow consumers can be simulated.
+     */
+    private static class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        int queued() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
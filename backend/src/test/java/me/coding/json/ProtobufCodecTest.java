@@ -0,0 +1,143 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import me.coding.dto.DeleteResponse;
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("ProtobufCodec Tests")
+class ProtobufCodecTest {
+
+    private final ProtobufCodec codec = new ProtobufCodec();
+
+    @Nested
+    @DisplayName("Schemas")
+    class Schemas {
+
+        @Test
+        @DisplayName("Should generate messages for the API classes")
+        void shouldGenerateMessages() {
+            // When
+            String source = codec.protoSource(Todo.class, TodoUpdateRequest.class, DeleteResponse.class);
+
+            // Then
+            assertThat(source, containsString("message Todo"));
+            assertThat(source, containsString("message TodoUpdateRequest"));
+            assertThat(source, containsString("message DeleteResponse"));
+            assertThat(source, containsString("title"));
+        }
+
+        @Test
+        @DisplayName("Should have no schema for lists and maps")
+        void shouldHaveNoSchemaForContainers() {
+            // Given
+            JavaType list = TypeFactory.defaultInstance().constructCollectionType(List.class, Todo.class);
+
+            // Then
+            assertThat(codec.schemaFor(list).isPresent(), is(false));
+            assertThat(codec.schemaFor(Map.class).isPresent(), is(false));
+            assertThrows(IllegalArgumentException.class, () -> codec.protoSource(Map.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Encoding")
+    class Encoding {
+
+        @Test
+        @DisplayName("Should read back the todo it wrote")
+        void shouldRoundTripTodo() throws Exception {
+            // Given
+            Todo todo = todo(7L);
+            JavaType type = codec.mapper().constructType(Todo.class);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            // When
+            codec.write(output, todo, type);
+            Todo read = codec.read(new ByteArrayInputStream(output.toByteArray()), type);
+
+            // Then
+            assertThat(read.getId(), is(7L));
+            assertThat(read.getTitle(), is(todo.getTitle()));
+            assertThat(read.getDescription(), is(todo.getDescription()));
+            assertThat(read.getCompleted(), is(true));
+            assertThat(read.getCreatedAt(), is(todo.getCreatedAt()));
+            assertThat(read.getDueDate(), is(todo.getDueDate()));
+            assertThat(read.getVersion(), is(3L));
+        }
+
+        @Test
+        @DisplayName("Should read back a list of length-delimited todos")
+        void shouldRoundTripDelimitedList() throws Exception {
+            // Given
+            List<Todo> todos = new ArrayList<>();
+            for (long id = 1; id <= 300; id++) {
+                todos.add(todo(id));
+            }
+            JavaType type = codec.mapper().constructType(Todo.class);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            // When
+            codec.writeDelimited(output, todos, type);
+            List<Todo> read = codec.readDelimited(new ByteArrayInputStream(output.toByteArray()), type);
+
+            // Then
+            assertThat(read, hasSize(300));
+            assertThat(read.get(0).getId(), is(1L));
+            assertThat(read.get(299).getId(), is(300L));
+            assertThat(read.get(299).getTitle(), is("Todo 300"));
+        }
+
+        @Test
+        @DisplayName("Should read an empty body as an empty list")
+        void shouldReadEmptyList() throws Exception {
+            // When
+            List<Todo> read = codec.readDelimited(new ByteArrayInputStream(new byte[0]), codec.mapper().constructType(Todo.class));
+
+            // Then
+            assertThat(read, is(empty()));
+        }
+
+        @Test
+        @DisplayName("Should reject a message cut short")
+        void shouldRejectTruncatedMessage() throws Exception {
+            // Given
+            JavaType type = codec.mapper().constructType(Todo.class);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            codec.writeDelimited(output, List.of(todo(1L)), type);
+            byte[] bytes = output.toByteArray();
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+            // Then
+            assertThrows(EOFException.class, () -> codec.readDelimited(new ByteArrayInputStream(truncated), type));
+        }
+    }
+
+    private static Todo todo(Long id) {
+        Todo todo = new Todo("Todo " + id, "Description " + id, "Work", true, LocalDate.of(2024, 12, 31));
+        todo.setId(id);
+        todo.setCompleted(true);
+        todo.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 5));
+        todo.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 5));
+        todo.setVersion(3L);
+        return todo;
+    }
+}
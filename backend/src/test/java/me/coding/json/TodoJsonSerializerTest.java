@@ -0,0 +1,120 @@
+package me.coding.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import me.coding.model.Category;
+import me.coding.model.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("JSON Serializer Tests")
+class TodoJsonSerializerTest {
+
+    // Configured like the application's ObjectMapper, with and without the hand-written serializers
+    private final ObjectMapper defaultMapper = mapper().build();
+    private final ObjectMapper customMapper = mapper()
+            .serializers(new TodoJsonSerializer(), new CategoryJsonSerializer())
+            .build();
+
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Nested
+    @DisplayName("Todo")
+    class TodoSerialization {
+
+        @Test
+        @DisplayName("Should write the same JSON as the default serialization")
+        void shouldMatchDefaultSerialization() throws Exception {
+            // Given
+            Todo todo = todo(7L, LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123_456_789), LocalDate.of(2024, 12, 31));
+
+            // When
+            String json = customMapper.writeValueAsString(todo);
+
+            // Then
+            assertThat(json, is(defaultMapper.writeValueAsString(todo)));
+            assertThat(json, is("{\"id\":7,\"title\":\"Todo \\\"7\\\"\",\"description\":\"Line one\\nline two\","
+                    + "\"completed\":true,\"createdAt\":\"2024-01-15T10:30:05\",\"updatedAt\":\"2024-01-15T10:30:05\","
+                    + "\"category\":\"Work\",\"important\":false,\"dueDate\":\"2024-12-31\",\"version\":3}"));
+        }
+
+        @Test
+        @DisplayName("Should write null fields")
+        void shouldWriteNullFields() throws Exception {
+            // Given
+            Todo todo = new Todo();
+            todo.setTitle("Only a title");
+            todo.setCompleted(null);
+
+            // Then
+            assertThat(customMapper.writeValueAsString(todo), is(defaultMapper.writeValueAsString(todo)));
+        }
+
+        @Test
+        @DisplayName("Should write lists and dates outside the four-digit years like the default serialization")
+        void shouldMatchDefaultSerializationForLists() throws Exception {
+            // Given
+            List<Todo> todos = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                todos.add(todo((long) i, LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i * 3_601L), LocalDate.of(2024, 1, 1).plusDays(i % 7)));
+            }
+            todos.add(todo(99L, LocalDateTime.of(12024, 6, 1, 8, 0), LocalDate.of(12024, 6, 1)));
+
+            // Then
+            assertThat(customMapper.writeValueAsString(todos), is(defaultMapper.writeValueAsString(todos)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Category")
+    class CategorySerialization {
+
+        @Test
+        @DisplayName("Should keep the fraction of a second like the default serialization")
+        void shouldMatchDefaultSerialization() throws Exception {
+            for (int nanos : new int[]{0, 100_000_000, 123_000_000, 123_456_000, 123_456_789, 1}) {
+                // Given
+                Category category = new Category(3L, "Work", "Work-related tasks", LocalDateTime.of(2024, 1, 15, 10, 30, 0, nanos));
+
+                // Then
+                assertThat(customMapper.writeValueAsString(category), is(defaultMapper.writeValueAsString(category)));
+            }
+        }
+
+        @Test
+        @DisplayName("Should write null fields")
+        void shouldWriteNullFields() throws Exception {
+            // Given
+            Category category = new Category();
+            category.setName("Unsaved");
+
+            // Then
+            String json = customMapper.writeValueAsString(category);
+            assertThat(json, is(defaultMapper.writeValueAsString(category)));
+            assertThat(json, containsString("\"createdAt\":null"));
+        }
+    }
+
+    private static Todo todo(Long id, LocalDateTime timestamp, LocalDate dueDate) {
+        Todo todo = new Todo("Todo \"" + id + "\"", "Line one\nline two", "Work", false, dueDate);
+        todo.setId(id);
+        todo.setCompleted(true);
+        todo.setCreatedAt(timestamp);
+        todo.setUpdatedAt(timestamp);
+        todo.setVersion(3L);
+        return todo;
+    }
+}
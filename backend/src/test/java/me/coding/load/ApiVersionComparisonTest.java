@@ -0,0 +1,185 @@
+package me.coding.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Compares the resource footprint of listing a large result through {@code /api/v1/todos}
+ * (a materialised JSON array) and {@code /api/v2/todos} (NDJSON streamed from a store cursor).
+ * <p>
+ * {@value #CLIENTS} clients each read the full list of {@value #ROWS} todos, {@value #ROUNDS} times.
+ * While they run, peak used heap, live JVM threads and active Hikari connections are sampled every
+ * few milliseconds. Each run is printed to standard output, followed by the heap the requests took on
+ * top of the idle heap for both versions. v2 holds only the todos in flight per client, so it has to
+ * stay below v1, which holds every client's full list; in exchange it keeps a connection per client
+ * for as long as the client reads, so clients queue for the pool instead.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pperformance-tests -Dtest=ApiVersionComparisonTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "todo.cache.filters.maximum-size=0",
+                // Streaming clients hold their connection until they read the last todo
+                "spring.datasource.hikari.connection-timeout=300000"
+        })
+@Tag("performance")
+@DisplayName("API v1/v2 Resource Comparison Tests")
+class ApiVersionComparisonTest {
+
+    static final int ROWS = 100_000;
+    static final int CLIENTS = 100;
+    static final int ROUNDS = 3;
+    static final long SAMPLE_INTERVAL_MS = 5;
+
+    private static final Map<String, Long> REQUEST_HEAP = new ConcurrentHashMap<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq, 'Todo ' || X, 'Comparison todo number ' || X, MOD(X, 3) = 0, MOD(X, 5) = 0, 'Work',
+                       DATEADD('DAY', MOD(X, 30), CURRENT_DATE), LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "v1, /api/v1/todos, application/json",
+            "v2, /api/v2/todos, application/x-ndjson"
+    })
+    void shouldReportResourceUsage(String version, String path, String accept) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", accept)
+                .timeout(Duration.ofMinutes(5))
+                .build();
+
+        System.gc();
+        long idleHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        Footprint footprint = new Footprint((HikariDataSource) dataSource);
+        long start = System.nanoTime();
+        long bytes;
+        try (ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor()) {
+            sampler.scheduleAtFixedRate(footprint::sample, 0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            bytes = readConcurrently(client, request);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%n[compare] api=%s clients=%d rows=%d rounds=%d elapsed=%d ms bytes=%d "
+                        + "peakHeap=%d MiB peakThreads=%d peakDbConnections=%d%n%n",
+                version, CLIENTS, ROWS, ROUNDS, elapsedMs, bytes,
+                footprint.peakHeap.get() / (1024 * 1024), footprint.peakThreads.get(), footprint.peakConnections.get());
+
+        assertThat(bytes, is(greaterThan(0L)));
+        REQUEST_HEAP.put(version, Math.max(0, footprint.peakHeap.get() - idleHeap));
+    }
+
+    @AfterAll
+    static void compareHeap() {
+        Long v1 = REQUEST_HEAP.get("v1");
+        Long v2 = REQUEST_HEAP.get("v2");
+        if (v1 == null || v2 == null) {
+            return;
+        }
+        System.out.printf("%n[compare] requestHeap v1=%d MiB v2=%d MiB (v2 at %d%% of v1)%n%n",
+                v1 / (1024 * 1024), v2 / (1024 * 1024), v1 > 0 ? v2 * 100 / v1 : 0);
+        assertThat(v2, is(lessThan(v1)));
+    }
+
+    private static long readConcurrently(HttpClient client, HttpRequest request) throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    long read = 0;
+                    byte[] buffer = new byte[8192];
+                    for (int round = 0; round < ROUNDS; round++) {
+                        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        assertThat(response.statusCode(), is(200));
+                        try (InputStream body = response.body()) {
+                            for (int n; (n = body.read(buffer)) != -1; ) {
+                                read += n;
+                            }
+                        }
+                    }
+                    return read;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            return total;
+        }
+    }
+
+    private static final class Footprint {
+
+        private final HikariDataSource dataSource;
+        private final AtomicLong peakHeap = new AtomicLong();
+        private final AtomicInteger peakThreads = new AtomicInteger();
+        private final AtomicInteger peakConnections = new AtomicInteger();
+
+        Footprint(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void sample() {
+            peakHeap.accumulateAndGet(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), Math::max);
+            peakThreads.accumulateAndGet(ManagementFactory.getThreadMXBean().getThreadCount(), Math::max);
+            peakConnections.accumulateAndGet(dataSource.getHikariPoolMXBean().getActiveConnections(), Math::max);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package me.coding.load;
+
+import me.coding.feed.TodoChangeFeed;
+import me.coding.model.Todo;
+import me.coding.service.TodoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Opens {@value #SUBSCRIBERS} idle connections to {@code /api/v1/todos/stream}, reports the heap
+ * they retain and the time one change takes to reach all of them.
+ * <p>
+ * Client and server run in the same JVM, so the heap figure includes the client's sockets and
+ * buffers as well and is an upper bound for the server side.
+ * <p>
+ * Excluded from the default build; run with
+ * {@code mvn test -Pperformance-tests -Dtest=ChangeFeedIdleSubscribersTest} after raising the open
+ * file limit ({@code ulimit -n 65536}).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000"
+        })
+@Tag("performance")
+@DisplayName("Change Feed Idle Subscriber Tests")
+class ChangeFeedIdleSubscribersTest {
+
+    static final int SUBSCRIBERS = 10_000;
+    static final long MAX_BYTES_PER_SUBSCRIBER = 64 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Test
+    void shouldHoldTenThousandIdleSubscribersCheaply() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(SUBSCRIBERS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/todos/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            long baseline = usedHeapAfterGc();
+
+            List<CompletableFuture<HttpResponse<Void>>> connections = new ArrayList<>(SUBSCRIBERS);
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                connections.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new EventCounter(delivered))));
+            }
+            while (changeFeed.subscriberCount() < SUBSCRIBERS) {
+                Thread.sleep(100);
+            }
+
+            long retained = usedHeapAfterGc() - baseline;
+            long perSubscriber = retained / SUBSCRIBERS;
+
+            long start = System.nanoTime();
+            todoService.createTodo(new Todo("Fan-out check", null, "Work"));
+            boolean allDelivered = delivered.await(60, TimeUnit.SECONDS);
+            long fanOutMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%n[feed] subscribers=%d retainedHeap=%d KiB perSubscriber=%d bytes fanOut=%d ms%n%n",
+                    SUBSCRIBERS, retained / 1024, perSubscriber, fanOutMs);
+
+            assertThat(allDelivered, is(true));
+            assertThat(perSubscriber, is(lessThan(MAX_BYTES_PER_SUBSCRIBER)));
+            connections.forEach(connection -> connection.cancel(true));
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Counts down once when the first {@code created} event arrives on a connection.
+     */
+    private static final class EventCounter implements Flow.Subscriber<String> {
+
+        private final CountDownLatch delivered;
+        private boolean seen;
+
+        EventCounter(CountDownLatch delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!seen && line.equals("event:created")) {
+                seen = true;
+                delivered.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package me.coding.load;
+
+import com.sun.management.OperatingSystemMXBean;
+import me.coding.service.CategoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * CPU versus bandwidth of response compression under concurrent load.
+ * <p>
+ * {@value #CLIENTS} clients each read a response {@value #REQUESTS} times, once sending
+ * {@code Accept-Encoding: identity} and once {@code Accept-Encoding: gzip}, so one server compares both.
+ * The todo list is compressed by Tomcat on every request; the category list and the OpenAPI document are
+ * served by {@code PrecompressedResponseFilter}. Bytes are counted as received, before decompression,
+ * and CPU time is that of the whole JVM, client included. The results are printed to standard output.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pperformance-tests -Dtest=CompressionLoadTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "logging.level.root=WARN",
+                "todo.logging.request-sample-rate=0"
+        })
+@Tag("performance")
+@DisplayName("Compression Load Tests")
+class CompressionLoadTest {
+
+    static final int TODOS = 2_000;
+    static final int CATEGORIES = 300;
+    static final int CLIENTS = 50;
+    static final int REQUESTS = 40;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq, 'Todo ' || X, 'Compression todo number ' || X, MOD(X, 3) = 0, MOD(X, 5) = 0, 'Work',
+                       DATEADD('DAY', MOD(X, 30), CURRENT_DATE), LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, TODOS);
+        jdbcTemplate.update("""
+                INSERT INTO categories (name, description, created_at)
+                SELECT 'Category ' || X, 'Load test category number ' || X, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, CATEGORIES);
+        categoryService.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos");
+        jdbcTemplate.update("DELETE FROM categories");
+        categoryService.reload();
+    }
+
+    @ParameterizedTest(name = "{0} {2}")
+    @CsvSource({
+            "todos, /api/v1/todos, identity",
+            "todos, /api/v1/todos, gzip",
+            "categories, /api/v1/categories, identity",
+            "categories, /api/v1/categories, gzip",
+            "api-docs, /v3/api-docs, identity",
+            "api-docs, /v3/api-docs, gzip"
+    })
+    void shouldReportCpuAndBandwidth(String name, String path, String encoding) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", encoding)
+                .timeout(Duration.ofMinutes(1))
+                .build();
+
+        // One warm-up round fills the precompressed cache and the JIT
+        AtomicReference<String> contentEncoding = new AtomicReference<>();
+        read(client, request, contentEncoding);
+
+        OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuStart = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        long bytes = readConcurrently(client, request, contentEncoding);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long cpuMs = (os.getProcessCpuTime() - cpuStart) / 1_000_000;
+        int requests = CLIENTS * REQUESTS;
+
+        System.out.printf("%n[compression] response=%s accept-encoding=%s content-encoding=%s requests=%d "
+                        + "elapsed=%d ms bytes=%d bytesPerResponse=%d cpu=%d ms cpuPerRequest=%.3f ms%n%n",
+                name, encoding, contentEncoding.get(), requests, elapsedMs, bytes, bytes / requests,
+                cpuMs, (double) cpuMs / requests);
+
+        assertThat(bytes, is(greaterThan(0L)));
+        if ("identity".equals(encoding)) {
+            assertThat(contentEncoding.get(), is("none"));
+        }
+    }
+
+    private static long readConcurrently(HttpClient client, HttpRequest request, AtomicReference<String> contentEncoding)
+            throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    long read = 0;
+                    for (int n = 0; n < REQUESTS; n++) {
+                        read += read(client, request, contentEncoding);
+                    }
+                    return read;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            return total;
+        }
+    }
+
+    private static long read(HttpClient client, HttpRequest request, AtomicReference<String> contentEncoding)
+            throws Exception {
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode(), is(200));
+        contentEncoding.set(response.headers().firstValue("Content-Encoding").orElse("none"));
+        long read = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream body = response.body()) {
+            for (int n; (n = body.read(buffer)) != -1; ) {
+                read += n;
+            }
+        }
+        return read;
+    }
+}
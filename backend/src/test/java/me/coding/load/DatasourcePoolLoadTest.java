@@ -0,0 +1,227 @@
+package me.coding.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Open-loop load on the {@code prod} datasource settings: file-backed H2 and the fixed Hikari pool.
+ * Requests are started at a fixed {@value #RATE} per second whether or not earlier ones have completed,
+ * so a starved pool shows up as growing latency and connection timeouts instead of a lower request rate.
+ * Latency is measured from the time each request was due.
+ * <p>
+ * The mix is 60% filtered list pages, 20% reads by id, 10% creations and 10% patches. Both caches are
+ * disabled so every read reaches JDBC. While it runs, threads waiting for a connection and active
+ * connections are sampled. The test fails on any error or connection timeout.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pperformance-tests -Dtest=DatasourcePoolLoadTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "logging.level.root=WARN",
+                "todo.logging.request-sample-rate=0",
+                "todo.cache.ids.maximum-size=0",
+                "todo.cache.filters.maximum-size=0"
+        })
+@ActiveProfiles("prod")
+@Tag("performance")
+@DisplayName("Datasource Pool Load Tests")
+class DatasourcePoolLoadTest {
+
+    static final int RATE = 500;
+    static final int ROWS = 10_000;
+    static final Duration WARMUP = Duration.ofSeconds(10);
+    static final Duration MEASUREMENT = Duration.ofSeconds(30);
+    static final long SAMPLE_INTERVAL_MS = 5;
+
+    private static final String[] CATEGORIES = {"Work", "Personal", "Shopping", "Health"};
+
+    @TempDir
+    static Path databaseDirectory;
+
+    @DynamicPropertySource
+    static void databaseDirectory(DynamicPropertyRegistry registry) {
+        registry.add("TODO_DB_DIR", () -> databaseDirectory.toString());
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long minId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq, 'Todo ' || X, 'Pool test todo number ' || X, MOD(X, 3) = 0, MOD(X, 5) = 0,
+                       CASEWHEN(MOD(X, 4) = 0, 'Work', CASEWHEN(MOD(X, 4) = 1, 'Personal', CASEWHEN(MOD(X, 4) = 2, 'Shopping', 'Health'))),
+                       DATEADD('DAY', MOD(X, 30), CURRENT_DATE), LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+        minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM todos", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos");
+    }
+
+    @Test
+    @DisplayName("Should serve 500 mixed requests per second without starving the pool")
+    void shouldNotStarveThePool() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+
+        run(client, WARMUP, new TodoApiLoadTest.LatencyHistogram());
+
+        double timeoutsBefore = connectionTimeouts();
+        TodoApiLoadTest.LatencyHistogram histogram = new TodoApiLoadTest.LatencyHistogram();
+        PoolSampler pool = new PoolSampler(hikari.getHikariPoolMXBean());
+        Result result;
+        try (ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor()) {
+            sampler.scheduleAtFixedRate(pool::sample, 0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            result = run(client, MEASUREMENT, histogram);
+        }
+        double timeouts = connectionTimeouts() - timeoutsBefore;
+
+        System.out.printf("%n[pool] rate=%d req/s duration=%ds requests=%d errors=%d poolSize=%d "
+                        + "peakActive=%d peakWaiting=%d connectionTimeouts=%.0f p50=%d ms p99=%d ms max=%d ms%n%n",
+                RATE, MEASUREMENT.toSeconds(), result.completed(), result.errors(), hikari.getMaximumPoolSize(),
+                pool.peakActive.get(), pool.peakWaiting.get(), timeouts,
+                histogram.percentile(0.50), histogram.percentile(0.99), histogram.max());
+
+        assertThat(result.errors(), is(0L));
+        assertThat(result.completed(), is((long) RATE * MEASUREMENT.toSeconds()));
+        assertThat(timeouts, is(0.0));
+    }
+
+    private Result run(HttpClient client, Duration duration, TodoApiLoadTest.LatencyHistogram histogram) {
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long requests = RATE * duration.toSeconds();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + i * intervalNanos;
+                LockSupport.parkNanos(due - System.nanoTime());
+                HttpRequest request = nextRequest();
+                senders.submit(() -> {
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.increment();
+                            return;
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                        return;
+                    }
+                    histogram.record(System.nanoTime() - due);
+                    completed.increment();
+                });
+            }
+        }
+        return new Result(completed.sum(), errors.sum());
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = minId + random.nextInt(ROWS);
+        int pick = random.nextInt(10);
+
+        if (pick == 0) {
+            return request("/api/v1/todos")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Pool test\",\"category\":\""
+                            + CATEGORIES[random.nextInt(CATEGORIES.length)] + "\"}"))
+                    .build();
+        }
+        if (pick == 1) {
+            return request("/api/v1/todos/" + id)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"important\":" + random.nextBoolean() + "}"))
+                    .build();
+        }
+        if (pick < 4) {
+            return request("/api/v1/todos/" + id).GET().build();
+        }
+        return request("/api/v1/todos?limit=50&completed=false&category=" + CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(TodoApiLoadTest.REQUEST_TIMEOUT);
+    }
+
+    private double connectionTimeouts() {
+        Counter counter = meterRegistry.find("hikaricp.connections.timeout").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private record Result(long completed, long errors) {
+    }
+
+    private static final class PoolSampler {
+
+        private final HikariPoolMXBean pool;
+        private final AtomicInteger peakActive = new AtomicInteger();
+        private final AtomicInteger peakWaiting = new AtomicInteger();
+
+        PoolSampler(HikariPoolMXBean pool) {
+            this.pool = pool;
+        }
+
+        void sample() {
+            peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+            peakWaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package me.coding.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Requests handled by Tomcat's default pool of 200 platform threads.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+@DisplayName("Platform Thread Load Tests")
+class PlatformThreadLoadTest extends TodoApiLoadTest {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,211 @@
+package me.coding.load;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Closed-loop HTTP load harness: {@value #CLIENTS} concurrent clients, each on its own virtual
+ * thread, send requests back to back for {@link #MEASUREMENT} and report throughput and latency
+ * percentiles. Subclasses fix the server's execution mode so both can be compared on one machine.
+ * <p>
+ * The workload reads first pages of a filtered list and single todos by id, and patches one request
+ * in ten. Both caches are disabled so every request reaches JDBC. The report is printed to standard
+ * output; the test only fails if no request completed.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pperformance-tests -Dtest='*ThreadLoadTest'}.
+ * The client and server together hold about 20k sockets, so raise the open file limit first
+ * ({@code ulimit -n 65536}). Add {@code -Djdk.tracePinnedThreads=short} to the surefire argLine to
+ * log any virtual thread that blocks while pinned.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "todo.cache.ids.maximum-size=0",
+                "todo.cache.filters.maximum-size=0",
+                // Accept every client connection so requests queue for a thread, not a socket
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000"
+        })
+@Tag("performance")
+abstract class TodoApiLoadTest {
+
+    static final int CLIENTS = 10_000;
+    static final int ROWS = 10_000;
+    static final Duration WARMUP = Duration.ofSeconds(10);
+    static final Duration MEASUREMENT = Duration.ofSeconds(30);
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final String[] CATEGORIES = {"Work", "Personal", "Shopping", "Health"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long minId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq, 'Todo ' || X, 'Load test todo number ' || X, MOD(X, 3) = 0, MOD(X, 5) = 0,
+                       CASEWHEN(MOD(X, 4) = 0, 'Work', CASEWHEN(MOD(X, 4) = 1, 'Personal', CASEWHEN(MOD(X, 4) = 2, 'Shopping', 'Health'))),
+                       DATEADD('DAY', MOD(X, 30), CURRENT_DATE), LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+        minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM todos", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos");
+    }
+
+    /** Name of the execution mode under test, used in the report */
+    abstract String mode();
+
+    @Test
+    void shouldServeTenThousandConcurrentClients() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        run(client, WARMUP, new LatencyHistogram());
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        Result result = run(client, MEASUREMENT, histogram);
+
+        System.out.printf("%n[load] mode=%s clients=%d duration=%ds requests=%d errors=%d throughput=%.0f req/s "
+                        + "p50=%d ms p90=%d ms p99=%d ms max=%d ms%n%n",
+                mode(), CLIENTS, MEASUREMENT.toSeconds(), result.completed(), result.errors(),
+                result.completed() / (double) MEASUREMENT.toSeconds(),
+                histogram.percentile(0.50), histogram.percentile(0.90), histogram.percentile(0.99), histogram.max());
+
+        assertThat(result.completed(), is(greaterThan(0L)));
+    }
+
+    private Result run(HttpClient client, Duration duration, LatencyHistogram histogram) throws Exception {
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(nextRequest(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        histogram.record(System.nanoTime() - start);
+                        completed.increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Result(completed.sum(), errors.sum());
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = minId + random.nextInt(ROWS);
+        int pick = random.nextInt(10);
+
+        if (pick == 0) {
+            return request("/api/v1/todos/" + id)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"important\":" + random.nextBoolean() + "}"))
+                    .build();
+        }
+        if (pick < 5) {
+            return request("/api/v1/todos/" + id).GET().build();
+        }
+        return request("/api/v1/todos?limit=50&completed=false&category=" + CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private record Result(long completed, long errors) {
+    }
+
+    /**
+     * Millisecond-resolution latency histogram; anything slower than the request timeout lands in
+     * the last bucket.
+     */
+    static final class LatencyHistogram {
+
+        private final AtomicLongArray counts = new AtomicLongArray((int) REQUEST_TIMEOUT.toMillis() + 1);
+
+        void record(long nanos) {
+            int bucket = (int) Math.min(Duration.ofNanos(nanos).toMillis(), counts.length() - 1);
+            counts.incrementAndGet(bucket);
+        }
+
+        long percentile(double quantile) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank && seen > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        long max() {
+            for (int i = counts.length() - 1; i >= 0; i--) {
+                if (counts.get(i) > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package me.coding.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Requests handled on one virtual thread each; concurrent JDBC work is bounded by the Hikari pool.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+@DisplayName("Virtual Thread Load Tests")
+class VirtualThreadLoadTest extends TodoApiLoadTest {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,132 @@
+package me.coding.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Request Logging Tests")
+class RequestLogFilterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Nested
+    @DisplayName("Sampling")
+    class Sampling {
+
+        @Test
+        @DisplayName("Should always log errors, slow requests and requests with SQL logging")
+        void shouldAlwaysLogNotableRequests() {
+            // Given
+            RequestLogFilter filter = new RequestLogFilter(0, Duration.ofSeconds(1), true);
+
+            // Then
+            assertThat(filter.reason(500, 5 * MILLIS, false), is("error"));
+            assertThat(filter.reason(200, 1500 * MILLIS, false), is("slow"));
+            assertThat(filter.reason(200, 5 * MILLIS, true), is("sql"));
+            assertThat(filter.reason(404, 5 * MILLIS, false), is(nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should log the configured share of other requests")
+        void shouldLogConfiguredShare() {
+            // Given
+            RequestLogFilter everything = new RequestLogFilter(1, Duration.ofSeconds(1), true);
+            RequestLogFilter nothing = new RequestLogFilter(0, Duration.ofSeconds(1), true);
+
+            // Then
+            for (int i = 0; i < 100; i++) {
+                assertThat(everything.reason(200, 5 * MILLIS, false), is("sampled"));
+                assertThat(nothing.reason(200, 5 * MILLIS, false), is(nullValue()));
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject sample rates outside 0 to 1")
+        void shouldRejectInvalidSampleRate() {
+            assertThrows(IllegalArgumentException.class, () -> new RequestLogFilter(1.5, Duration.ofSeconds(1), true));
+            assertThrows(IllegalArgumentException.class, () -> new RequestLogFilter(-0.1, Duration.ofSeconds(1), true));
+        }
+    }
+
+    @Nested
+    @DisplayName("SQL logging per request")
+    class SqlPerRequest {
+
+        @Test
+        @DisplayName("Should mark requests asking for SQL logging for the duration of the request")
+        void shouldMarkRequestsAskingForSql() throws Exception {
+            // Given
+            RequestLogFilter filter = new RequestLogFilter(0, Duration.ofSeconds(1), true);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/todos");
+            request.addHeader(RequestLogFilter.SQL_LOG_HEADER, "true");
+            AtomicReference<String> marker = new AtomicReference<>();
+            FilterChain chain = (req, res) -> marker.set(MDC.get(SqlLogTurboFilter.MDC_KEY));
+
+            // When
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            // Then
+            assertThat(marker.get(), is("true"));
+            assertThat(MDC.get(SqlLogTurboFilter.MDC_KEY), is(nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should ignore the header when SQL logging per request is off")
+        void shouldIgnoreHeaderWhenDisabled() throws Exception {
+            // Given
+            RequestLogFilter filter = new RequestLogFilter(0, Duration.ofSeconds(1), false);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/todos");
+            request.addHeader(RequestLogFilter.SQL_LOG_HEADER, "true");
+            AtomicReference<String> marker = new AtomicReference<>("unset");
+            FilterChain chain = (req, res) -> marker.set(MDC.get(SqlLogTurboFilter.MDC_KEY));
+
+            // When
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            // Then
+            assertThat(marker.get(), is(nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should let Hibernate's SQL loggers through only while the request is marked")
+        void shouldAcceptSqlLoggersOnlyWhenMarked() {
+            // Given
+            LoggerContext context = new LoggerContext();
+            SqlLogTurboFilter turboFilter = new SqlLogTurboFilter();
+            ch.qos.logback.classic.Logger statements = context.getLogger(SqlLogTurboFilter.STATEMENT_LOGGER);
+            ch.qos.logback.classic.Logger binds = context.getLogger(SqlLogTurboFilter.BIND_LOGGER);
+            ch.qos.logback.classic.Logger other = context.getLogger("me.coding.service.TodoService");
+
+            // Then
+            assertThat(turboFilter.decide(null, statements, Level.DEBUG, "select", null, null), is(FilterReply.NEUTRAL));
+
+            // When
+            MDC.put(SqlLogTurboFilter.MDC_KEY, "true");
+
+            // Then
+            assertThat(turboFilter.decide(null, statements, Level.DEBUG, "select", null, null), is(FilterReply.ACCEPT));
+            assertThat(turboFilter.decide(null, binds, Level.TRACE, "binding", null, null), is(FilterReply.ACCEPT));
+            assertThat(turboFilter.decide(null, other, Level.DEBUG, "debug", null, null), is(FilterReply.NEUTRAL));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package me.coding.repository;
+
+import me.coding.model.Todo;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Query-plan regression tests for the todos indexes.
+ * <p>
+ * Each test runs a repository method, captures the SQL Hibernate generated for it, binds the
+ * arguments as literals and asks H2 for the plan. A plan containing {@code tableScan} means a
+ * filter combination is no longer covered by an index in {@code db/migration}.
+ * <p>
+ * {@code findAll()}, the export stream and the LIKE search queries scan by design and are not covered.
+ */
+@DataJpaTest
+@Import(TodoQueryPlanTest.StatementCaptureConfig.class)
+@DisplayName("Todo Query Plan Tests")
+class TodoQueryPlanTest {
+
+    private static final RecordingStatementInspector STATEMENTS = new RecordingStatementInspector();
+
+    private static final LocalDate DUE = LocalDate.of(2024, 12, 31);
+
+    /**
+     * Imported rather than detected as a nested {@code @TestConfiguration}, which only the outer class
+     * would see; this way the {@code @Nested} classes share the outer class's context and transaction.
+     */
+    static class StatementCaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, STATEMENTS);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persistAndFlush(new Todo("Plan check", "Row so the planner sees a non-empty table", "Work", true, DUE));
+        entityManager.clear();
+    }
+
+    @Nested
+    @DisplayName("Derived queries")
+    class DerivedQueries {
+
+        @Test
+        @DisplayName("Should use an index for completion status queries")
+        void shouldUseIndexForCompletionStatusQueries() {
+            assertUsesIndex(() -> todoRepository.findByCompleted(false), false);
+            assertUsesIndex(() -> todoRepository.findByCompletedOrderByCreatedAtDesc(false), false);
+        }
+
+        @Test
+        @DisplayName("Should use an index for category queries")
+        void shouldUseIndexForCategoryQueries() {
+            assertUsesIndex(() -> todoRepository.findByCategory("Work"), "Work");
+            assertUsesIndex(() -> todoRepository.findByCategoryAndCompleted("Work", false), "Work", false);
+        }
+
+        @Test
+        @DisplayName("Should use an index for important queries")
+        void shouldUseIndexForImportantQueries() {
+            assertUsesIndex(() -> todoRepository.findByImportant(true), true);
+            assertUsesIndex(() -> todoRepository.findByImportantAndCompleted(true, false), true, false);
+            assertUsesIndex(() -> todoRepository.findByImportantAndCategory(true, "Work"), true, "Work");
+            assertUsesIndex(() -> todoRepository.findByImportantAndCategoryAndCompleted(true, "Work", false),
+                    true, "Work", false);
+        }
+
+        @Test
+        @DisplayName("Should use an index for due date queries")
+        void shouldUseIndexForDueDateQueries() {
+            assertUsesIndex(() -> todoRepository.findByDueDate(DUE), DUE);
+            assertUsesIndex(() -> todoRepository.findByDueDateAndCompleted(DUE, false), DUE, false);
+            assertUsesIndex(() -> todoRepository.findByDueDateAndImportant(DUE, true), DUE, true);
+            assertUsesIndex(() -> todoRepository.findByDueDateAndCategory(DUE, "Work"), DUE, "Work");
+            assertUsesIndex(() -> todoRepository.findByDueDateAndImportantAndCompleted(DUE, true, false),
+                    DUE, true, false);
+            assertUsesIndex(() -> todoRepository.findByDueDateAndCategoryAndCompleted(DUE, "Work", false),
+                    DUE, "Work", false);
+            assertUsesIndex(() -> todoRepository.findByDueDateAndImportantAndCategory(DUE, true, "Work"),
+                    DUE, true, "Work");
+            assertUsesIndex(() -> todoRepository.findByDueDateAndImportantAndCategoryAndCompleted(DUE, true, "Work", false),
+                    DUE, true, "Work", false);
+            assertUsesIndex(() -> todoRepository.findByDueDateBetween(DUE, DUE.plusDays(7)), DUE, DUE.plusDays(7));
+            assertUsesIndex(() -> todoRepository.findByDueDateIsNull());
+        }
+
+        @Test
+        @DisplayName("Should use an index for today's todos")
+        void shouldUseIndexForTodaysTodos() {
+            assertUsesIndex(() -> todoRepository.findTodaysTodos());
+            assertUsesIndex(() -> todoRepository.findTodaysTodosByCompleted(false), false);
+        }
+    }
+
+    @Nested
+    @DisplayName("Specification queries")
+    class SpecificationQueries {
+
+        @Test
+        @DisplayName("Should use an index for every non-empty filter combination")
+        void shouldUseIndexForEveryNonEmptyFilterCombination() {
+            for (int mask = 1; mask < 16; mask++) {
+                TodoFilter filter = TodoFilter.of(
+                        (mask & 1) != 0 ? Boolean.FALSE : null,
+                        (mask & 2) != 0 ? "Work" : null,
+                        (mask & 4) != 0 ? Boolean.TRUE : null,
+                        (mask & 8) != 0 ? DUE : null);
+
+                // Bind order follows TodoSpecifications.matching: dueDate, important, category, completed
+                List<Object> args = new ArrayList<>();
+                if (filter.dueDate() != null) args.add(filter.dueDate());
+                if (filter.important() != null) args.add(filter.important());
+                if (filter.category() != null) args.add(filter.category());
+                if (filter.completed() != null) args.add(filter.completed());
+
+                assertUsesIndex(() -> todoRepository.findAll(TodoSpecifications.matching(filter)), args.toArray());
+            }
+        }
+
+        @Test
+        @DisplayName("Should use an index for keyset pages after a cursor")
+        void shouldUseIndexForKeysetPages() {
+            TodoCursor cursor = new TodoCursor(LocalDateTime.of(2024, 1, 15, 10, 30), 42L);
+
+            assertUsesIndex(() -> todoRepository.findPage(TodoSpecifications.matching(TodoFilter.NONE), cursor, 20),
+                    cursor.createdAt(), cursor.createdAt(), cursor.id());
+        }
+    }
+
+    private void assertUsesIndex(Runnable query, Object... args) {
+        STATEMENTS.clear();
+        query.run();
+        String sql = STATEMENTS.lastSelect();
+
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + bindLiterals(sql, args))
+                .getSingleResult());
+
+        assertThat("Plan for: " + sql, plan, not(containsStringIgnoringCase("tableScan")));
+    }
+
+    /**
+     * Replaces the JDBC placeholders with literals. Placeholders beyond {@code args} are row limits
+     * rendered by the dialect and are bound to a small constant.
+     */
+    private static String bindLiterals(String sql, Object... args) {
+        StringBuilder bound = new StringBuilder(sql.length() + 32);
+        int next = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c != '?') {
+                bound.append(c);
+            } else if (next < args.length) {
+                bound.append(literal(args[next++]));
+            } else {
+                bound.append(20);
+            }
+        }
+        assertThat("Unbound arguments for: " + sql, next, is(args.length));
+        return bound.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof String s) {
+            return "'" + s.replace("'", "''") + "'";
+        }
+        if (value instanceof LocalDate date) {
+            return "DATE '" + date + "'";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return "TIMESTAMP '" + dateTime.toString().replace('T', ' ') + "'";
+        }
+        return String.valueOf(value);
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        String lastSelect() {
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                String sql = statements.get(i);
+                if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                    return sql;
+                }
+            }
+            throw new AssertionError("No SELECT statement captured");
+        }
+    }
+}
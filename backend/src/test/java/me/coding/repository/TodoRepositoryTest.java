@@ -1,6 +1,9 @@
 package me.coding.repository;
 
+import jakarta.persistence.Tuple;
+import me.coding.dto.TodoUpdateRequest;
 import me.coding.model.Todo;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,8 +11,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -480,4 +485,215 @@ class TodoRepositoryTest {
             assertThat(nonMatchingTodos, is(empty()));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Specification Queries")
+    class SpecificationQueries {
+
+        @Test
+        @DisplayName("Should match derived queries for every filter combination")
+        void shouldMatchDerivedQueriesForEveryFilterCombination() {
+            LocalDate today = LocalDate.now();
+
+            assertThat(findMatching(null, null, null, null), containsInAnyOrder(todoRepository.findAll().toArray()));
+            assertThat(findMatching(false, null, null, null), containsInAnyOrder(todoRepository.findByCompleted(false).toArray()));
+            assertThat(findMatching(null, "Work", null, null), containsInAnyOrder(todoRepository.findByCategory("Work").toArray()));
+            assertThat(findMatching(null, null, true, null), containsInAnyOrder(todoRepository.findByImportant(true).toArray()));
+            assertThat(findMatching(null, null, null, today), containsInAnyOrder(todoRepository.findByDueDate(today).toArray()));
+            assertThat(findMatching(false, "Work", null, null),
+                containsInAnyOrder(todoRepository.findByCategoryAndCompleted("Work", false).toArray()));
+            assertThat(findMatching(false, null, true, null),
+                containsInAnyOrder(todoRepository.findByImportantAndCompleted(true, false).toArray()));
+            assertThat(findMatching(null, "Work", true, null),
+                containsInAnyOrder(todoRepository.findByImportantAndCategory(true, "Work").toArray()));
+            assertThat(findMatching(false, "Work", true, null),
+                containsInAnyOrder(todoRepository.findByImportantAndCategoryAndCompleted(true, "Work", false).toArray()));
+            assertThat(findMatching(false, null, null, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndCompleted(today, false).toArray()));
+            assertThat(findMatching(null, null, false, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndImportant(today, false).toArray()));
+            assertThat(findMatching(null, "Work", null, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndCategory(today, "Work").toArray()));
+            assertThat(findMatching(false, null, true, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndImportantAndCompleted(today, true, false).toArray()));
+            assertThat(findMatching(false, "Work", null, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndCategoryAndCompleted(today, "Work", false).toArray()));
+            assertThat(findMatching(null, "Work", true, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndImportantAndCategory(today, true, "Work").toArray()));
+            assertThat(findMatching(false, "Work", true, today),
+                containsInAnyOrder(todoRepository.findByDueDateAndImportantAndCategoryAndCompleted(today, true, "Work", false).toArray()));
+        }
+
+        @Test
+        @DisplayName("Should trim category and ignore blank category filters")
+        void shouldTrimCategoryAndIgnoreBlankCategoryFilters() {
+            // When
+            List<Todo> paddedCategory = findMatching(null, "  Work ", null, null);
+            List<Todo> blankCategory = findMatching(true, "   ", null, null);
+
+            // Then
+            assertThat(paddedCategory, hasSize(3));
+            assertThat(paddedCategory, hasItems(workTodo, importantTodo, todayTodo));
+            assertThat(blankCategory, contains(completedTodo));
+        }
+
+        private List<Todo> findMatching(Boolean completed, String category, Boolean important, LocalDate dueDate) {
+            return todoRepository.findAll(TodoSpecifications.matching(TodoFilter.of(completed, category, important, dueDate)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset Pagination")
+    class KeysetPagination {
+
+        @Test
+        @DisplayName("Should walk all todos page by page without gaps or duplicates")
+        void shouldWalkAllTodosPageByPage() {
+            // When
+            List<Todo> firstPage = todoRepository.findPage(Specification.where(null), null, 2);
+            List<Todo> secondPage = todoRepository.findPage(Specification.where(null), TodoCursor.of(firstPage.get(1)), 2);
+            List<Todo> thirdPage = todoRepository.findPage(Specification.where(null), TodoCursor.of(secondPage.get(1)), 2);
+
+            // Then
+            assertThat(firstPage, contains(workTodo, personalTodo));
+            assertThat(secondPage, contains(completedTodo, importantTodo));
+            assertThat(thirdPage, contains(todayTodo));
+        }
+
+        @Test
+        @DisplayName("Should combine keyset with filters")
+        void shouldCombineKeysetWithFilters() {
+            // Given
+            Specification<Todo> spec = TodoSpecifications.matching(TodoFilter.of(false, "Work", null, null));
+
+            // When
+            List<Todo> firstPage = todoRepository.findPage(spec, null, 1);
+            List<Todo> rest = todoRepository.findPage(spec, TodoCursor.of(firstPage.get(0)), 10);
+
+            // Then
+            assertThat(firstPage, contains(workTodo));
+            assertThat(rest, contains(importantTodo, todayTodo));
+        }
+
+        @Test
+        @DisplayName("Should round-trip cursor through its opaque encoding")
+        void shouldRoundTripCursorThroughOpaqueEncoding() {
+            // Given
+            TodoCursor cursor = TodoCursor.of(workTodo);
+
+            // When
+            TodoCursor decoded = TodoCursor.decode(cursor.encode());
+
+            // Then
+            assertThat(decoded, is(equalTo(cursor)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Projections")
+    class Projections {
+
+        @Test
+        @DisplayName("Should read only the selected fields without loading entities")
+        void shouldReadOnlySelectedFields() {
+            // Given
+            entityManager.clear();
+
+            // When
+            List<Tuple> tuples = todoRepository.findFields(TodoSpecifications.idIn(List.of(workTodo.getId())),
+                    List.of(TodoField.ID, TodoField.TITLE, TodoField.COMPLETED));
+
+            // Then
+            assertThat(tuples, hasSize(1));
+            assertThat(tuples.get(0).getElements(), hasSize(3));
+            assertThat(tuples.get(0).get("id", Long.class), is(workTodo.getId()));
+            assertThat(tuples.get(0).get("title"), is("Complete project"));
+            assertThat(tuples.get(0).get("completed"), is(false));
+            Session session = entityManager.getEntityManager().unwrap(Session.class);
+            assertThat(session.getStatistics().getEntityCount(), is(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Single-Statement Writes")
+    class SingleStatementWrites {
+
+        @Test
+        @DisplayName("Should update only the present fields and touch updatedAt")
+        void shouldUpdateOnlyPresentFields() {
+            // Given
+            Long id = workTodo.getId();
+            LocalDateTime previousUpdate = workTodo.getUpdatedAt();
+            TodoUpdateRequest changes = new TodoUpdateRequest();
+            changes.setCompleted(true);
+            changes.setTitle("Project done");
+            entityManager.clear();
+
+            // When
+            int updated = todoRepository.patch(id, changes);
+            entityManager.clear();
+            Todo patched = todoRepository.findById(id).orElseThrow();
+
+            // Then
+            assertThat(updated, is(1));
+            assertThat(patched.getCompleted(), is(true));
+            assertThat(patched.getTitle(), is("Project done"));
+            assertThat(patched.getDescription(), is("Finish the project documentation"));
+            assertThat(patched.getCategory(), is("Work"));
+            assertThat(patched.getImportant(), is(false));
+            assertThat(patched.getUpdatedAt(), is(greaterThanOrEqualTo(previousUpdate)));
+        }
+
+        @Test
+        @DisplayName("Should increment the version and honour an expected version")
+        void shouldIncrementVersionAndHonourExpectedVersion() {
+            // Given
+            Long id = workTodo.getId();
+            long initialVersion = workTodo.getVersion();
+            TodoUpdateRequest changes = new TodoUpdateRequest();
+            changes.setCompleted(true);
+            changes.setVersion(initialVersion);
+            entityManager.clear();
+
+            // When
+            int first = todoRepository.patch(id, changes);
+            int stale = todoRepository.patch(id, changes);
+            entityManager.clear();
+
+            // Then
+            assertThat(first, is(1));
+            assertThat(stale, is(0));
+            assertThat(todoRepository.findVersionById(id).orElseThrow(), is(initialVersion + 1));
+            assertThat(todoRepository.findVersionById(Long.MAX_VALUE).isPresent(), is(false));
+        }
+
+        @Test
+        @DisplayName("Should report zero rows when patching a missing todo")
+        void shouldReportZeroRowsWhenPatchingMissingTodo() {
+            // Given
+            TodoUpdateRequest changes = new TodoUpdateRequest();
+            changes.setCompleted(true);
+
+            // When & Then
+            assertThat(todoRepository.patch(Long.MAX_VALUE, changes), is(0));
+        }
+
+        @Test
+        @DisplayName("Should delete by id and report the affected row count")
+        void shouldDeleteByIdAndReportRowCount() {
+            // Given
+            Long id = workTodo.getId();
+            entityManager.clear();
+
+            // When
+            int deleted = todoRepository.deleteTodoById(id);
+            int deletedAgain = todoRepository.deleteTodoById(id);
+
+            // Then
+            assertThat(deleted, is(1));
+            assertThat(deletedAgain, is(0));
+            assertThat(todoRepository.findById(id).isPresent(), is(false));
+            assertThat(todoRepository.count(), is(4L));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package me.coding.search;
+
+import me.coding.model.Todo;
+import me.coding.service.TodoChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisplayName("AppliedVersions Tests")
+class AppliedVersionsTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private AppliedVersions appliedVersions;
+
+    @BeforeEach
+    void setUp() {
+        appliedVersions = new AppliedVersions(nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should apply events at or above the held version")
+    void shouldApplyEventsAtOrAboveHeldVersion() {
+        assertThat(appliedVersions.accept(patched(1L, 3L), 2L), is(true));
+        assertThat(appliedVersions.accept(patched(1L, 3L), 3L), is(true));
+        assertThat(appliedVersions.accept(patched(1L, 2L), 3L), is(false));
+        assertThat(appliedVersions.accept(patched(2L, 0L), null), is(true));
+        assertThat(appliedVersions.accept(patched(3L, null), 5L), is(true));
+    }
+
+    @Test
+    @DisplayName("Should reject changes of a deleted todo until its tombstone expires")
+    void shouldRejectChangesOfDeletedTodoUntilTombstoneExpires() {
+        // Given
+        appliedVersions.accept(TodoChangedEvent.deleted(1L), 4L);
+
+        // When & Then
+        assertThat(appliedVersions.accept(patched(1L, 5L), null), is(false));
+        nanos.addAndGet(AppliedVersions.TOMBSTONE_TTL.toNanos());
+        assertThat(appliedVersions.accept(patched(1L, 5L), null), is(true));
+        assertThat(appliedVersions.tombstones(), is(0));
+    }
+
+    @Test
+    @DisplayName("Should keep only the tombstones of recent deletions")
+    void shouldKeepOnlyRecentTombstones() {
+        // Given
+        for (long id = 1; id <= 100; id++) {
+            appliedVersions.accept(TodoChangedEvent.deleted(id), 0L);
+        }
+        nanos.addAndGet(AppliedVersions.TOMBSTONE_TTL.toNanos() / 2);
+        appliedVersions.accept(TodoChangedEvent.deleted(101L), 0L);
+        appliedVersions.accept(TodoChangedEvent.deleted(1L), null);
+
+        // When
+        nanos.addAndGet(AppliedVersions.TOMBSTONE_TTL.toNanos() / 2);
+        boolean accepted = appliedVersions.accept(patched(50L, 1L), null);
+
+        // Then
+        assertThat(accepted, is(true));
+        assertThat(appliedVersions.tombstones(), is(2));
+        assertThat(appliedVersions.accept(patched(1L, 1L), null), is(false));
+        assertThat(appliedVersions.accept(patched(101L, 1L), null), is(false));
+    }
+
+    private static TodoChangedEvent patched(Long id, Long version) {
+        Todo todo = new Todo("Todo " + id, null);
+        todo.setId(id);
+        todo.setVersion(version);
+        return TodoChangedEvent.patched(todo);
+    }
+}
@@ -0,0 +1,205 @@
+package me.coding.search;
+
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoChangedEvent;
+import me.coding.store.TodoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoFilterIndex Tests")
+class TodoFilterIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private TodoStore todoStore;
+
+    @InjectMocks
+    private TodoFilterIndex filterIndex;
+
+    private Todo report;
+    private Todo invoice;
+    private Todo plants;
+
+    @BeforeEach
+    void setUp() {
+        report = todo(1L, "Write report", "Work", false, true, TODAY);
+        invoice = todo(2L, "Send invoice", "Work", true, false, TODAY);
+        plants = todo(3L, "Water plants", "Home", false, false, null);
+        when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(report, invoice, plants));
+        filterIndex.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Filtering")
+    class Filtering {
+
+        @Test
+        @DisplayName("Should find ids matching each attribute in ascending order")
+        void shouldFindIdsMatchingEachAttribute() {
+            assertThat(ids(TodoFilter.NONE), contains(1L, 2L, 3L));
+            assertThat(ids(TodoFilter.of(false, null, null, null)), contains(1L, 3L));
+            assertThat(ids(TodoFilter.of(null, "Work", null, null)), contains(1L, 2L));
+            assertThat(ids(TodoFilter.of(null, null, true, null)), contains(1L));
+            assertThat(ids(TodoFilter.of(null, null, null, TODAY)), contains(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("Should intersect combined filters")
+        void shouldIntersectCombinedFilters() {
+            assertThat(ids(TodoFilter.of(false, "Work", null, null)), contains(1L));
+            assertThat(ids(TodoFilter.of(false, "Work", false, TODAY)), is(empty()));
+            assertThat(ids(TodoFilter.of(true, "Work", false, TODAY)), contains(2L));
+        }
+
+        @Test
+        @DisplayName("Should match nothing for unknown values")
+        void shouldMatchNothingForUnknownValues() {
+            assertThat(ids(TodoFilter.of(null, "Unknown", null, null)), is(empty()));
+            assertThat(ids(TodoFilter.of(false, null, null, TODAY.plusDays(1))), is(empty()));
+        }
+
+        @Test
+        @DisplayName("Should count matching todos")
+        void shouldCountMatchingTodos() {
+            assertThat(filterIndex.count(TodoFilter.NONE).getAsLong(), is(3L));
+            assertThat(filterIndex.count(TodoFilter.of(false, null, null, null)).getAsLong(), is(2L));
+            assertThat(filterIndex.count(TodoFilter.of(false, "Work", null, null)).getAsLong(), is(1L));
+            assertThat(filterIndex.count(TodoFilter.of(true, "Work", false, TODAY)).getAsLong(), is(1L));
+            assertThat(filterIndex.count(TodoFilter.of(null, "Unknown", null, null)).getAsLong(), is(0L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance")
+    class Maintenance {
+
+        @Test
+        @DisplayName("Should move a changed todo between bitmaps")
+        void shouldMoveChangedTodoBetweenBitmaps() {
+            // Given
+            Todo moved = todo(1L, "Write report", "Home", true, true, null);
+
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.patched(moved));
+
+            // Then
+            assertThat(ids(TodoFilter.of(null, "Work", null, null)), contains(2L));
+            assertThat(ids(TodoFilter.of(null, "Home", null, null)), contains(1L, 3L));
+            assertThat(ids(TodoFilter.of(true, null, null, null)), contains(1L, 2L));
+            assertThat(ids(TodoFilter.of(null, null, null, TODAY)), contains(2L));
+            assertThat(filterIndex.size(), is(3));
+        }
+
+        @Test
+        @DisplayName("Should index created todos")
+        void shouldIndexCreatedTodos() {
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.created(todo(4L, "Book flights", "Travel", false, false, null)));
+
+            // Then
+            assertThat(ids(TodoFilter.of(null, "Travel", null, null)), contains(4L));
+            assertThat(filterIndex.count(TodoFilter.of(false, null, null, null)).getAsLong(), is(3L));
+        }
+
+        @Test
+        @DisplayName("Should remove deleted todos")
+        void shouldRemoveDeletedTodos() {
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.deleted(2L));
+
+            // Then
+            assertThat(ids(TodoFilter.of(true, null, null, null)), is(empty()));
+            assertThat(ids(TodoFilter.of(null, "Work", null, null)), contains(1L));
+            assertThat(filterIndex.size(), is(2));
+        }
+
+        @Test
+        @DisplayName("Should ignore events older than the applied version")
+        void shouldIgnoreStaleEvents() {
+            // Given
+            Todo newer = todo(1L, "Write report", "Home", false, true, TODAY);
+            newer.setVersion(2L);
+            Todo older = todo(1L, "Write report", "Work", true, true, TODAY);
+            older.setVersion(1L);
+
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.patched(newer));
+            filterIndex.onTodoChanged(TodoChangedEvent.patched(older));
+
+            // Then
+            assertThat(ids(TodoFilter.of(null, "Home", null, null)), contains(1L, 3L));
+            assertThat(ids(TodoFilter.of(true, null, null, null)), contains(2L));
+        }
+
+        @Test
+        @DisplayName("Should not bring back a deleted todo on a late update")
+        void shouldNotReindexDeletedTodo() {
+            // Given
+            Todo late = todo(2L, "Send invoice", "Work", true, false, TODAY);
+            late.setVersion(1L);
+
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.deleted(2L));
+            filterIndex.onTodoChanged(TodoChangedEvent.patched(late));
+
+            // Then
+            assertThat(ids(TodoFilter.of(null, "Work", null, null)), contains(1L));
+            assertThat(filterIndex.size(), is(2));
+        }
+
+        @Test
+        @DisplayName("Should rebuild from store")
+        void shouldRebuildFromStore() {
+            // Given
+            when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(plants));
+
+            // When
+            filterIndex.rebuild();
+
+            // Then
+            assertThat(filterIndex.size(), is(1));
+            assertThat(ids(TodoFilter.of(null, "Work", null, null)), is(empty()));
+            assertThat(ids(TodoFilter.NONE), contains(3L));
+        }
+
+        @Test
+        @DisplayName("Should stop answering once an id exceeds the bitmap range")
+        void shouldStopAnsweringForOversizedIds() {
+            // When
+            filterIndex.index(todo(Integer.MAX_VALUE + 1L, "Far away", "Work", false, false, null));
+
+            // Then
+            assertThat(filterIndex.isAvailable(), is(false));
+            assertThat(filterIndex.findIds(TodoFilter.NONE).isPresent(), is(false));
+            assertThat(filterIndex.count(TodoFilter.NONE).isPresent(), is(false));
+        }
+    }
+
+    private List<Long> ids(TodoFilter filter) {
+        return filterIndex.findIds(filter).orElseThrow();
+    }
+
+    private static Todo todo(Long id, String title, String category, boolean completed, boolean important, LocalDate dueDate) {
+        Todo todo = new Todo(title, "Description of " + title, category, important, dueDate);
+        todo.setId(id);
+        todo.setCompleted(completed);
+        return todo;
+    }
+}
@@ -0,0 +1,224 @@
+package me.coding.search;
+
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoChangedEvent;
+import me.coding.store.TodoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoSearchIndex Tests")
+class TodoSearchIndexTest {
+
+    @Mock
+    private TodoStore todoStore;
+
+    @InjectMocks
+    private TodoSearchIndex searchIndex;
+
+    private Todo groceries;
+    private Todo project;
+    private Todo meeting;
+
+    @BeforeEach
+    void setUp() {
+        groceries = todo(1L, "Buy groceries", "Milk, bread and eggs from the grocery store");
+        project = todo(2L, "Complete project", "Finish the project documentation");
+        meeting = todo(3L, "Project meeting", "Discuss the documentation with the team");
+        when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(groceries, project, meeting));
+        searchIndex.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Matching")
+    class Matching {
+
+        @Test
+        @DisplayName("Should match case-insensitively")
+        void shouldMatchCaseInsensitively() {
+            assertThat(search("PROJECT", 10), containsInAnyOrder(2L, 3L));
+            assertThat(search("project", 10), containsInAnyOrder(2L, 3L));
+        }
+
+        @Test
+        @DisplayName("Should match token prefixes")
+        void shouldMatchTokenPrefixes() {
+            assertThat(search("groc", 10), contains(1L));
+            assertThat(search("doc", 10), containsInAnyOrder(2L, 3L));
+        }
+
+        @Test
+        @DisplayName("Should require every query token to match")
+        void shouldRequireEveryQueryTokenToMatch() {
+            assertThat(search("project team", 10), contains(3L));
+            assertThat(search("project milk", 10), is(empty()));
+        }
+
+        @Test
+        @DisplayName("Should not match inside tokens")
+        void shouldNotMatchInsideTokens() {
+            assertThat(search("roceries", 10), is(empty()));
+        }
+
+        @Test
+        @DisplayName("Should return nothing for blank or punctuation-only queries")
+        void shouldReturnNothingForBlankQueries() {
+            assertThat(search("   ", 10), is(empty()));
+            assertThat(search("?!", 10), is(empty()));
+        }
+
+        @Test
+        @DisplayName("Should answer nothing until built, leaving callers to scan with the same rules")
+        void shouldAnswerNothingUntilBuilt() {
+            assertThat(new TodoSearchIndex(todoStore).search("project", 10).isPresent(), is(false));
+            assertThat(TodoSearchIndex.matches(meeting, "PROJECT te"), is(true));
+            assertThat(TodoSearchIndex.matches(meeting, "project milk"), is(false));
+            assertThat(TodoSearchIndex.matches(groceries, "roceries"), is(false));
+            assertThat(TodoSearchIndex.matches(groceries, "?!"), is(false));
+        }
+    }
+
+    @Nested
+    @DisplayName("Ranking")
+    class Ranking {
+
+        @Test
+        @DisplayName("Should rank title and repeated matches higher")
+        void shouldRankTitleAndRepeatedMatchesHigher() {
+            // "project" appears twice in todo 2 (title and description) but only in the title of todo 3
+            assertThat(search("project", 10), contains(2L, 3L));
+        }
+
+        @Test
+        @DisplayName("Should rank exact matches above prefix matches")
+        void shouldRankExactMatchesAbovePrefixMatches() {
+            searchIndex.index(todo(4L, "Groceries list", "Weekly shopping"));
+
+            assertThat(search("grocery", 10), contains(1L));
+            assertThat(search("groceries", 10).get(0), is(anyOf(equalTo(1L), equalTo(4L))));
+        }
+
+        @Test
+        @DisplayName("Should apply result limit after ranking")
+        void shouldApplyResultLimitAfterRanking() {
+            assertThat(search("project", 1), contains(2L));
+        }
+
+        @Test
+        @DisplayName("Should return every match without a limit")
+        void shouldReturnEveryMatchWithoutLimit() {
+            // Given
+            for (long id = 4; id < 2_004; id++) {
+                searchIndex.index(todo(id, "Project task " + id, null));
+            }
+
+            // When
+            List<Long> ids = searchIndex.search("project").orElseThrow();
+
+            // Then
+            assertThat(ids, hasSize(2_002));
+            assertThat(ids.subList(0, 2), contains(2L, 3L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance")
+    class Maintenance {
+
+        @Test
+        @DisplayName("Should reindex changed todos and drop stale terms")
+        void shouldReindexChangedTodos() {
+            // When
+            project.setTitle("Complete report");
+            project.setDescription("Finish the quarterly report");
+            searchIndex.onTodoChanged(TodoChangedEvent.patched(project));
+
+            // Then
+            assertThat(search("project", 10), contains(3L));
+            assertThat(search("report", 10), contains(2L));
+            assertThat(searchIndex.size(), is(3));
+        }
+
+        @Test
+        @DisplayName("Should remove deleted todos")
+        void shouldRemoveDeletedTodos() {
+            // When
+            searchIndex.onTodoChanged(TodoChangedEvent.deleted(1L));
+
+            // Then
+            assertThat(search("groceries", 10), is(empty()));
+            assertThat(searchIndex.size(), is(2));
+        }
+
+        @Test
+        @DisplayName("Should ignore events older than the applied version")
+        void shouldIgnoreStaleEvents() {
+            // Given
+            Todo newer = todo(2L, "Complete report", "Finish the quarterly report");
+            newer.setVersion(2L);
+            Todo older = todo(2L, "Complete project", "Finish the project documentation");
+            older.setVersion(1L);
+
+            // When
+            searchIndex.onTodoChanged(TodoChangedEvent.patched(newer));
+            searchIndex.onTodoChanged(TodoChangedEvent.patched(older));
+
+            // Then
+            assertThat(search("report", 10), contains(2L));
+            assertThat(search("project", 10), contains(3L));
+        }
+
+        @Test
+        @DisplayName("Should not bring back a deleted todo on a late update")
+        void shouldNotReindexDeletedTodo() {
+            // Given
+            groceries.setVersion(1L);
+
+            // When
+            searchIndex.onTodoChanged(TodoChangedEvent.deleted(1L));
+            searchIndex.onTodoChanged(TodoChangedEvent.patched(groceries));
+
+            // Then
+            assertThat(search("groceries", 10), is(empty()));
+            assertThat(searchIndex.size(), is(2));
+        }
+
+        @Test
+        @DisplayName("Should rebuild from store")
+        void shouldRebuildFromStore() {
+            // Given
+            when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(meeting));
+
+            // When
+            searchIndex.rebuild();
+
+            // Then
+            assertThat(searchIndex.size(), is(1));
+            assertThat(search("project", 10), contains(3L));
+        }
+    }
+
+    private List<Long> search(String query, int limit) {
+        return searchIndex.search(query, limit).orElseThrow();
+    }
+
+    private static Todo todo(Long id, String title, String description) {
+        Todo todo = new Todo(title, description);
+        todo.setId(id);
+        return todo;
+    }
+}
@@ -0,0 +1,126 @@
+package me.coding.service;
+
+import me.coding.model.Category;
+import me.coding.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stress test for the copy-on-write category snapshot: readers run against concurrent creations and
+ * must always see a consistent catalogue that only grows, and each name must be created exactly once.
+ */
+@DisplayName("CategoryService Concurrency Tests")
+class CategoryServiceConcurrencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int NAMES = 200;
+
+    private CategoryService categoryService;
+    private AtomicLong savedCount;
+
+    @BeforeEach
+    void setUp() {
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        AtomicLong ids = new AtomicLong();
+        savedCount = new AtomicLong();
+        when(categoryRepository.findAll()).thenReturn(Collections.emptyList());
+        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> {
+            Category category = invocation.getArgument(0);
+            category.setId(ids.incrementAndGet());
+            savedCount.incrementAndGet();
+            return category;
+        });
+        categoryService = new CategoryService(categoryRepository);
+    }
+
+    @Test
+    @DisplayName("Readers should see a consistent, growing catalogue while writers create categories")
+    void readersShouldSeeConsistentCatalogueDuringWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger duplicatesRejected = new AtomicInteger();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    // Every writer tries every name, so each name is contended by all writers
+                    for (int i = 0; i < NAMES; i++) {
+                        Category category = new Category();
+                        category.setName(" Category " + i + " ");
+                        try {
+                            categoryService.createCategory(category);
+                        } catch (IllegalArgumentException ex) {
+                            duplicatesRejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    int lastSize = 0;
+                    while (writing.get()) {
+                        List<Category> categories = categoryService.findAllCategories();
+                        if (categories.size() < lastSize) {
+                            failures.add("Catalogue shrank from " + lastSize + " to " + categories.size());
+                        }
+                        lastSize = categories.size();
+                        for (Category category : categories) {
+                            if (categoryService.findCategoryById(category.getId()).isEmpty()
+                                    || !categoryService.existsByName(category.getName())) {
+                                failures.add("Listed category not indexed: " + category.getName());
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(failures, is(empty()));
+        assertThat(categoryService.findAllCategories(), hasSize(NAMES));
+        assertThat(savedCount.get(), is((long) NAMES));
+        assertThat(duplicatesRejected.get(), is(NAMES * (WRITERS - 1)));
+        assertThat(categoryService.existsByName("Category 0"), is(true));
+        assertThat(categoryService.findCategoryByName(" Category " + (NAMES - 1)).isPresent(), is(true));
+    }
+}
@@ -86,7 +86,7 @@ class CategoryServiceTest {
         @DisplayName("Should return category by id when exists")
         void shouldReturnCategoryByIdWhenExists() {
             // Given
-            when(categoryRepository.findById(CATEGORY_ID)).thenReturn(Optional.of(testCategory));
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             Optional<Category> result = categoryService.findCategoryById(CATEGORY_ID);
@@ -96,14 +96,14 @@ class CategoryServiceTest {
             assertThat(result.get(), is(equalTo(testCategory)));
             assertThat(result.get().getName(), is(equalTo(CATEGORY_NAME)));
             
-            verify(categoryRepository, times(1)).findById(CATEGORY_ID);
+            verify(categoryRepository, never()).findById(any());
         }
 
         @Test
         @DisplayName("Should return empty when category not found by id")
         void shouldReturnEmptyWhenCategoryNotFoundById() {
             // Given
-            when(categoryRepository.findById(anyLong())).thenReturn(Optional.empty());
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             Optional<Category> result = categoryService.findCategoryById(999L);
@@ -111,7 +111,7 @@ class CategoryServiceTest {
             // Then
             assertThat(result.isEmpty(), is(true));
             
-            verify(categoryRepository, times(1)).findById(999L);
+            verify(categoryRepository, never()).findById(any());
         }
 
         @Test
@@ -130,7 +130,7 @@ class CategoryServiceTest {
         @DisplayName("Should return category by name when exists")
         void shouldReturnCategoryByNameWhenExists() {
             // Given
-            when(categoryRepository.findByName(CATEGORY_NAME)).thenReturn(Optional.of(testCategory));
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             Optional<Category> result = categoryService.findCategoryByName(CATEGORY_NAME);
@@ -140,14 +140,14 @@ class CategoryServiceTest {
             assertThat(result.get(), is(equalTo(testCategory)));
             assertThat(result.get().getName(), is(equalTo(CATEGORY_NAME)));
             
-            verify(categoryRepository, times(1)).findByName(CATEGORY_NAME);
+            verify(categoryRepository, never()).findByName(any());
         }
 
         @Test
         @DisplayName("Should return empty when category not found by name")
         void shouldReturnEmptyWhenCategoryNotFoundByName() {
             // Given
-            when(categoryRepository.findByName("NonExistent")).thenReturn(Optional.empty());
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             Optional<Category> result = categoryService.findCategoryByName("NonExistent");
@@ -155,7 +155,7 @@ class CategoryServiceTest {
             // Then
             assertThat(result.isEmpty(), is(true));
             
-            verify(categoryRepository, times(1)).findByName("NonExistent");
+            verify(categoryRepository, never()).findByName(any());
         }
 
         @Test
@@ -191,7 +191,7 @@ class CategoryServiceTest {
             savedCategory.setName("Personal");
             savedCategory.setDescription("Personal tasks");
 
-            when(categoryRepository.existsByName("Personal")).thenReturn(false);
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
             when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
 
             // When
@@ -202,8 +202,11 @@ class CategoryServiceTest {
             assertThat(result.getId(), is(equalTo(2L)));
             assertThat(result.getName(), is(equalTo("Personal")));
             assertThat(result.getDescription(), is(equalTo("Personal tasks")));
+            assertThat(categoryService.findCategoryByName("Personal").orElseThrow(), is(sameInstance(savedCategory)));
+            assertThat(categoryService.findAllCategories(), contains(testCategory, savedCategory));
             
-            verify(categoryRepository, times(1)).existsByName("Personal");
+            verify(categoryRepository, times(1)).findAll();
+            verify(categoryRepository, never()).existsByName(any());
             verify(categoryRepository, times(1)).save(categoryToCreate);
         }
 
@@ -215,7 +218,7 @@ class CategoryServiceTest {
             categoryToCreate.setName("  Personal  ");
             categoryToCreate.setDescription("Personal tasks");
 
-            when(categoryRepository.existsByName("Personal")).thenReturn(false);
+            when(categoryRepository.findAll()).thenReturn(Collections.emptyList());
             when(categoryRepository.save(any(Category.class))).thenReturn(testCategory);
 
             // When
@@ -224,7 +227,6 @@ class CategoryServiceTest {
             // Then
             assertThat(categoryToCreate.getName(), is(equalTo("Personal")));
             
-            verify(categoryRepository, times(1)).existsByName("Personal");
             verify(categoryRepository, times(1)).save(categoryToCreate);
         }
 
@@ -288,7 +290,7 @@ class CategoryServiceTest {
             categoryToCreate.setName("Work");
             categoryToCreate.setDescription("Work tasks");
 
-            when(categoryRepository.existsByName("Work")).thenReturn(true);
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When & Then
             IllegalArgumentException exception = assertThrows(
@@ -298,7 +300,6 @@ class CategoryServiceTest {
 
             assertThat(exception.getMessage(), containsString("Category with name 'Work' already exists"));
             
-            verify(categoryRepository, times(1)).existsByName("Work");
             verify(categoryRepository, never()).save(any());
         }
     }
@@ -311,7 +312,7 @@ class CategoryServiceTest {
         @DisplayName("Should return true when category exists")
         void shouldReturnTrueWhenCategoryExists() {
             // Given
-            when(categoryRepository.existsByName("Work")).thenReturn(true);
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             boolean result = categoryService.existsByName("Work");
@@ -319,14 +320,14 @@ class CategoryServiceTest {
             // Then
             assertThat(result, is(true));
             
-            verify(categoryRepository, times(1)).existsByName("Work");
+            verify(categoryRepository, never()).existsByName(any());
         }
 
         @Test
         @DisplayName("Should return false when category does not exist")
         void shouldReturnFalseWhenCategoryDoesNotExist() {
             // Given
-            when(categoryRepository.existsByName("NonExistent")).thenReturn(false);
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             boolean result = categoryService.existsByName("NonExistent");
@@ -334,7 +335,7 @@ class CategoryServiceTest {
             // Then
             assertThat(result, is(false));
             
-            verify(categoryRepository, times(1)).existsByName("NonExistent");
+            verify(categoryRepository, never()).existsByName(any());
         }
 
         @Test
@@ -356,7 +357,7 @@ class CategoryServiceTest {
         @DisplayName("Should trim name before checking existence")
         void shouldTrimNameBeforeCheckingExistence() {
             // Given
-            when(categoryRepository.existsByName("Work")).thenReturn(true);
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
 
             // When
             boolean result = categoryService.existsByName("  Work  ");
@@ -364,7 +365,65 @@ class CategoryServiceTest {
             // Then
             assertThat(result, is(true));
             
-            verify(categoryRepository, times(1)).existsByName("Work");
+            verify(categoryRepository, never()).existsByName(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot Tests")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("Should load the catalogue once and serve all reads from memory")
+        void shouldLoadCatalogueOnce() {
+            // Given
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory, createAnotherCategory()));
+
+            // When
+            categoryService.findAllCategories();
+            categoryService.findCategoryById(2L);
+            categoryService.findCategoryByName("Personal");
+            categoryService.existsByName("Work");
+
+            // Then
+            verify(categoryRepository, times(1)).findAll();
+            verifyNoMoreInteractions(categoryRepository);
+        }
+
+        @Test
+        @DisplayName("Should pick up external changes on reload")
+        void shouldPickUpExternalChangesOnReload() {
+            // Given
+            when(categoryRepository.findAll())
+                    .thenReturn(List.of(testCategory))
+                    .thenReturn(List.of(testCategory, createAnotherCategory()));
+            assertThat(categoryService.existsByName("Personal"), is(false));
+
+            // When
+            categoryService.reload();
+
+            // Then
+            assertThat(categoryService.existsByName("Personal"), is(true));
+        }
+
+        @Test
+        @DisplayName("Should increase the catalogue version on every create and reload")
+        void shouldIncreaseVersionOnChange() {
+            // Given
+            when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
+            when(categoryRepository.save(any(Category.class))).thenReturn(createAnotherCategory());
+            long initial = categoryService.categoriesVersion();
+            Category personal = new Category();
+            personal.setName("Personal");
+
+            // When
+            categoryService.createCategory(personal);
+            long afterCreate = categoryService.categoriesVersion();
+            categoryService.reload();
+
+            // Then
+            assertThat(afterCreate, is(greaterThan(initial)));
+            assertThat(categoryService.categoriesVersion(), is(greaterThan(afterCreate)));
         }
     }
 
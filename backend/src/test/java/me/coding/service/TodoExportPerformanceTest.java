@@ -0,0 +1,81 @@
+package me.coding.service;
+
+import me.coding.repository.TodoFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Exports a million rows and checks that heap usage does not grow with the number of rows written.
+ * Excluded from the default build; run with {@code mvn test -Pperformance-tests}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN"})
+@Tag("performance")
+@DisplayName("Todo Export Performance Tests")
+class TodoExportPerformanceTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq, 'Todo ' || X, 'Generated todo number ' || X, MOD(X, 3) = 0, MOD(X, 5) = 0, 'Work',
+                       DATEADD('DAY', MOD(X, 30), CURRENT_DATE), LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos");
+    }
+
+    @Test
+    @DisplayName("Should export a million todos with flat heap usage")
+    void shouldExportMillionTodosWithFlatHeap() {
+        // Given
+        long[] seen = {0};
+        long[] baseline = {0};
+        long[] maxGrowth = {0};
+
+        // When
+        long exported = todoService.exportTodos(TodoFilter.NONE, todo -> {
+            seen[0]++;
+            if (seen[0] == 1) {
+                // Measured once the query is running, so only what the export itself retains is counted
+                baseline[0] = usedHeapAfterGc();
+            } else if (seen[0] % SAMPLE_EVERY == 0) {
+                maxGrowth[0] = Math.max(maxGrowth[0], usedHeapAfterGc() - baseline[0]);
+            }
+        });
+
+        // Then
+        assertThat(exported, is((long) ROWS));
+        assertThat(seen[0], is((long) ROWS));
+        assertThat(maxGrowth[0], is(lessThan(MAX_HEAP_GROWTH_BYTES)));
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,103 @@
+package me.coding.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+import me.coding.search.TodoFilterIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Measures the heap allocated by one list request, query plus JSON serialisation, for full
+ * entities and for an {@code id,title,completed} projection of the same {@value #ROWS} todos.
+ * The filter cache is disabled so every request reaches the database. The figures are printed to
+ * standard output.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pperformance-tests -Dtest=TodoProjectionAllocationTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "todo.cache.filters.maximum-size=0"
+        })
+@Tag("performance")
+@DisplayName("Todo Projection Allocation Tests")
+class TodoProjectionAllocationTest {
+
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 20;
+    private static final int REQUESTS = 50;
+    private static final TodoFilter FILTER = TodoFilter.of(false, null, null, null);
+    private static final List<TodoField> FIELDS = List.of(TodoField.ID, TodoField.TITLE, TodoField.COMPLETED);
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TodoFilterIndex filterIndex;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO todos (id, title, description, completed, important, category, due_date, created_at, updated_at)
+                SELECT NEXT VALUE FOR todos_seq, 'Todo ' || X, REPEAT('Generated todo number ' || X || '. ', 15), MOD(X, 3) = 0,
+                       MOD(X, 5) = 0, 'Work', DATEADD('DAY', MOD(X, 30), CURRENT_DATE), LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+        // Rows inserted with SQL bypass the change events that keep the filter index current
+        filterIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos");
+        filterIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should allocate less per request with a field projection")
+    void shouldAllocateLessWithProjection() throws Exception {
+        // When
+        long entityBytes = allocatedPerRequest(() -> objectMapper.writeValueAsBytes(todoService.findTodos(FILTER)));
+        long projectionBytes = allocatedPerRequest(() -> objectMapper.writeValueAsBytes(todoService.findTodoViews(FILTER, FIELDS)));
+
+        System.out.printf("%n[projection] seeded=%d filter=%s entities=%d KiB/request projection=%d KiB/request (%.0f%%)%n%n",
+                ROWS, FILTER, entityBytes / 1024, projectionBytes / 1024, 100.0 * projectionBytes / entityBytes);
+
+        // Then
+        assertThat(projectionBytes, is(lessThan(entityBytes)));
+    }
+
+    private static long allocatedPerRequest(Callable<byte[]> request) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            request.call();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < REQUESTS; i++) {
+            request.call();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / REQUESTS;
+    }
+}
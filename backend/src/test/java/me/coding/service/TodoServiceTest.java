@@ -1,27 +1,53 @@
 package me.coding.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import me.coding.cache.TodoCache;
+import me.coding.dto.BatchResponse;
+import me.coding.dto.TodoBatchPatchRequest;
+import me.coding.dto.TodoPage;
 import me.coding.dto.TodoUpdateRequest;
+import me.coding.dto.TodoView;
+import me.coding.exception.VersionConflictException;
 import me.coding.model.Todo;
-import me.coding.repository.TodoRepository;
+import me.coding.repository.TodoCursor;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+import me.coding.search.TodoFilterIndex;
+import me.coding.search.TodoSearchIndex;
+import me.coding.store.TodoStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -30,7 +56,25 @@ import static org.mockito.Mockito.*;
 class TodoServiceTest {
 
     @Mock
-    private TodoRepository todoRepository;
+    private TodoStore todoStore;
+
+    @Mock
+    private TodoSearchIndex searchIndex;
+
+    @Mock
+    private TodoFilterIndex filterIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private TodoCache todoCache = new TodoCache(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private TodoService todoService;
@@ -64,7 +108,7 @@ class TodoServiceTest {
             Todo savedTodo = new Todo("New Todo", "New Description");
             savedTodo.setId(2L);
 
-            when(todoRepository.save(any(Todo.class))).thenReturn(savedTodo);
+            when(todoStore.save(any(Todo.class))).thenReturn(savedTodo);
 
             // When
             Todo result = todoService.createTodo(todoToCreate);
@@ -75,7 +119,7 @@ class TodoServiceTest {
             assertThat(result.getTitle(), is(equalTo("New Todo")));
             assertThat(result.getDescription(), is(equalTo("New Description")));
             
-            verify(todoRepository, times(1)).save(todoToCreate);
+            verify(todoStore, times(1)).save(todoToCreate);
         }
     }
 
@@ -88,7 +132,7 @@ class TodoServiceTest {
         void shouldReturnAllTodos() {
             // Given
             List<Todo> expectedTodos = Arrays.asList(testTodo, createAnotherTodo());
-            when(todoRepository.findAll()).thenReturn(expectedTodos);
+            when(todoStore.findAll()).thenReturn(expectedTodos);
 
             // When
             List<Todo> result = todoService.findAllTodos();
@@ -97,14 +141,14 @@ class TodoServiceTest {
             assertThat(result, hasSize(2));
             assertThat(result, containsInAnyOrder(testTodo, expectedTodos.get(1)));
             
-            verify(todoRepository, times(1)).findAll();
+            verify(todoStore, times(1)).findAll();
         }
 
         @Test
         @DisplayName("Should return todo by id when exists")
         void shouldReturnTodoByIdWhenExists() {
             // Given
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.findTodoById(TODO_ID);
@@ -113,14 +157,14 @@ class TodoServiceTest {
             assertThat(result.isPresent(), is(true));
             assertThat(result.get(), is(equalTo(testTodo)));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
+            verify(todoStore, times(1)).findById(TODO_ID);
         }
 
         @Test
         @DisplayName("Should return empty when todo not found")
         void shouldReturnEmptyWhenTodoNotFound() {
             // Given
-            when(todoRepository.findById(anyLong())).thenReturn(Optional.empty());
+            when(todoStore.findById(anyLong())).thenReturn(Optional.empty());
 
             // When
             Optional<Todo> result = todoService.findTodoById(999L);
@@ -128,7 +172,7 @@ class TodoServiceTest {
             // Then
             assertThat(result.isEmpty(), is(true));
             
-            verify(todoRepository, times(1)).findById(999L);
+            verify(todoStore, times(1)).findById(999L);
         }
 
         @Test
@@ -136,7 +180,7 @@ class TodoServiceTest {
         void shouldReturnTodosByCompletionStatus() {
             // Given
             List<Todo> completedTodos = Collections.singletonList(testTodo);
-            when(todoRepository.findByCompleted(true)).thenReturn(completedTodos);
+            when(todoStore.findAll(TodoFilter.of(true, null, null, null))).thenReturn(completedTodos);
 
             // When
             List<Todo> result = todoService.findTodosByStatus(true);
@@ -145,7 +189,7 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1)).findByCompleted(true);
+            verify(todoStore, times(1)).findAll(TodoFilter.of(true, null, null, null));
         }
     }
 
@@ -165,8 +209,8 @@ class TodoServiceTest {
             updatedTodo.setCategory("Updated Category");
             updatedTodo.setDueDate(LocalDate.now().plusDays(1));
 
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+            when(todoStore.save(any(Todo.class))).thenReturn(testTodo);
 
             // When
             Optional<Todo> result = todoService.updateTodo(TODO_ID, updatedTodo);
@@ -180,8 +224,8 @@ class TodoServiceTest {
             assertThat(testTodo.getCategory(), is(equalTo("Updated Category")));
             assertThat(testTodo.getDueDate(), is(equalTo(LocalDate.now().plusDays(1))));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            verify(todoStore, times(1)).findById(TODO_ID);
+            verify(todoStore, times(1)).save(testTodo);
         }
 
         @Test
@@ -189,7 +233,7 @@ class TodoServiceTest {
         void shouldReturnEmptyWhenUpdatingNonExistentTodo() {
             // Given
             Todo updatedTodo = new Todo();
-            when(todoRepository.findById(anyLong())).thenReturn(Optional.empty());
+            when(todoStore.findById(anyLong())).thenReturn(Optional.empty());
 
             // When
             Optional<Todo> result = todoService.updateTodo(999L, updatedTodo);
@@ -197,8 +241,8 @@ class TodoServiceTest {
             // Then
             assertThat(result.isEmpty(), is(true));
             
-            verify(todoRepository, times(1)).findById(999L);
-            verify(todoRepository, never()).save(any(Todo.class));
+            verify(todoStore, times(1)).findById(999L);
+            verify(todoStore, never()).save(any(Todo.class));
         }
     }
 
@@ -210,7 +254,7 @@ class TodoServiceTest {
         @DisplayName("Should delete todo successfully")
         void shouldDeleteTodoSuccessfully() {
             // Given
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+            when(todoStore.deleteById(TODO_ID)).thenReturn(1);
 
             // When
             boolean result = todoService.deleteTodo(TODO_ID);
@@ -218,15 +262,15 @@ class TodoServiceTest {
             // Then
             assertThat(result, is(true));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).delete(testTodo);
+            verify(todoStore, times(1)).deleteById(TODO_ID);
+            verify(todoStore, never()).findById(anyLong());
         }
 
         @Test
         @DisplayName("Should return false when deleting non-existent todo")
         void shouldReturnFalseWhenDeletingNonExistentTodo() {
             // Given
-            when(todoRepository.findById(anyLong())).thenReturn(Optional.empty());
+            when(todoStore.deleteById(anyLong())).thenReturn(0);
 
             // When
             boolean result = todoService.deleteTodo(999L);
@@ -234,8 +278,8 @@ class TodoServiceTest {
             // Then
             assertThat(result, is(false));
             
-            verify(todoRepository, times(1)).findById(999L);
-            verify(todoRepository, never()).delete(any(Todo.class));
+            verify(todoStore, times(1)).deleteById(999L);
+            verify(todoStore, never()).findById(anyLong());
         }
     }
 
@@ -249,39 +293,41 @@ class TodoServiceTest {
             // Given
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setCompleted(true);
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            testTodo.setCompleted(true);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(1);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.patchTodo(TODO_ID, updateRequest);
 
             // Then
             assertThat(result.isPresent(), is(true));
-            assertThat(testTodo.getCompleted(), is(true));
+            assertThat(result.get().getCompleted(), is(true));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            InOrder inOrder = inOrder(todoStore);
+            inOrder.verify(todoStore).patch(TODO_ID, updateRequest);
+            inOrder.verify(todoStore).findById(TODO_ID);
+            verify(todoStore, never()).save(any(Todo.class));
         }
 
         @Test
         @DisplayName("Should patch todo as incomplete")
         void shouldPatchTodoAsIncomplete() {
             // Given
-            testTodo.setCompleted(true);
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setCompleted(false);
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(1);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.patchTodo(TODO_ID, updateRequest);
 
             // Then
             assertThat(result.isPresent(), is(true));
-            assertThat(testTodo.getCompleted(), is(false));
+            assertThat(result.get().getCompleted(), is(false));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
+            verify(todoStore, never()).save(any(Todo.class));
         }
 
         @Test
@@ -290,39 +336,39 @@ class TodoServiceTest {
             // Given
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setImportant(true);
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            testTodo.setImportant(true);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(1);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.patchTodo(TODO_ID, updateRequest);
 
             // Then
             assertThat(result.isPresent(), is(true));
-            assertThat(testTodo.getImportant(), is(true));
+            assertThat(result.get().getImportant(), is(true));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
+            verify(todoStore, never()).save(any(Todo.class));
         }
 
         @Test
         @DisplayName("Should patch todo as not important")
         void shouldPatchTodoAsNotImportant() {
             // Given
-            testTodo.setImportant(true);
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setImportant(false);
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(1);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.patchTodo(TODO_ID, updateRequest);
 
             // Then
             assertThat(result.isPresent(), is(true));
-            assertThat(testTodo.getImportant(), is(false));
+            assertThat(result.get().getImportant(), is(false));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
+            verify(todoStore, never()).save(any(Todo.class));
         }
 
         @Test
@@ -331,7 +377,7 @@ class TodoServiceTest {
             // Given
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setCompleted(true);
-            when(todoRepository.findById(anyLong())).thenReturn(Optional.empty());
+            when(todoStore.patch(anyLong(), any(TodoUpdateRequest.class))).thenReturn(0);
 
             // When
             Optional<Todo> result = todoService.patchTodo(999L, updateRequest);
@@ -339,56 +385,272 @@ class TodoServiceTest {
             // Then
             assertThat(result.isEmpty(), is(true));
             
-            verify(todoRepository, times(1)).findById(999L);
-            verify(todoRepository, never()).save(any(Todo.class));
+            verify(todoStore, times(1)).patch(999L, updateRequest);
+            verify(todoStore, never()).findById(anyLong());
+            verifyNoInteractions(eventPublisher);
         }
 
         @Test
-        @DisplayName("Should patch multiple fields")
+        @DisplayName("Should patch multiple fields with one update")
         void shouldPatchMultipleFields() {
             // Given
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setCompleted(true);
             updateRequest.setImportant(true);
             updateRequest.setTitle("Updated Title");
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(1);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.patchTodo(TODO_ID, updateRequest);
 
             // Then
             assertThat(result.isPresent(), is(true));
-            assertThat(testTodo.getCompleted(), is(true));
-            assertThat(testTodo.getImportant(), is(true));
-            assertThat(testTodo.getTitle(), is("Updated Title"));
             
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
+            verify(todoStore, never()).save(any(Todo.class));
+        }
+
+        @Test
+        @DisplayName("Should not issue an update when no fields are present")
+        void shouldNotUpdateWhenNoFieldsArePresent() {
+            // Given
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When
+            Optional<Todo> result = todoService.patchTodo(TODO_ID, new TodoUpdateRequest());
+
+            // Then
+            assertThat(result.isPresent(), is(true));
+            
+            verify(todoStore, never()).patch(anyLong(), any(TodoUpdateRequest.class));
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+
+    @Nested
+    @DisplayName("Optimistic Concurrency Tests")
+    class OptimisticConcurrencyTests {
+
+        @Test
+        @DisplayName("Should reject a PUT based on a stale version")
+        void shouldRejectStaleUpdate() {
+            // Given
+            testTodo.setVersion(4L);
+            Todo updatedTodo = new Todo("Updated Title", null);
+            updatedTodo.setVersion(3L);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            VersionConflictException exception = assertThrows(VersionConflictException.class,
+                    () -> todoService.updateTodo(TODO_ID, updatedTodo));
+            assertThat(exception.getMessage(), is("Todo with id 1 has version 4, expected 3"));
+            assertThat(testTodo.getTitle(), is("Test Todo"));
+
+            verify(todoStore, never()).save(any(Todo.class));
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should apply a PUT based on the current version")
+        void shouldApplyCurrentUpdate() {
+            // Given
+            testTodo.setVersion(4L);
+            Todo updatedTodo = new Todo("Updated Title", null);
+            updatedTodo.setVersion(4L);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+            when(todoStore.save(testTodo)).thenReturn(testTodo);
+
+            // When
+            Optional<Todo> result = todoService.updateTodo(TODO_ID, updatedTodo);
+
+            // Then
+            assertThat(result.isPresent(), is(true));
+            assertThat(testTodo.getTitle(), is("Updated Title"));
+            assertThat("the managed version is left to Hibernate", testTodo.getVersion(), is(4L));
+        }
+
+        @Test
+        @DisplayName("Should reject a PATCH based on a stale version")
+        void shouldRejectStalePatch() {
+            // Given
+            TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+            updateRequest.setTitle("Renamed");
+            updateRequest.setVersion(3L);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(0);
+            when(todoStore.findVersionById(TODO_ID)).thenReturn(Optional.of(4L));
+
+            // When & Then
+            assertThrows(VersionConflictException.class, () -> todoService.patchTodo(TODO_ID, updateRequest));
+
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should report a versioned PATCH of a missing todo as not found")
+        void shouldReportVersionedPatchOfMissingTodoAsNotFound() {
+            // Given
+            TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+            updateRequest.setCompleted(true);
+            updateRequest.setVersion(3L);
+            when(todoStore.patch(999L, updateRequest)).thenReturn(0);
+            when(todoStore.findVersionById(999L)).thenReturn(Optional.empty());
+
+            // When
+            Optional<Todo> result = todoService.patchTodo(999L, updateRequest);
+
+            // Then
+            assertThat(result.isEmpty(), is(true));
+        }
+
+        @Test
+        @DisplayName("Should not retry flag patches unless retries are enabled")
+        void shouldNotRetryFlagPatchesByDefault() {
+            // Given
+            TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+            updateRequest.setCompleted(true);
+            updateRequest.setVersion(3L);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(0);
+            when(todoStore.findVersionById(TODO_ID)).thenReturn(Optional.of(4L));
+
+            // When & Then
+            assertThrows(VersionConflictException.class, () -> todoService.patchTodo(TODO_ID, updateRequest));
+
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
         }
 
         @Test
-        @DisplayName("Should only update specified fields")
-        void shouldOnlyUpdateSpecifiedFields() {
+        @DisplayName("Should re-apply a flag patch on the current version")
+        void shouldRetryFlagPatchOnCurrentVersion() {
             // Given
-            String originalTitle = testTodo.getTitle();
-            String originalDescription = testTodo.getDescription();
+            todoService.setFlagPatchRetries(2);
             TodoUpdateRequest updateRequest = new TodoUpdateRequest();
             updateRequest.setCompleted(true);
-            when(todoRepository.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
-            when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+            updateRequest.setVersion(3L);
+            when(todoStore.patch(eq(TODO_ID), any(TodoUpdateRequest.class))).thenReturn(0, 0, 1);
+            when(todoStore.findVersionById(TODO_ID)).thenReturn(Optional.of(4L)).thenReturn(Optional.of(5L));
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
 
             // When
             Optional<Todo> result = todoService.patchTodo(TODO_ID, updateRequest);
 
             // Then
             assertThat(result.isPresent(), is(true));
-            assertThat(testTodo.getCompleted(), is(true));
-            assertThat(testTodo.getTitle(), is(originalTitle));
-            assertThat(testTodo.getDescription(), is(originalDescription));
-            
-            verify(todoRepository, times(1)).findById(TODO_ID);
-            verify(todoRepository, times(1)).save(testTodo);
+            assertThat(updateRequest.getVersion(), is(5L));
+
+            verify(todoStore, times(3)).patch(eq(TODO_ID), any(TodoUpdateRequest.class));
+            verify(eventPublisher).publishEvent(TodoChangedEvent.patched(testTodo));
+        }
+
+        @Test
+        @DisplayName("Should give up on a flag patch once the retries are used up")
+        void shouldGiveUpFlagPatchAfterRetries() {
+            // Given
+            todoService.setFlagPatchRetries(1);
+            TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+            updateRequest.setImportant(true);
+            updateRequest.setVersion(3L);
+            when(todoStore.patch(eq(TODO_ID), any(TodoUpdateRequest.class))).thenReturn(0);
+            when(todoStore.findVersionById(TODO_ID)).thenReturn(Optional.of(4L)).thenReturn(Optional.of(5L));
+
+            // When & Then
+            assertThrows(VersionConflictException.class, () -> todoService.patchTodo(TODO_ID, updateRequest));
+
+            verify(todoStore, times(2)).patch(eq(TODO_ID), any(TodoUpdateRequest.class));
+        }
+
+        @Test
+        @DisplayName("Should never retry a patch that changes more than flags")
+        void shouldNotRetryPatchesBeyondFlags() {
+            // Given
+            todoService.setFlagPatchRetries(3);
+            TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+            updateRequest.setCompleted(true);
+            updateRequest.setTitle("Renamed");
+            updateRequest.setVersion(3L);
+            when(todoStore.patch(TODO_ID, updateRequest)).thenReturn(0);
+            when(todoStore.findVersionById(TODO_ID)).thenReturn(Optional.of(4L));
+
+            // When & Then
+            assertThrows(VersionConflictException.class, () -> todoService.patchTodo(TODO_ID, updateRequest));
+
+            verify(todoStore, times(1)).patch(TODO_ID, updateRequest);
+        }
+
+        @Test
+        @DisplayName("Should check the version of an empty PATCH")
+        void shouldCheckVersionOfEmptyPatch() {
+            // Given
+            testTodo.setVersion(4L);
+            TodoUpdateRequest updateRequest = new TodoUpdateRequest();
+            updateRequest.setVersion(3L);
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When & Then
+            assertThrows(VersionConflictException.class, () -> todoService.patchTodo(TODO_ID, updateRequest));
+        }
+
+        @Test
+        @DisplayName("Should insert todos even when the client sends an id and version")
+        void shouldIgnoreClientIdAndVersionOnCreate() {
+            // Given
+            Todo todo = new Todo("New Todo", null);
+            todo.setId(42L);
+            todo.setVersion(7L);
+            when(todoStore.save(todo)).thenReturn(todo);
+
+            // When
+            todoService.createTodo(todo);
+
+            // Then
+            assertThat(todo.getId(), is(nullValue()));
+            assertThat(todo.getVersion(), is(nullValue()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Projection Tests")
+    class ProjectionTests {
+
+        @Test
+        @DisplayName("Should read only the selected fields")
+        void shouldReadOnlySelectedFields() {
+            // Given
+            List<TodoField> fields = List.of(TodoField.TITLE, TodoField.ID);
+            when(todoStore.findFields(any(), isNull(), eq(fields))).thenReturn(List.of(row(TODO_ID, "Test Todo")));
+
+            // When
+            List<TodoView> result = todoService.findTodoViews(TodoFilter.of(false, null, null, null), fields);
+
+            // Then
+            assertThat(result, hasSize(1));
+            assertThat(result.get(0).fields().keySet(), contains("title", "id"));
+            assertThat(result.get(0).fields().get("title"), is("Test Todo"));
+
+            verify(todoStore, never()).findAll(any(TodoFilter.class));
+        }
+
+        @Test
+        @DisplayName("Should keep search ranking without exposing the id")
+        void shouldKeepSearchRankingWithoutExposingId() {
+            // Given
+            List<TodoField> fields = List.of(TodoField.TITLE);
+            when(searchIndex.search("todo")).thenReturn(Optional.of(List.of(2L, TODO_ID)));
+            when(todoStore.findFields(any(), eq(List.of(2L, TODO_ID)), eq(Set.of(TodoField.TITLE, TodoField.ID))))
+                    .thenReturn(List.of(row(TODO_ID, "Test Todo"), row(2L, "Another Todo")));
+
+            // When
+            List<TodoView> result = todoService.searchTodoViews("todo", fields);
+
+            // Then
+            assertThat(result.stream().map(view -> view.fields().get("title")).toList(),
+                    contains("Another Todo", "Test Todo"));
+            assertThat(result.get(0).fields().containsKey("id"), is(false));
+        }
+
+        private Map<String, Object> row(Long id, String title) {
+            return Map.of("id", id, "title", title);
         }
     }
 
@@ -403,8 +665,7 @@ class TodoServiceTest {
             LocalDate testDate = LocalDate.now();
             List<Todo> expectedTodos = Collections.singletonList(testTodo);
             
-            when(todoRepository.findByDueDateAndImportantAndCategoryAndCompleted(
-                testDate, true, "Work", false)).thenReturn(expectedTodos);
+            when(todoStore.findAll(any(TodoFilter.class))).thenReturn(expectedTodos);
 
             // When
             List<Todo> result = todoService.findTodos(false, "Work", true, testDate);
@@ -413,8 +674,7 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1))
-                .findByDueDateAndImportantAndCategoryAndCompleted(testDate, true, "Work", false);
+            verify(todoStore, times(1)).findAll(any(TodoFilter.class));
         }
 
         @Test
@@ -424,7 +684,7 @@ class TodoServiceTest {
             LocalDate testDate = LocalDate.now();
             List<Todo> expectedTodos = Collections.singletonList(testTodo);
             
-            when(todoRepository.findByDueDate(testDate)).thenReturn(expectedTodos);
+            when(todoStore.findAll(any(TodoFilter.class))).thenReturn(expectedTodos);
 
             // When
             List<Todo> result = todoService.findTodos(null, null, null, testDate);
@@ -433,7 +693,7 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1)).findByDueDate(testDate);
+            verify(todoStore, times(1)).findAll(any(TodoFilter.class));
         }
 
         @Test
@@ -441,7 +701,7 @@ class TodoServiceTest {
         void shouldReturnAllTodosWhenNoFiltersApplied() {
             // Given
             List<Todo> expectedTodos = Collections.singletonList(testTodo);
-            when(todoRepository.findAll()).thenReturn(expectedTodos);
+            when(todoStore.findAll(any(TodoFilter.class))).thenReturn(expectedTodos);
 
             // When
             List<Todo> result = todoService.findTodos(null, null, null, null);
@@ -450,7 +710,212 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1)).findAll();
+            verify(todoStore, times(1)).findAll(any(TodoFilter.class));
+        }
+
+        @Test
+        @DisplayName("Should route legacy overloads through the filter path")
+        void shouldRouteLegacyOverloadsThroughFilterPath() {
+            // Given
+            when(todoStore.findAll(any(TodoFilter.class))).thenReturn(Collections.singletonList(testTodo));
+
+            // When
+            todoService.findTodos(true, "Work");
+            todoService.findTodos(true, " ", false);
+
+            // Then
+            verify(todoStore, times(2)).findAll(any(TodoFilter.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Filter Index Tests")
+    class FilterIndexTests {
+
+        @Test
+        @DisplayName("Should fetch indexed ids in id order and drop todos changed since")
+        void shouldFetchIndexedIdsInIdOrder() {
+            // Given
+            TodoFilter filter = TodoFilter.of(false, "Test", null, null);
+            Todo second = todoWithId(2L, false);
+            Todo changed = todoWithId(3L, true);
+            when(filterIndex.findIds(filter)).thenReturn(Optional.of(List.of(TODO_ID, 2L, 3L)));
+            when(todoStore.findAllById(List.of(TODO_ID, 2L, 3L))).thenReturn(List.of(changed, second, testTodo));
+
+            // When
+            List<Todo> result = todoService.findTodos(filter);
+
+            // Then
+            assertThat(result, contains(testTodo, second));
+            verify(todoStore, never()).findAll(any(TodoFilter.class));
+            assertThat(meterRegistry.get(TodoService.FILTER_LOAD_METER)
+                    .tags("filter", "completed+category", "path", "index").timer().count(), is(1L));
+        }
+
+        @Test
+        @DisplayName("Should not reach the store when the index matches nothing")
+        void shouldNotReachStoreWhenNothingMatches() {
+            // Given
+            TodoFilter filter = TodoFilter.of(null, "Unknown", null, null);
+            when(filterIndex.findIds(filter)).thenReturn(Optional.of(List.of()));
+
+            // When
+            List<Todo> result = todoService.findTodos(filter);
+
+            // Then
+            assertThat(result, is(empty()));
+            verifyNoInteractions(todoStore);
+        }
+
+        @Test
+        @DisplayName("Should let the store evaluate filters matching more todos than the fetch limit")
+        void shouldQueryStoreAboveFetchLimit() {
+            // Given
+            todoService.setIndexFetchLimit(1);
+            TodoFilter filter = TodoFilter.of(false, null, null, null);
+            when(filterIndex.findIds(filter)).thenReturn(Optional.of(List.of(TODO_ID, 2L)));
+            when(todoStore.findAll(filter)).thenReturn(List.of(testTodo));
+
+            // When
+            List<Todo> result = todoService.findTodos(filter);
+
+            // Then
+            assertThat(result, contains(testTodo));
+            verify(todoStore, never()).findAllById(any());
+            assertThat(meterRegistry.get(TodoService.FILTER_LOAD_METER)
+                    .tags("filter", "completed", "path", "store").timer().count(), is(1L));
+        }
+
+        @Test
+        @DisplayName("Should not consult the index without a filter")
+        void shouldNotConsultIndexWithoutFilter() {
+            // Given
+            when(todoStore.findAll(TodoFilter.NONE)).thenReturn(List.of(testTodo));
+
+            // When
+            todoService.findTodos(TodoFilter.NONE);
+
+            // Then
+            verifyNoInteractions(filterIndex);
+        }
+
+        @Test
+        @DisplayName("Should count from the index and fall back to the store")
+        void shouldCountFromIndexOrStore() {
+            // Given
+            TodoFilter indexed = TodoFilter.of(true, null, null, null);
+            TodoFilter unindexed = TodoFilter.of(false, null, null, null);
+            when(filterIndex.count(indexed)).thenReturn(OptionalLong.of(42));
+            when(filterIndex.count(unindexed)).thenReturn(OptionalLong.empty());
+            when(todoStore.count(unindexed)).thenReturn(7L);
+
+            // When / Then
+            assertThat(todoService.countTodos(indexed), is(42L));
+            assertThat(todoService.countTodos(unindexed), is(7L));
+            verify(todoStore, never()).count(indexed);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cache Tests")
+    class CacheTests {
+
+        @Test
+        @DisplayName("Should serve repeated id lookups from the cache until the todo changes")
+        void shouldServeRepeatedIdLookupsFromCache() {
+            // Given
+            when(todoStore.findById(TODO_ID)).thenReturn(Optional.of(testTodo));
+
+            // When
+            todoService.findTodoById(TODO_ID);
+            todoService.findTodoById(TODO_ID);
+            todoCache.onTodoChanged(TodoChangedEvent.patched(testTodo));
+            todoService.findTodoById(TODO_ID);
+
+            // Then
+            verify(todoStore, times(2)).findById(TODO_ID);
+        }
+
+        @Test
+        @DisplayName("Should serve repeated filter lookups from the cache")
+        void shouldServeRepeatedFilterLookupsFromCache() {
+            // Given
+            when(todoStore.findAll(any(TodoFilter.class))).thenReturn(Collections.singletonList(testTodo));
+
+            // When
+            List<Todo> first = todoService.findTodos(false, "Test", null, null);
+            List<Todo> second = todoService.findTodos(false, " Test ", null, null);
+
+            // Then
+            assertThat(second, is(equalTo(first)));
+            verify(todoStore, times(1)).findAll(any(TodoFilter.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pagination Tests")
+    class PaginationTests {
+
+        @Test
+        @DisplayName("Should return next cursor when more rows follow")
+        void shouldReturnNextCursorWhenMoreRowsFollow() {
+            // Given
+            Todo secondTodo = createAnotherTodo();
+            secondTodo.setCreatedAt(testTodo.getCreatedAt().plusSeconds(1));
+            when(todoStore.findPage(any(TodoFilter.class), isNull(), isNull(), eq(2)))
+                .thenReturn(Arrays.asList(testTodo, secondTodo));
+
+            // When
+            TodoPage page = todoService.findTodoPage(TodoFilter.NONE, null, null, 1);
+
+            // Then
+            assertThat(page.items(), contains(testTodo));
+            assertThat(page.hasNext(), is(true));
+            assertThat(TodoCursor.decode(page.nextCursor()).id(), is(equalTo(TODO_ID)));
+        }
+
+        @Test
+        @DisplayName("Should resume after decoded cursor and stop on last page")
+        void shouldResumeAfterDecodedCursor() {
+            // Given
+            TodoCursor cursor = TodoCursor.of(testTodo);
+            Todo secondTodo = createAnotherTodo();
+            when(searchIndex.search("Another")).thenReturn(Optional.of(List.of(2L)));
+            when(todoStore.findPage(any(TodoFilter.class), eq(List.of(2L)), eq(cursor), eq(TodoService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(Collections.singletonList(secondTodo));
+
+            // When
+            TodoPage page = todoService.findTodoPage(TodoFilter.of(true, null, null, null), "Another", cursor.encode(), null);
+
+            // Then
+            assertThat(page.items(), contains(secondTodo));
+            assertThat(page.hasNext(), is(false));
+            assertThat(page.nextCursor(), is(nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should cap page size at maximum")
+        void shouldCapPageSizeAtMaximum() {
+            // Given
+            when(todoStore.findPage(any(TodoFilter.class), isNull(), isNull(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+            // When
+            todoService.findTodoPage(TodoFilter.NONE, null, null, 100_000);
+
+            // Then
+            verify(todoStore).findPage(any(TodoFilter.class), isNull(), isNull(), eq(TodoService.MAX_PAGE_SIZE + 1));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid limit and cursor")
+        void shouldRejectInvalidLimitAndCursor() {
+            assertThrows(IllegalArgumentException.class,
+                () -> todoService.findTodoPage(TodoFilter.NONE, null, null, 0));
+            assertThrows(IllegalArgumentException.class,
+                () -> todoService.findTodoPage(TodoFilter.NONE, null, "not-a-cursor", 10));
+
+            verifyNoInteractions(todoStore);
         }
     }
 
@@ -463,10 +928,8 @@ class TodoServiceTest {
         void shouldSearchTodosByTerm() {
             // Given
             String searchTerm = "test";
-            List<Todo> expectedTodos = Collections.singletonList(testTodo);
-            
-            when(todoRepository.findByTitleOrDescriptionContaining(searchTerm))
-                .thenReturn(expectedTodos);
+            when(searchIndex.search(searchTerm)).thenReturn(Optional.of(List.of(TODO_ID)));
+            when(todoStore.findAllById(List.of(TODO_ID))).thenReturn(Collections.singletonList(testTodo));
 
             // When
             List<Todo> result = todoService.searchTodos(searchTerm);
@@ -475,8 +938,66 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1))
-                .findByTitleOrDescriptionContaining(searchTerm);
+            verify(searchIndex, times(1)).search(searchTerm);
+        }
+
+        @Test
+        @DisplayName("Should keep relevance order of the search index")
+        void shouldKeepRelevanceOrderOfSearchIndex() {
+            // Given
+            Todo anotherTodo = createAnotherTodo();
+            when(searchIndex.search("todo")).thenReturn(Optional.of(List.of(2L, TODO_ID)));
+            when(todoStore.findAllById(List.of(2L, TODO_ID))).thenReturn(Arrays.asList(testTodo, anotherTodo));
+
+            // When
+            List<Todo> result = todoService.searchTodos("todo");
+
+            // Then
+            assertThat(result, contains(anotherTodo, testTodo));
+        }
+
+        @Test
+        @DisplayName("Should export search results chunk by chunk in relevance order")
+        void shouldExportSearchResultsInChunks() {
+            // Given
+            List<Long> rankedIds = LongStream.rangeClosed(1, TodoService.MAX_BATCH_SIZE + 1)
+                    .map(id -> TodoService.MAX_BATCH_SIZE + 2 - id)
+                    .boxed()
+                    .toList();
+            when(searchIndex.search("todo")).thenReturn(Optional.of(rankedIds));
+            when(todoStore.findAllById(any())).thenAnswer(invocation -> {
+                Collection<Long> ids = invocation.getArgument(0);
+                return ids.stream().sorted().map(id -> {
+                    Todo todo = new Todo("Todo " + id, null);
+                    todo.setId(id);
+                    return todo;
+                }).toList();
+            });
+            List<Long> exported = new ArrayList<>();
+
+            // When
+            long count = todoService.exportSearchResults("todo", todo -> exported.add(todo.getId()));
+
+            // Then
+            assertThat(count, is((long) rankedIds.size()));
+            assertThat(exported, is(rankedIds));
+            verify(todoStore, times(2)).findAllById(any());
+        }
+
+        @Test
+        @DisplayName("Should scan the store while the search index is not built")
+        void shouldScanStoreWhileSearchIndexNotBuilt() {
+            // Given
+            Todo anotherTodo = createAnotherTodo();
+            when(searchIndex.search("another")).thenReturn(Optional.empty());
+            when(todoStore.findAll()).thenReturn(Arrays.asList(testTodo, anotherTodo));
+            when(todoStore.findAllById(List.of(anotherTodo.getId()))).thenReturn(List.of(anotherTodo));
+
+            // When
+            List<Todo> result = todoService.searchTodos("another");
+
+            // Then
+            assertThat(result, contains(anotherTodo));
         }
 
         @Test
@@ -484,8 +1005,7 @@ class TodoServiceTest {
         void shouldReturnEmptyListWhenNoSearchResults() {
             // Given
             String searchTerm = "nonexistent";
-            when(todoRepository.findByTitleOrDescriptionContaining(searchTerm))
-                .thenReturn(Collections.emptyList());
+            when(searchIndex.search(searchTerm)).thenReturn(Optional.of(Collections.emptyList()));
 
             // When
             List<Todo> result = todoService.searchTodos(searchTerm);
@@ -493,8 +1013,195 @@ class TodoServiceTest {
             // Then
             assertThat(result, is(empty()));
             
-            verify(todoRepository, times(1))
-                .findByTitleOrDescriptionContaining(searchTerm);
+            verify(todoStore, never()).findAllById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Change Event Tests")
+    class ChangeEventTests {
+
+        @Test
+        @DisplayName("Should publish created event after saving")
+        void shouldPublishCreatedEvent() {
+            // Given
+            when(todoStore.save(any(Todo.class))).thenReturn(testTodo);
+
+            // When
+            todoService.createTodo(new Todo("Test Todo", "Test Description"));
+
+            // Then
+            verify(eventPublisher).publishEvent(TodoChangedEvent.created(testTodo));
+        }
+
+        @Test
+        @DisplayName("Should publish deleted event only when todo existed")
+        void shouldPublishDeletedEventOnlyWhenTodoExisted() {
+            // Given
+            when(todoStore.deleteById(TODO_ID)).thenReturn(1);
+            when(todoStore.deleteById(999L)).thenReturn(0);
+
+            // When
+            todoService.deleteTodo(TODO_ID);
+            todoService.deleteTodo(999L);
+
+            // Then
+            verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+            verify(eventPublisher).publishEvent(TodoChangedEvent.deleted(TODO_ID));
+        }
+
+        @Test
+        @DisplayName("Should bump the table version for every committed change")
+        void shouldBumpVersionOnChange() {
+            // Given
+            long before = todoService.todosVersion();
+
+            // When
+            todoService.onTodoChanged(TodoChangedEvent.created(testTodo));
+            todoService.onTodoChanged(TodoChangedEvent.deleted(TODO_ID));
+
+            // Then
+            assertThat(todoService.todosVersion(), is(before + 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Tests")
+    class BatchTests {
+
+        @Test
+        @DisplayName("Should save valid todos in one call and report invalid ones")
+        @SuppressWarnings("unchecked")
+        void shouldSaveValidTodosAndReportInvalidOnes() {
+            // Given
+            Todo valid = new Todo("New Todo", "New Description");
+            valid.setId(42L);
+            Todo invalid = new Todo("", "No title");
+            ConstraintViolation<Todo> violation = mock(ConstraintViolation.class);
+            when(violation.getMessage()).thenReturn("Title is required");
+            when(validator.validate(any())).thenAnswer(invocation ->
+                    invocation.getArgument(0) == invalid ? Set.of(violation) : Set.of());
+            Todo saved = new Todo("New Todo", "New Description");
+            saved.setId(51L);
+            when(todoStore.saveAll(List.of(valid))).thenReturn(List.of(saved));
+
+            // When
+            BatchResponse response = todoService.createTodos(Arrays.asList(invalid, valid));
+
+            // Then
+            assertThat(response.getSucceeded(), is(1));
+            assertThat(response.getFailed(), is(1));
+            assertThat(response.getResults().get(0).getStatus(), is(400));
+            assertThat(response.getResults().get(0).getError(), is("Title is required"));
+            assertThat(response.getResults().get(1).getStatus(), is(201));
+            assertThat(response.getResults().get(1).getId(), is(51L));
+            assertThat("client-supplied ids are ignored", valid.getId(), is(nullValue()));
+
+            verify(todoStore, times(1)).saveAll(List.of(valid));
+            verify(eventPublisher).publishEvent(TodoChangedEvent.created(saved));
+        }
+
+        @Test
+        @DisplayName("Should patch found todos with one lookup and report unknown ids")
+        void shouldPatchFoundTodosAndReportUnknownIds() {
+            // Given
+            TodoBatchPatchRequest found = new TodoBatchPatchRequest();
+            found.setId(TODO_ID);
+            found.setCompleted(true);
+            TodoBatchPatchRequest missing = new TodoBatchPatchRequest();
+            missing.setId(999L);
+            missing.setCompleted(true);
+            TodoBatchPatchRequest withoutId = new TodoBatchPatchRequest();
+            withoutId.setCompleted(true);
+            when(todoStore.findAllById(List.of(TODO_ID, 999L))).thenReturn(List.of(testTodo));
+            when(todoStore.saveAll(any())).thenReturn(List.of(testTodo));
+
+            // When
+            BatchResponse response = todoService.patchTodos(Arrays.asList(found, missing, withoutId));
+
+            // Then
+            assertThat(response.getSucceeded(), is(1));
+            assertThat(response.getResults().get(0).getStatus(), is(200));
+            assertThat(response.getResults().get(1).getStatus(), is(404));
+            assertThat(response.getResults().get(2).getStatus(), is(400));
+            assertThat(testTodo.getCompleted(), is(true));
+
+            verify(todoStore, times(1)).findAllById(any());
+            verify(todoStore, never()).findById(anyLong());
+            verify(eventPublisher).publishEvent(TodoChangedEvent.patched(testTodo));
+        }
+
+        @Test
+        @DisplayName("Should not write or announce batch items that change nothing")
+        void shouldNotWriteUnchangedBatchItems() {
+            // Given
+            TodoBatchPatchRequest unchanged = new TodoBatchPatchRequest();
+            unchanged.setId(TODO_ID);
+            unchanged.setTitle(testTodo.getTitle());
+            unchanged.setCompleted(testTodo.getCompleted());
+            when(todoStore.findAllById(List.of(TODO_ID))).thenReturn(List.of(testTodo));
+            when(todoStore.saveAll(any())).thenReturn(List.of());
+
+            // When
+            BatchResponse response = todoService.patchTodos(List.of(unchanged));
+
+            // Then
+            assertThat(response.getSucceeded(), is(1));
+            assertThat(response.getResults().get(0).getStatus(), is(200));
+            verify(todoStore).saveAll(argThat(Collection::isEmpty));
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should report batch items based on a stale version as conflicts")
+        void shouldReportStaleBatchItemsAsConflicts() {
+            // Given
+            testTodo.setVersion(4L);
+            TodoBatchPatchRequest stale = new TodoBatchPatchRequest();
+            stale.setId(TODO_ID);
+            stale.setTitle("Renamed");
+            stale.setVersion(3L);
+            when(todoStore.findAllById(List.of(TODO_ID))).thenReturn(List.of(testTodo));
+            when(todoStore.saveAll(any())).thenReturn(List.of());
+
+            // When
+            BatchResponse response = todoService.patchTodos(List.of(stale));
+
+            // Then
+            assertThat(response.getFailed(), is(1));
+            assertThat(response.getResults().get(0).getStatus(), is(409));
+            assertThat(response.getResults().get(0).getError(), is("Todo has version 4, expected 3"));
+            assertThat(testTodo.getTitle(), is("Test Todo"));
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should delete existing todos with a single bulk statement")
+        void shouldDeleteExistingTodosInBulk() {
+            // Given
+            when(todoStore.findAllById(List.of(TODO_ID, 999L))).thenReturn(List.of(testTodo));
+
+            // When
+            BatchResponse response = todoService.deleteTodos(Arrays.asList(TODO_ID, 999L));
+
+            // Then
+            assertThat(response.getSucceeded(), is(1));
+            assertThat(response.getResults().get(0).getStatus(), is(200));
+            assertThat(response.getResults().get(1).getStatus(), is(404));
+
+            verify(todoStore, times(1)).deleteAllById(Set.of(TODO_ID));
+            verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should reject empty and oversized batches")
+        void shouldRejectEmptyAndOversizedBatches() {
+            List<Long> oversized = Collections.nCopies(TodoService.MAX_BATCH_SIZE + 1, TODO_ID);
+
+            assertThrows(IllegalArgumentException.class, () -> todoService.deleteTodos(Collections.emptyList()));
+            assertThrows(IllegalArgumentException.class, () -> todoService.deleteTodos(oversized));
+
+            verifyNoInteractions(todoStore);
         }
     }
 
@@ -507,7 +1214,7 @@ class TodoServiceTest {
         void shouldReturnTodaysTodos() {
             // Given
             List<Todo> expectedTodos = Collections.singletonList(testTodo);
-            when(todoRepository.findTodaysTodos()).thenReturn(expectedTodos);
+            when(todoStore.findAll(TodoFilter.of(null, null, null, LocalDate.now()))).thenReturn(expectedTodos);
 
             // When
             List<Todo> result = todoService.findTodaysTodos();
@@ -516,7 +1223,7 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1)).findTodaysTodos();
+            verify(todoStore, times(1)).findAll(TodoFilter.of(null, null, null, LocalDate.now()));
         }
 
         @Test
@@ -524,7 +1231,7 @@ class TodoServiceTest {
         void shouldReturnTodaysTodosByCompletionStatus() {
             // Given
             List<Todo> expectedTodos = Collections.singletonList(testTodo);
-            when(todoRepository.findTodaysTodosByCompleted(false)).thenReturn(expectedTodos);
+            when(todoStore.findAll(TodoFilter.of(false, null, null, LocalDate.now()))).thenReturn(expectedTodos);
 
             // When
             List<Todo> result = todoService.findTodaysTodos(false);
@@ -533,7 +1240,7 @@ class TodoServiceTest {
             assertThat(result, hasSize(1));
             assertThat(result, contains(testTodo));
             
-            verify(todoRepository, times(1)).findTodaysTodosByCompleted(false);
+            verify(todoStore, times(1)).findAll(TodoFilter.of(false, null, null, LocalDate.now()));
         }
     }
 
@@ -547,4 +1254,11 @@ class TodoServiceTest {
         anotherTodo.setCategory("Another");
         return anotherTodo;
     }
-}
\ No newline at end of file
+
+    private Todo todoWithId(Long id, boolean completed) {
+        Todo todo = new Todo("Todo " + id, "Description " + id, "Test", false, null);
+        todo.setId(id);
+        todo.setCompleted(completed);
+        return todo;
+    }
+}
@@ -0,0 +1,181 @@
+package me.coding.stats;
+
+import me.coding.dto.TodoStats;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.search.TodoFilterIndex;
+import me.coding.service.TodoChangedEvent;
+import me.coding.service.TodoService;
+import me.coding.store.TodoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoStatistics Tests")
+class TodoStatisticsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private TodoStore todoStore;
+
+    @Mock
+    private TodoService todoService;
+
+    private TodoFilterIndex filterIndex;
+    private TodoStatistics statistics;
+
+    private Todo report;
+    private Todo invoice;
+    private Todo plants;
+
+    @BeforeEach
+    void setUp() {
+        report = todo(1L, "Work", false, true, TODAY);
+        invoice = todo(2L, "Work", true, false, TODAY);
+        plants = todo(3L, "Home", false, false, null);
+        filterIndex = new TodoFilterIndex(todoStore);
+        statistics = new TodoStatistics(filterIndex, todoStore, todoService);
+    }
+
+    @Nested
+    @DisplayName("From the filter index")
+    class FromFilterIndex {
+
+        @BeforeEach
+        void rebuild() {
+            when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(report, invoice, plants));
+            filterIndex.rebuild();
+        }
+
+        @Test
+        @DisplayName("Should count the indexed todos")
+        void shouldCountIndexedTodos() {
+            assertThat(statistics.stats(TODAY), is(new TodoStats(3, 2, 1, 1, 2, Map.of("Home", 1L, "Work", 2L))));
+            assertThat(statistics.stats(TODAY.plusDays(1)).dueToday(), is(0L));
+            verify(todoStore, never()).count(TodoFilter.NONE);
+        }
+
+        @Test
+        @DisplayName("Should follow changed todos")
+        void shouldFollowChangedTodos() {
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.patched(todo(1L, "Home", true, true, null)));
+
+            // Then
+            assertThat(statistics.stats(TODAY), is(new TodoStats(3, 1, 2, 1, 1, Map.of("Home", 2L, "Work", 1L))));
+        }
+
+        @Test
+        @DisplayName("Should count created todos and forget deleted ones")
+        void shouldCountCreatedAndDeletedTodos() {
+            // When
+            filterIndex.onTodoChanged(TodoChangedEvent.created(todo(4L, "Travel", false, true, TODAY)));
+            filterIndex.onTodoChanged(TodoChangedEvent.deleted(2L));
+            filterIndex.onTodoChanged(TodoChangedEvent.deleted(99L));
+
+            // Then
+            assertThat(statistics.stats(TODAY), is(new TodoStats(3, 3, 0, 2, 2, Map.of("Home", 1L, "Travel", 1L, "Work", 1L))));
+        }
+    }
+
+    @Nested
+    @DisplayName("From the store")
+    class FromStore {
+
+        @Test
+        @DisplayName("Should count the stored todos while the index is not ready")
+        void shouldCountStoredTodosWhileIndexNotReady() {
+            // Given
+            stubStoreCounts(3, 1, 1, 2, Map.of("Home", 1L, "Work", 2L));
+
+            // Then
+            assertThat(statistics.stats(TODAY), is(new TodoStats(3, 2, 1, 1, 2, Map.of("Home", 1L, "Work", 2L))));
+            verify(todoStore, never()).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconciliation")
+    class Reconciliation {
+
+        @BeforeEach
+        void rebuild() {
+            when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(report, invoice, plants));
+            filterIndex.rebuild();
+        }
+
+        @Test
+        @DisplayName("Should keep the index when the store counts the same")
+        void shouldKeepIndexWhenCountsMatch() {
+            // Given
+            stubStoreCounts(3, 1, 1, 2, Map.of("Home", 1L, "Work", 2L));
+
+            // Then
+            assertThat(statistics.reconcile(TODAY), is(false));
+            assertThat(statistics.drifts(), is(0L));
+            verify(todoStore, times(1)).streamAll(TodoFilter.NONE);
+        }
+
+        @Test
+        @DisplayName("Should rebuild the index when it drifted from the store")
+        void shouldRebuildIndexOnDrift() {
+            // Given - a todo completed around the service
+            invoice.setCompleted(false);
+            stubStoreCounts(3, 0, 1, 2, Map.of("Home", 1L, "Work", 2L));
+            when(todoStore.streamAll(TodoFilter.NONE)).thenReturn(Stream.of(report, invoice, plants));
+
+            // When
+            boolean drifted = statistics.reconcile(TODAY);
+
+            // Then
+            assertThat(drifted, is(true));
+            assertThat(statistics.drifts(), is(1L));
+            assertThat(statistics.stats(TODAY), is(new TodoStats(3, 3, 0, 1, 2, Map.of("Home", 1L, "Work", 2L))));
+        }
+
+        @Test
+        @DisplayName("Should skip a round in which todos changed")
+        void shouldSkipRoundWithConcurrentChange() {
+            // Given
+            stubStoreCounts(4, 1, 1, 2, Map.of("Home", 2L, "Work", 2L));
+            when(todoService.todosVersion()).thenReturn(7L, 8L);
+
+            // Then
+            assertThat(statistics.reconcile(TODAY), is(false));
+            assertThat(statistics.drifts(), is(0L));
+            verify(todoStore, times(1)).streamAll(TodoFilter.NONE);
+        }
+    }
+
+    private void stubStoreCounts(long total, long completed, long important, long dueToday, Map<String, Long> byCategory) {
+        when(todoStore.count(TodoFilter.NONE)).thenReturn(total);
+        when(todoStore.count(TodoFilter.of(true, null, null, null))).thenReturn(completed);
+        when(todoStore.count(TodoFilter.of(null, null, true, null))).thenReturn(important);
+        when(todoStore.count(TodoFilter.of(null, null, null, TODAY))).thenReturn(dueToday);
+        when(todoStore.countByCategory()).thenReturn(byCategory);
+    }
+
+    private static Todo todo(Long id, String category, boolean completed, boolean important, LocalDate dueDate) {
+        Todo todo = new Todo("Todo " + id, "Description " + id, category, important, dueDate);
+        todo.setId(id);
+        todo.setCompleted(completed);
+        return todo;
+    }
+}
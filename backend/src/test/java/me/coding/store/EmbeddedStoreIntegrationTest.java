@@ -0,0 +1,94 @@
+package me.coding.store;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.exception.VersionConflictException;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import me.coding.service.TodoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs {@link TodoService} on the embedded engine, to check that {@code todo.store.type} switches
+ * the whole service over and that search and versioning keep working without the SQL store.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("Embedded Store Integration Tests")
+class EmbeddedStoreIntegrationTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void embeddedStore(DynamicPropertyRegistry registry) {
+        registry.add("todo.store.type", () -> "embedded");
+        registry.add("todo.store.embedded.directory", () -> directory.toString());
+        registry.add("todo.store.embedded.fsync", () -> "false");
+    }
+
+    @Autowired
+    private TodoStore todoStore;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should serve the todo service from the embedded store")
+    void shouldServeTodoServiceFromEmbeddedStore() {
+        // Given
+        Todo created = todoService.createTodo(new Todo("Embedded groceries", "Milk and bread", "Personal"));
+        TodoUpdateRequest complete = new TodoUpdateRequest();
+        complete.setCompleted(true);
+        complete.setVersion(0L);
+
+        // When
+        Todo patched = todoService.patchTodo(created.getId(), complete).orElseThrow();
+
+        // Then
+        assertThat(todoStore, is(instanceOf(EmbeddedTodoStore.class)));
+        assertThat(patched.getVersion(), is(1L));
+        assertThat(todoService.findTodos(TodoFilter.of(true, "Personal", null, null)), hasSize(1));
+        assertThat(todoService.searchTodos("groceries"), hasSize(1));
+        assertThrows(VersionConflictException.class, () -> todoService.patchTodo(created.getId(), complete));
+    }
+
+    @Test
+    @DisplayName("Should undo the store writes of a rolled back transaction")
+    void shouldUndoWritesOfRolledBackTransaction() {
+        // Given
+        Todo kept = todoService.createTodo(new Todo("Embedded laundry", "Whites", "Home"));
+        TodoUpdateRequest complete = new TodoUpdateRequest();
+        complete.setCompleted(true);
+
+        // When
+        Long created = new TransactionTemplate(transactionManager).execute(status -> {
+            Todo todo = todoService.createTodo(new Todo("Embedded rollback", "Never committed", "Home"));
+            todoService.patchTodo(kept.getId(), complete);
+            status.setRollbackOnly();
+            return todo.getId();
+        });
+
+        // Then
+        assertThat(todoStore.findById(created).isPresent(), is(false));
+        assertThat(todoStore.findById(kept.getId()).orElseThrow().getCompleted(), is(false));
+        assertThat(todoStore.findVersionById(kept.getId()).orElseThrow(), is(0L));
+        assertThat(todoService.searchTodos("rollback"), is(empty()));
+        assertThat(todoService.findTodos(TodoFilter.of(true, "Home", null, null)), is(empty()));
+    }
+}
@@ -0,0 +1,276 @@
+package me.coding.store;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("EmbeddedTodoStore Tests")
+class EmbeddedTodoStoreTest extends TodoStoreContractTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<EmbeddedTodoStore> opened = new ArrayList<>();
+
+    private EmbeddedTodoStore todoStore;
+
+    @BeforeEach
+    void openStore() {
+        todoStore = open(1000);
+    }
+
+    @AfterEach
+    void closeStores() {
+        opened.forEach(EmbeddedTodoStore::close);
+    }
+
+    @Override
+    protected TodoStore store() {
+        return todoStore;
+    }
+
+    @Override
+    protected void flushAndClear() {
+        // Every call is applied immediately and hands out copies
+    }
+
+    @Test
+    @DisplayName("Should hand out copies that do not change the stored todo")
+    void shouldHandOutCopies() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+
+        // When
+        todoStore.findById(id).orElseThrow().setTitle("Changed without saving");
+
+        // Then
+        assertThat(todoStore.findById(id).orElseThrow().getTitle(), is("Draft"));
+    }
+
+    @Test
+    @DisplayName("Should recover writes from the log after a crash")
+    void shouldRecoverWritesFromLog() {
+        // Given
+        Todo kept = save("Kept", "Work", false, false, null);
+        Todo deleted = save("Deleted", "Work", false, false, null);
+        todoStore.patch(kept.getId(), completed(true));
+        todoStore.deleteById(deleted.getId());
+
+        // When, without closing the first store
+        EmbeddedTodoStore recovered = open(1000);
+
+        // Then
+        Todo found = recovered.findById(kept.getId()).orElseThrow();
+        assertThat(found.getCompleted(), is(true));
+        assertThat(found.getVersion(), is(1L));
+        assertThat(found.getCreatedAt(), is(kept.getCreatedAt()));
+        assertThat(recovered.findById(deleted.getId()).isPresent(), is(false));
+        assertThat(recovered.findAll(TodoFilter.of(true, "Work", null, null)), hasSize(1));
+    }
+
+    @Test
+    @DisplayName("Should recover from the snapshot and the log written after it")
+    void shouldRecoverFromSnapshotAndLog() {
+        // Given
+        EmbeddedTodoStore store = open(2);
+        Long first = store.save(new Todo("First", null, "Work")).getId();
+        Long second = store.save(new Todo("Second", null, "Home")).getId();
+        Long third = store.save(new Todo("Third", null, "Work")).getId();
+
+        // When
+        EmbeddedTodoStore recovered = open(2);
+
+        // Then
+        assertThat(Files.exists(directory.resolve(TodoLog.SNAPSHOT_FILE)), is(true));
+        assertThat(recovered.findAll().stream().map(Todo::getId).toList(), containsInAnyOrder(first, second, third));
+        assertThat(recovered.findAll(TodoFilter.of(null, "Work", null, null)), hasSize(2));
+    }
+
+    @Test
+    @DisplayName("Should drop a torn entry at the end of the log")
+    void shouldDropTornEntryAtEndOfLog() throws IOException {
+        // Given
+        Long id = save("Complete", null, false, false, null).getId();
+        Files.write(directory.resolve(TodoLog.LOG_FILE), new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        // When
+        EmbeddedTodoStore recovered = open(1000);
+        Long next = recovered.save(new Todo("After recovery", null)).getId();
+        EmbeddedTodoStore recoveredAgain = open(1000);
+
+        // Then
+        assertThat(recoveredAgain.findById(id).orElseThrow().getTitle(), is("Complete"));
+        assertThat(recoveredAgain.findById(next).orElseThrow().getTitle(), is("After recovery"));
+    }
+
+    @Test
+    @DisplayName("Should drop an entry at the end of the log whose payload was not fully written")
+    void shouldDropEntryWithTruncatedPayload() throws IOException {
+        // Given: a header announcing 256 bytes, followed by only 3 of them
+        Long id = save("Complete", null, false, false, null).getId();
+        Files.write(directory.resolve(TodoLog.LOG_FILE), new byte[] {0, 0, 1, 0, 1, 2, 3, 4, 7, 7, 7}, StandardOpenOption.APPEND);
+
+        // When
+        EmbeddedTodoStore recovered = open(1000);
+
+        // Then
+        assertThat(recovered.findById(id).orElseThrow().getTitle(), is("Complete"));
+        assertThat(recovered.findAll(), hasSize(1));
+    }
+
+    @Test
+    @DisplayName("Should refuse to recover from a damaged entry before the end of the log")
+    void shouldFailOnDamagedEntryBeforeEndOfLog() throws IOException {
+        // Given: the payload of the first of two entries is changed
+        save("First", null, false, false, null);
+        save("Second", null, false, false, null);
+        Path log = directory.resolve(TodoLog.LOG_FILE);
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[12] ^= 0x5A;
+        Files.write(log, bytes);
+
+        // When
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> open(1000));
+
+        // Then
+        assertThat(failure.getMessage(), containsString("offset 0"));
+        assertThat(Files.readAllBytes(log).length, is(bytes.length));
+    }
+
+    @Test
+    @DisplayName("Should not reuse the id of a deleted todo after a restart")
+    void shouldNotReuseIdsAfterRestart() {
+        // Given
+        Long deleted = save("Newest", null, false, false, null).getId();
+        todoStore.deleteById(deleted);
+        todoStore.close();
+
+        // When
+        EmbeddedTodoStore recovered = open(1000);
+        Long next = recovered.save(new Todo("Next", null)).getId();
+
+        // Then
+        assertThat(next, is(greaterThan(deleted)));
+    }
+
+    @Test
+    @DisplayName("Should not write a todo saved without changes")
+    void shouldNotWriteUnchangedTodo() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+
+        // When
+        Todo saved = todoStore.save(todoStore.findById(id).orElseThrow());
+
+        // Then
+        assertThat(saved.getVersion(), is(0L));
+        assertThat(todoStore.findVersionById(id).orElseThrow(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Should return only the todos it wrote")
+    void shouldReturnOnlyWrittenTodos() {
+        // Given
+        Todo unchanged = todoStore.findById(save("Kept", "Work", false, false, null).getId()).orElseThrow();
+        Todo changed = todoStore.findById(save("Draft", "Work", false, false, null).getId()).orElseThrow();
+        changed.setTitle("Final");
+        
+        // When
+        List<Todo> saved = todoStore.saveAll(List.of(unchanged, changed));
+        
+        // Then
+        assertThat(saved, contains(changed));
+        assertThat(unchanged.getVersion(), is(0L));
+        assertThat(changed.getVersion(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Should write back the previous state when the transaction rolls back")
+    void shouldRestoreWritesOnRollback() {
+        // Given
+        Long kept = save("Kept", "Work", false, false, null).getId();
+        Long patched = save("Draft", "Work", false, false, null).getId();
+        Long deleted = save("Obsolete", "Home", false, false, null).getId();
+        
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        Long created;
+        try {
+            created = todoStore.save(new Todo("Rolled back", null)).getId();
+            todoStore.patch(patched, completed(true));
+            todoStore.patch(patched, completed(false));
+            todoStore.deleteById(deleted);
+            assertThat(todoStore.count(TodoFilter.NONE), is(3L));
+        } finally {
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        
+        // Then
+        assertThat(todoStore.findById(created).isPresent(), is(false));
+        assertThat(todoStore.findVersionById(patched).orElseThrow(), is(0L));
+        assertThat(todoStore.findById(deleted).orElseThrow().getTitle(), is("Obsolete"));
+        assertThat(todoStore.findById(kept).orElseThrow().getTitle(), is("Kept"));
+        assertThat(todoStore.count(TodoFilter.of(null, "Home", null, null)), is(1L));
+        
+        // And the restored state survives a restart
+        todoStore.close();
+        EmbeddedTodoStore recovered = open(1000);
+        assertThat(recovered.findById(created).isPresent(), is(false));
+        assertThat(recovered.findById(deleted).orElseThrow().getTitle(), is("Obsolete"));
+    }
+
+    @Test
+    @DisplayName("Should keep writes of a committed transaction")
+    void shouldKeepWritesOnCommit() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+        
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoStore.patch(id, completed(true));
+        } finally {
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        
+        // Then
+        assertThat(todoStore.findById(id).orElseThrow().getCompleted(), is(true));
+    }
+
+    private EmbeddedTodoStore open(int snapshotEvery) {
+        EmbeddedTodoStore store = new EmbeddedTodoStore(directory.toString(), false, snapshotEvery);
+        opened.add(store);
+        return store;
+    }
+
+    /** Ends the synchronization started by the test the way a transaction manager does. */
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static TodoUpdateRequest completed(boolean completed) {
+        TodoUpdateRequest request = new TodoUpdateRequest();
+        request.setCompleted(completed);
+        return request;
+    }
+}
@@ -0,0 +1,30 @@
+package me.coding.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import(JpaTodoStore.class)
+@DisplayName("JpaTodoStore Tests")
+class JpaTodoStoreTest extends TodoStoreContractTest {
+
+    @Autowired
+    private JpaTodoStore todoStore;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Override
+    protected TodoStore store() {
+        return todoStore;
+    }
+
+    @Override
+    protected void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,332 @@
+package me.coding.store;
+
+import me.coding.dto.TodoUpdateRequest;
+import me.coding.model.Todo;
+import me.coding.repository.TodoCursor;
+import me.coding.repository.TodoField;
+import me.coding.repository.TodoFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Behaviour every {@link TodoStore} must share, so {@link me.coding.service.TodoService} works the
+ * same on either engine. Subclasses provide the store and define what ends a unit of work.
+ * <p>
+ * Spring resolves a class-level {@link Transactional} from the class declaring the test method, so
+ * the {@code @DataJpaTest} of a subclass does not reach these cases; the annotation here runs each of
+ * them in a rolled-back test transaction. Subclasses that are not Spring tests ignore it.
+ */
+@Transactional
+abstract class TodoStoreContractTest {
+
+    protected abstract TodoStore store();
+
+    /**
+     * Makes the next read see the stored state rather than instances handed out earlier.
+     */
+    protected abstract void flushAndClear();
+
+    @Test
+    @DisplayName("Should assign id, version and timestamps on insert")
+    void shouldAssignIdVersionAndTimestampsOnInsert() {
+        // When
+        Todo saved = save("Buy groceries", "Personal", false, false, null);
+        flushAndClear();
+
+        // Then
+        Todo found = store().findById(saved.getId()).orElseThrow();
+        assertThat(found.getTitle(), is("Buy groceries"));
+        assertThat(found.getCategory(), is("Personal"));
+        assertThat(found.getVersion(), is(0L));
+        assertThat(found.getCreatedAt(), is(notNullValue()));
+        assertThat(found.getUpdatedAt(), is(notNullValue()));
+        assertThat(store().findVersionById(saved.getId()), is(Optional.of(0L)));
+    }
+
+    @Test
+    @DisplayName("Should increment the version when a changed todo is saved")
+    void shouldIncrementVersionOnSave() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+        flushAndClear();
+
+        // When
+        Todo todo = store().findById(id).orElseThrow();
+        todo.setTitle("Final");
+        store().save(todo);
+        flushAndClear();
+
+        // Then
+        Todo found = store().findById(id).orElseThrow();
+        assertThat(found.getTitle(), is("Final"));
+        assertThat(found.getVersion(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Should reject saving a stale version")
+    void shouldRejectSavingStaleVersion() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+        flushAndClear();
+        assertThat(store().patch(id, flags(true, null)), is(1));
+        flushAndClear();
+
+        // When
+        Todo stale = copyAtVersion(id, 0L);
+        stale.setTitle("Lost update");
+
+        // Then
+        assertThrows(OptimisticLockingFailureException.class, () -> store().save(stale));
+    }
+
+    @Test
+    @DisplayName("Should find todos matching every filter attribute")
+    void shouldFindTodosMatchingFilter() {
+        // Given
+        LocalDate today = LocalDate.now();
+        Todo work = save("Write report", "Work", false, true, today);
+        Todo done = save("Send invoice", "Work", true, false, today);
+        Todo home = save("Water plants", "Home", false, false, null);
+        flushAndClear();
+
+        // Then
+        assertThat(ids(store().findAll(TodoFilter.NONE)), containsInAnyOrder(work.getId(), done.getId(), home.getId()));
+        assertThat(ids(store().findAll(TodoFilter.of(false, null, null, null))), containsInAnyOrder(work.getId(), home.getId()));
+        assertThat(ids(store().findAll(TodoFilter.of(null, "Work", null, null))), containsInAnyOrder(work.getId(), done.getId()));
+        assertThat(ids(store().findAll(TodoFilter.of(null, null, true, null))), contains(work.getId()));
+        assertThat(ids(store().findAll(TodoFilter.of(false, null, null, today))), contains(work.getId()));
+        assertThat(store().findAll(TodoFilter.of(null, "Unknown", null, null)), is(empty()));
+        assertThat(store().findAll(TodoFilter.of(null, null, null, today.plusDays(1))), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Should count todos matching a filter")
+    void shouldCountTodosMatchingFilter() {
+        // Given
+        save("Write report", "Work", false, true, null);
+        save("Send invoice", "Work", true, false, null);
+        save("Water plants", "Home", false, false, null);
+        flushAndClear();
+
+        // Then
+        assertThat(store().count(TodoFilter.NONE), is(3L));
+        assertThat(store().count(TodoFilter.of(false, "Work", null, null)), is(1L));
+        assertThat(store().count(TodoFilter.of(null, "Unknown", null, null)), is(0L));
+    }
+
+    @Test
+    @DisplayName("Should count todos per category")
+    void shouldCountTodosPerCategory() {
+        // Given
+        save("Write report", "Work", false, true, null);
+        save("Send invoice", "Work", true, false, null);
+        Long moved = save("Water plants", "Garden", false, false, null).getId();
+        save("Read a book", null, false, false, null);
+        flushAndClear();
+        store().patch(moved, category("Home"));
+        flushAndClear();
+
+        // Then
+        assertThat(store().countByCategory(), is(Map.of("Home", 1L, "Work", 2L)));
+    }
+
+    @Test
+    @DisplayName("Should find only existing todos by id")
+    void shouldFindOnlyExistingTodosById() {
+        // Given
+        Todo first = save("First", null, false, false, null);
+        Todo second = save("Second", null, false, false, null);
+        flushAndClear();
+
+        // When
+        List<Todo> found = store().findAllById(List.of(first.getId(), second.getId(), 999_999L));
+
+        // Then
+        assertThat(ids(found), containsInAnyOrder(first.getId(), second.getId()));
+        assertThat(store().findById(999_999L).isPresent(), is(false));
+        assertThat(store().findVersionById(999_999L).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should page in creation order after the cursor")
+    void shouldPageInCreationOrderAfterCursor() {
+        // Given
+        Todo first = save("First", "Work", false, false, null);
+        Todo second = save("Second", "Work", false, false, null);
+        Todo third = save("Third", "Work", false, false, null);
+        save("Elsewhere", "Home", false, false, null);
+        flushAndClear();
+        TodoFilter work = TodoFilter.of(null, "Work", null, null);
+
+        // When
+        List<Todo> firstPage = store().findPage(work, null, null, 2);
+        List<Todo> secondPage = store().findPage(work, null, TodoCursor.of(firstPage.get(1)), 2);
+        List<Todo> restricted = store().findPage(work, List.of(first.getId(), third.getId()), null, 10);
+
+        // Then
+        assertThat(ids(firstPage), contains(first.getId(), second.getId()));
+        assertThat(ids(secondPage), contains(third.getId()));
+        assertThat(ids(restricted), contains(first.getId(), third.getId()));
+    }
+
+    @Test
+    @DisplayName("Should read only the selected fields")
+    void shouldReadOnlySelectedFields() {
+        // Given
+        Todo work = save("Write report", "Work", false, true, null);
+        save("Water plants", "Home", false, false, null);
+        flushAndClear();
+
+        // When
+        List<Map<String, Object>> rows = store().findFields(TodoFilter.of(null, null, true, null), null,
+                List.of(TodoField.TITLE, TodoField.ID, TodoField.IMPORTANT));
+
+        // Then
+        assertThat(rows, hasSize(1));
+        assertThat(rows.get(0).keySet(), contains("title", "id", "important"));
+        assertThat(rows.get(0).get("title"), is("Write report"));
+        assertThat(rows.get(0).get("id"), is(work.getId()));
+        assertThat(rows.get(0).get("important"), is(true));
+    }
+
+    @Test
+    @DisplayName("Should stream matching todos in id order")
+    void shouldStreamMatchingTodosInIdOrder() {
+        // Given
+        Todo first = save("First", "Work", false, false, null);
+        save("Second", "Home", false, false, null);
+        Todo third = save("Third", "Work", false, false, null);
+        flushAndClear();
+
+        // When
+        List<Long> streamed;
+        try (Stream<Todo> todos = store().streamAll(TodoFilter.of(null, "Work", null, null))) {
+            streamed = todos.map(Todo::getId).toList();
+        }
+
+        // Then
+        assertThat(streamed, contains(first.getId(), third.getId()));
+    }
+
+    @Test
+    @DisplayName("Should patch present fields and increment the version")
+    void shouldPatchPresentFields() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+        flushAndClear();
+
+        // When
+        int patched = store().patch(id, flags(true, null));
+        flushAndClear();
+
+        // Then
+        assertThat(patched, is(1));
+        Todo found = store().findById(id).orElseThrow();
+        assertThat(found.getCompleted(), is(true));
+        assertThat(found.getTitle(), is("Draft"));
+        assertThat(found.getCategory(), is("Work"));
+        assertThat(found.getVersion(), is(1L));
+        assertThat(ids(store().findAll(TodoFilter.of(true, null, null, null))), contains(id));
+    }
+
+    @Test
+    @DisplayName("Should not patch a stale version or a missing todo")
+    void shouldNotPatchStaleVersionOrMissingTodo() {
+        // Given
+        Long id = save("Draft", "Work", false, false, null).getId();
+        flushAndClear();
+
+        // When
+        int stale = store().patch(id, flags(true, 5L));
+        int missing = store().patch(999_999L, flags(true, null));
+        flushAndClear();
+
+        // Then
+        assertThat(stale, is(0));
+        assertThat(missing, is(0));
+        assertThat(store().findById(id).orElseThrow().getVersion(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Should delete single and multiple todos")
+    void shouldDeleteTodos() {
+        // Given
+        Todo first = save("First", "Work", false, false, null);
+        Todo second = save("Second", "Work", false, false, null);
+        Todo third = save("Third", "Work", false, false, null);
+        flushAndClear();
+
+        // When
+        int deleted = store().deleteById(first.getId());
+        int missing = store().deleteById(first.getId());
+        store().deleteAllById(List.of(second.getId(), 999_999L));
+        flushAndClear();
+
+        // Then
+        assertThat(deleted, is(1));
+        assertThat(missing, is(0));
+        assertThat(ids(store().findAll()), contains(third.getId()));
+        assertThat(store().findAll(TodoFilter.of(null, "Work", null, null)), hasSize(1));
+    }
+
+    @Test
+    @DisplayName("Should save batches in order")
+    void shouldSaveBatchesInOrder() {
+        // When
+        List<Todo> saved = store().saveAll(List.of(
+                new Todo("First", null, "Work"),
+                new Todo("Second", null, "Home")));
+        flushAndClear();
+
+        // Then
+        assertThat(saved.get(0).getId(), is(lessThan(saved.get(1).getId())));
+        assertThat(store().findById(saved.get(1).getId()).orElseThrow().getTitle(), is("Second"));
+    }
+
+    protected Todo save(String title, String category, boolean completed, boolean important, LocalDate dueDate) {
+        Todo todo = new Todo(title, "Description of " + title, category, important, dueDate);
+        todo.setCompleted(completed);
+        return store().save(todo);
+    }
+
+    private Todo copyAtVersion(Long id, Long version) {
+        Todo current = store().findById(id).orElseThrow();
+        flushAndClear();
+        Todo copy = new Todo(current.getTitle(), current.getDescription(), current.getCategory(),
+                current.getImportant(), current.getDueDate());
+        copy.setId(id);
+        copy.setCompleted(current.getCompleted());
+        copy.setCreatedAt(current.getCreatedAt());
+        copy.setVersion(version);
+        return copy;
+    }
+
+    private static TodoUpdateRequest flags(Boolean completed, Long version) {
+        TodoUpdateRequest request = new TodoUpdateRequest();
+        request.setCompleted(completed);
+        request.setVersion(version);
+        return request;
+    }
+
+    private static TodoUpdateRequest category(String category) {
+        TodoUpdateRequest request = new TodoUpdateRequest();
+        request.setCategory(category);
+        return request;
+    }
+
+    private static List<Long> ids(List<Todo> todos) {
+        return todos.stream().map(Todo::getId).toList();
+    }
+}